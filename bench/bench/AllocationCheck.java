@@ -0,0 +1,274 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+
+import game.Game;
+import game.GameClock;
+import gameobjects.player.Player;
+import gameobjects.powerups.Powerup;
+import gameobjects.powerups.PowerupType;
+import gameobjects.projectiles.Arrow;
+import gamestates.PlayState;
+import gamestates.StateManager;
+import gfx.Animation.AnimationDirection;
+import profiling.AllocationTracker;
+
+/**
+ * The AllocationCheck checks that a game in progress does not <br>
+ * allocate any memory once it has warmed up. <br> <br>
+ *
+ * The game is run without a window in rounds of a number of updates <br>
+ * and frames, while the bytes allocated by the game loop are measured. <br>
+ * Three scenes are checked: skeletons chasing the player with arrows <br>
+ * in flight and powerups on the ground, skeletons attacking the player, <br>
+ * and the pause menu. The player is healed whenever they are down to <br>
+ * half of their health, so the game never ends, and attacks still <br>
+ * damage them, play their sounds and change the HUD. Nothing is <br>
+ * spawned or killed while measuring, as creating objects is allowed <br>
+ * to allocate. The powerups disappear after 40 seconds of game time, <br>
+ * so they are replaced between updates, without being measured, <br>
+ * before that happens. <br> <br>
+ *
+ * The JIT keeps compiling the game for a while, and code that is <br>
+ * being replaced can allocate for a moment. So the first <br>
+ * {@link #WARMUP_ROUNDS} rounds of each scene are not counted, and <br>
+ * then every one of the next {@link #ROUNDS} rounds must pass. <br> <br>
+ *
+ * The updates must not allocate anything. Java2D allocates a few <br>
+ * small objects of its own when some images are drawn, so the frames <br>
+ * may allocate up to {@link #MAX_FRAME_BYTES} bytes on average. <br>
+ * The exit code is 1 if either is exceeded in any round, so it can <br>
+ * be run after every change. <br> <br>
+ *
+ * Arguments: <br>
+ * -ticks &lt;n&gt; The number of updates to warm up and measure (default 2000). <br>
+ * -enemies &lt;n&gt; The number of skeletons chasing the player (default 100).
+ *
+ * @author Elliott Vince
+ */
+
+public class AllocationCheck {
+
+	// The seed of the game, and of the places of the arrows and powerups.
+	private static final long SEED = 11;
+
+	// The average number of bytes that Java2D may allocate each frame.
+	private static final int MAX_FRAME_BYTES = 64;
+
+	// The number of rounds that warm up each scene, which are not counted.
+	private static final int WARMUP_ROUNDS = 5;
+
+	// The number of rounds of each scene that must pass.
+	private static final int ROUNDS = 3;
+
+	// The number of skeletons that attack the player.
+	private static final int ATTACKERS = 10;
+
+	// How often the powerups are replaced (in updates), which is before they disappear.
+	private static final int POWERUP_TICKS = Game.TICKS_PER_SECOND * 30;
+
+	// The update when the powerups were last replaced.
+	private static long powerupTick;
+
+	// The number of times the player was hit in the measured rounds.
+	private static int hits;
+
+	/**
+	 * Runs the check.
+	 * @param args The arguments.
+	 */
+
+	public static void main(String[] args) {
+		int ticks = 2000;
+		int enemies = 100;
+
+		for (int i = 0; i + 1 < args.length; i++) {
+			if (args[i].equals("-ticks")) {
+				ticks = Integer.parseInt(args[++i]);
+			}
+			else if (args[i].equals("-enemies")) {
+				enemies = Integer.parseInt(args[++i]);
+			}
+		}
+
+		if (AllocationTracker.getThreadAllocatedBytes() < 0) {
+			System.out.println("This JVM cannot measure allocations");
+			System.exit(1);
+		}
+
+		Game game = Game.createHeadless();
+		StateManager stateManager = game.getStateManager();
+		BufferedImage image = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+
+		createScene(game, enemies);
+		boolean playing = check("playing, enemies=" + enemies, game, graphics, ticks);
+
+		createCombatScene(game);
+		boolean combat = check("combat, attackers=" + ATTACKERS, game, graphics, ticks);
+
+		stateManager.pause();
+		boolean paused = check("paused", game, graphics, ticks);
+
+		graphics.dispose();
+		System.exit(playing && combat && paused ? 0 : 1);
+	}
+
+	/**
+	 * Starts a new game with skeletons, arrows and powerups around <br>
+	 * the player.
+	 * @param game The game.
+	 * @param enemies The number of skeletons.
+	 */
+
+	private static void createScene(Game game, int enemies) {
+		game.getStateManager().startNewGame(SEED);
+		PlayState playState = game.getStateManager().getPlayState();
+		Player player = playState.getPlayer();
+
+		// The level does not spawn any more skeletons during the check.
+		playState.getLevelManager().setSpawnInterval(Integer.MAX_VALUE);
+
+		// The skeletons start in the top left of the map, away from the player.
+		Rectangle bounds = playState.getBounds();
+		SimulationBenchmarks.addSkeletons(playState, enemies, new Rectangle(bounds.x, bounds.y,
+				bounds.width / 3, bounds.height / 3));
+
+		// The arrows fly away from everything, near the bottom right of the map.
+		Random random = new Random(SEED);
+		for (int i = 0; i < 20; i++) {
+			playState.addGameObject(new Arrow(playState, player,
+					(int) bounds.getMaxX() - 200 - random.nextInt(100),
+					(int) bounds.getMaxY() - 200 - random.nextInt(100), AnimationDirection.RIGHT));
+		}
+
+		// The powerups are out of the player's reach.
+		for (int i = 0; i < 5; i++) {
+			playState.addPowerup(new Powerup(playState, bounds.x + random.nextInt(bounds.width / 3),
+					(int) bounds.getMaxY() - 50, PowerupType.MAX_HEALTH));
+		}
+		powerupTick = GameClock.getTicks();
+	}
+
+	/**
+	 * Starts a new game with skeletons around the player, which <br>
+	 * reach the player straight away and keep attacking them.
+	 * @param game The game.
+	 */
+
+	private static void createCombatScene(Game game) {
+		game.getStateManager().startNewGame(SEED);
+		PlayState playState = game.getStateManager().getPlayState();
+		Player player = playState.getPlayer();
+
+		// The level does not spawn any more skeletons during the check.
+		playState.getLevelManager().setSpawnInterval(Integer.MAX_VALUE);
+
+		// The skeletons start next to the player.
+		SimulationBenchmarks.addSkeletons(playState, ATTACKERS, new Rectangle(player.getPosX() - 100,
+				player.getPosY() - 100, 200, 200));
+		powerupTick = GameClock.getTicks();
+	}
+
+	/**
+	 * Replaces the powerups with new ones in the same places, if they <br>
+	 * are close to disappearing. Removing them would allocate.
+	 * @param playState The play state.
+	 */
+
+	private static void replacePowerups(PlayState playState) {
+		if (GameClock.getTicks() - powerupTick < POWERUP_TICKS) {
+			return;
+		}
+
+		List<Powerup> powerups = playState.getPowerups();
+
+		for (int i = 0; i < powerups.size(); i++) {
+			Powerup powerup = powerups.get(i);
+			powerups.set(i, new Powerup(playState, powerup.getPosX(), powerup.getPosY(), powerup.getType()));
+		}
+		powerupTick = GameClock.getTicks();
+	}
+
+	/**
+	 * Warms up the game, and then measures how much each update and <br>
+	 * frame allocates in every round. The warm up is measured as well, <br>
+	 * so the code that measures is also compiled before it counts.
+	 * @param name The name of what is checked.
+	 * @param game The game.
+	 * @param graphics The graphics that the frames are drawn with.
+	 * @param ticks The number of updates in each round.
+	 * @return True if the updates did not allocate anything in any <br>
+	 * round, and the frames of every round stayed within their limit.
+	 */
+
+	private static boolean check(String name, Game game, Graphics2D graphics, int ticks) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			measure(game, graphics, ticks);
+		}
+
+		// The most that any round allocated.
+		long[] highest = new long[2];
+		hits = 0;
+
+		for (int i = 0; i < ROUNDS; i++) {
+			long[] bytes = measure(game, graphics, ticks);
+			highest[0] = Math.max(highest[0], bytes[0]);
+			highest[1] = Math.max(highest[1], bytes[1]);
+		}
+
+		boolean passed = highest[0] == 0 && highest[1] <= (long) MAX_FRAME_BYTES * ticks;
+		System.out.println(String.format("%-24s %s: %.1f B/tick (%d B), %.1f B/frame, %d hits, worst of %d rounds",
+				name, passed ? "passed" : "FAILED", (double) highest[0] / ticks, highest[0],
+				(double) highest[1] / ticks, hits, ROUNDS));
+		return passed;
+	}
+
+	/**
+	 * Runs the game for a number of updates and frames.
+	 * @return The bytes allocated by the updates, and by the frames.
+	 */
+
+	private static long[] measure(Game game, Graphics2D graphics, int ticks) {
+		long tickBytes = 0;
+		long frameBytes = 0;
+
+		for (int i = 0; i < ticks; i++) {
+			replacePowerups(game.getStateManager().getPlayState());
+
+			long start = AllocationTracker.getThreadAllocatedBytes();
+			update(game);
+			long middle = AllocationTracker.getThreadAllocatedBytes();
+			game.render(graphics);
+			long end = AllocationTracker.getThreadAllocatedBytes();
+
+			tickBytes += middle - start;
+			frameBytes += end - middle;
+		}
+		return new long[] {tickBytes, frameBytes};
+	}
+
+	/**
+	 * Updates the game once. The player is healed when they are down <br>
+	 * to half of their health, so the game never ends, and the times <br>
+	 * that they are hit are counted.
+	 */
+
+	private static void update(Game game) {
+		Player player = game.getStateManager().getPlayState().getPlayer();
+
+		if (player.getHealth() <= player.getMaxHealth() / 2) {
+			player.heal(player.getMaxHealth());
+		}
+		int health = player.getHealth();
+		game.update();
+
+		if (player.getHealth() < health) {
+			hits++;
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import assets.AssetManager;
+import audio.Mp3Stream;
+import util.Methods;
+
+/**
+ * The AssetBenchmarks measure each way the game loads its assets <br>
+ * from disk: decoding images, loading and scaling the window icons, <br>
+ * scaling the backgrounds, reading and decoding MP3 files, and <br>
+ * reading the settings. <br> <br>
+ *
+ * Nothing is cached between runs, so every operation reads the file <br>
+ * again, like the first start of the game. The operating system may <br>
+ * still keep the files in memory, so these measure decoding more than <br>
+ * the speed of the disk. See the BenchmarkRunner for the arguments.
+ *
+ * @author Elliott Vince
+ */
+
+public class AssetBenchmarks {
+
+	// Images decoded with ImageIO, as the AssetManager does.
+	private static final String[] IMAGES = {
+		"resources/sprites/player/walking.png",
+		"resources/sprites/skeleton/default_skeleton/walking.png",
+		"resources/ui/UIPanel.png",
+		"resources/backgrounds/mainmenu.jpg"
+	};
+
+	// Sound effects that are decoded completely.
+	private static final String[] SOUNDS = {
+		"resources/audio/sfx/shoot-arrow.mp3",
+		"resources/audio/sfx/arrow-hit.mp3"
+	};
+
+	// A song, which is opened but only decoded up to its first frame.
+	private static final String SONG = "resources/audio/music/Conquerors.mp3";
+
+	private static final String ICON = "resources/icons/icon.png";
+	private static final String SETTINGS = "resources/data/settings.properties";
+
+	/**
+	 * Runs the benchmarks.
+	 * @param args The arguments of the BenchmarkRunner.
+	 */
+
+	public static void main(String[] args) {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		for (String path : IMAGES) {
+			benchmarks.add(createImageBenchmark(path));
+		}
+
+		benchmarks.add(createIconBenchmark());
+		benchmarks.add(createScaleBenchmark("resources/backgrounds/mainmenu.jpg", 800, 600));
+
+		for (String path : SOUNDS) {
+			benchmarks.add(createDecodeBenchmark(path));
+		}
+
+		benchmarks.add(createFirstFrameBenchmark(SONG));
+		benchmarks.add(createHashBenchmark(SONG));
+		benchmarks.add(createSettingsBenchmark());
+
+		new BenchmarkRunner(AssetBenchmarks.class, args).run(benchmarks);
+		System.exit(0);
+	}
+
+	/**
+	 * Gets the name of a file without its folders.
+	 * @param path The file path.
+	 */
+
+	private static String getFileName(String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Creates a benchmark of decoding an image with ImageIO.
+	 * @param path The file path of the image.
+	 */
+
+	private static Benchmark createImageBenchmark(final String path) {
+		String folder = path.substring(0, path.lastIndexOf('/'));
+		return new Benchmark("ImageIO.read/" + getFileName(folder) + "/" + getFileName(path)) {
+
+			@Override
+			public long run() {
+				try {
+					BufferedImage image = ImageIO.read(new File(path));
+					return image.getRGB(0, 0);
+				}
+				catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of loading the window icon and scaling it <br>
+	 * to each size, as the Game does when it starts. <br> <br>
+	 *
+	 * The icons are drawn, as a scaled instance is only scaled when it <br>
+	 * is first drawn. The Toolkit keeps images loaded with getImage, <br>
+	 * so createImage is used to read the file every time.
+	 */
+
+	private static Benchmark createIconBenchmark() {
+		return new Benchmark("ImageIcon+scaleImage/" + getFileName(ICON)) {
+
+			private BufferedImage target;
+
+			@Override
+			public void setUp() {
+				target = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+			}
+
+			@Override
+			public long run() {
+				Image icon = new ImageIcon(Toolkit.getDefaultToolkit().createImage(ICON)).getImage();
+				Graphics2D graphics = target.createGraphics();
+
+				int[] sizes = {16, 48, 64};
+				for (int size : sizes) {
+					graphics.drawImage(new ImageIcon(Methods.scaleImage(icon, size, size)).getImage(),
+							0, 0, null);
+				}
+
+				graphics.dispose();
+				icon.flush();
+				return target.getRGB(8, 8);
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of scaling an image the way the AssetManager <br>
+	 * does. The image is decoded once, so only the scaling is measured.
+	 * @param path The file path of the image.
+	 * @param width The width of the scaled image.
+	 * @param height The height of the scaled image.
+	 */
+
+	private static Benchmark createScaleBenchmark(final String path, final int width, final int height) {
+		return new Benchmark("AssetManager.scale/" + getFileName(path) + "@" + width + "x" + height) {
+
+			private BufferedImage image;
+
+			@Override
+			public void setUp() {
+				try {
+					image = ImageIO.read(new File(path));
+				}
+				catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+			@Override
+			public long run() {
+				BufferedImage scaled = AssetManager.createImage(width, height, image.getTransparency());
+
+				Graphics2D graphics = scaled.createGraphics();
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+						RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+						RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(image, 0, 0, width, height, null);
+				graphics.dispose();
+				return scaled.getRGB(width / 2, height / 2);
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of reading and decoding a whole MP3 file, <br>
+	 * as the PcmCache does when a sound is not cached yet.
+	 * @param path The file path of the sound.
+	 */
+
+	private static Benchmark createDecodeBenchmark(final String path) {
+		return new Benchmark("Mp3Stream.decode/" + getFileName(path)) {
+
+			@Override
+			public long run() {
+				try {
+					Mp3Stream stream = new Mp3Stream(path);
+					long samples = 0;
+					int count;
+
+					while ((count = stream.decodeFrame()) >= 0) {
+						samples += count;
+					}
+
+					stream.close();
+					return samples;
+				}
+				catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of opening an MP3 file and decoding its <br>
+	 * first frame, which is the delay before a song starts playing.
+	 * @param path The file path of the song.
+	 */
+
+	private static Benchmark createFirstFrameBenchmark(final String path) {
+		return new Benchmark("Mp3Stream.firstFrame/" + getFileName(path)) {
+
+			@Override
+			public long run() {
+				try {
+					Mp3Stream stream = new Mp3Stream(path);
+					int count = stream.decodeFrame();
+					stream.close();
+					return count;
+				}
+				catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of reading a file and hashing it, which the <br>
+	 * PcmCache does to find the cached samples of a song.
+	 * @param path The file path of the song.
+	 */
+
+	private static Benchmark createHashBenchmark(final String path) {
+		return new Benchmark("readAllBytes+SHA-256/" + getFileName(path)) {
+
+			@Override
+			public long run() {
+				try {
+					byte[] data = Files.readAllBytes(new File(path).toPath());
+					return MessageDigest.getInstance("SHA-256").digest(data)[0];
+				}
+				catch (IOException | NoSuchAlgorithmException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of reading the settings file.
+	 */
+
+	private static Benchmark createSettingsBenchmark() {
+		return new Benchmark("Properties.load/" + getFileName(SETTINGS)) {
+
+			@Override
+			public long run() {
+				Properties properties = new Properties();
+
+				try (InputStream input = new FileInputStream(SETTINGS)) {
+					properties.load(input);
+				}
+				catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+				return properties.size();
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,55 @@
+package bench;
+
+/**
+ * A Benchmark measures one operation of the game, such as a single <br>
+ * update of the PlayState. It is run many times by the BenchmarkRunner.
+ *
+ * @author Elliott Vince
+ */
+
+public abstract class Benchmark {
+
+	private String name;
+
+	/**
+	 * Creates a new benchmark.
+	 * @param name The name shown in the results.
+	 */
+
+	public Benchmark(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the name of the benchmark.
+	 */
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Prepares the benchmark. This is called once before it is run, <br>
+	 * and is not measured.
+	 */
+
+	public void setUp() {
+	}
+
+	/**
+	 * Runs the operation once.
+	 * @return Any value computed by the operation. The runner keeps it, <br>
+	 * so the JIT cannot remove the operation.
+	 */
+
+	public abstract long run();
+
+	/**
+	 * Cleans up after the benchmark. This is called once after it has <br>
+	 * been run, and is not measured.
+	 */
+
+	public void tearDown() {
+	}
+
+}
@@ -0,0 +1,518 @@
+package bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The BenchmarkRunner runs a list of benchmarks and prints their <br>
+ * throughput and allocation rate. <br> <br>
+ *
+ * Each benchmark is warmed up first, so the JIT has compiled it, and <br>
+ * then measured over several timed iterations. The bytes allocated <br>
+ * by the benchmark's thread and the time spent in garbage collection <br>
+ * are measured along with the time. <br> <br>
+ *
+ * All benchmarks normally share one JVM, so the JIT compiles the code <br>
+ * that later benchmarks use for the cases that ran before them. For <br>
+ * example, the PlayState with 10000 enemies runs code that was compiled <br>
+ * while there were only 10, and the numbers of later benchmarks can be <br>
+ * quite different from running them alone. Use -fork to run every <br>
+ * benchmark in a new JVM when comparing results. <br> <br>
+ *
+ * Arguments: <br>
+ * -warmup &lt;ms&gt; The warmup time of each benchmark (default 2000). <br>
+ * -time &lt;ms&gt; The time of each measured iteration (default 1000). <br>
+ * -iterations &lt;n&gt; The number of measured iterations (default 5). <br>
+ * -csv &lt;file&gt; Also writes the results to a CSV file. <br>
+ * -fork Runs each benchmark in its own JVM. <br>
+ * Any other argument only runs the benchmarks whose names contain it.
+ *
+ * @author Elliott Vince
+ */
+
+public class BenchmarkRunner {
+
+	// The first line of the CSV file.
+	private static final String CSV_HEADER = "benchmark,ops_per_second,error_percent,ns_per_op,"
+			+ "bytes_per_op,alloc_mb_per_second,gc_millis";
+
+	private long warmupMillis = 2000;
+	private long iterationMillis = 1000;
+	private int iterations = 5;
+	private String csvPath;
+	private List<String> filters;
+
+	// Whether each benchmark runs in its own JVM.
+	private boolean fork;
+
+	// The name of the only benchmark to run, in a JVM started by -fork.
+	private String exactName;
+
+	// The class whose main method runs the benchmarks, so it can be started again by -fork.
+	private Class<?> mainClass;
+
+	// Values returned by the benchmarks, kept so they are not optimized away.
+	private long sink;
+
+	/**
+	 * Creates a runner from the command line arguments.
+	 * @param mainClass The class whose main method runs the benchmarks.
+	 * @param args The command line arguments.
+	 */
+
+	public BenchmarkRunner(Class<?> mainClass, String[] args) {
+		this.mainClass = mainClass;
+		filters = new ArrayList<String>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-warmup") && i + 1 < args.length) {
+				warmupMillis = Long.parseLong(args[++i]);
+			}
+			else if (args[i].equals("-time") && i + 1 < args.length) {
+				iterationMillis = Long.parseLong(args[++i]);
+			}
+			else if (args[i].equals("-iterations") && i + 1 < args.length) {
+				iterations = Integer.parseInt(args[++i]);
+			}
+			else if (args[i].equals("-csv") && i + 1 < args.length) {
+				csvPath = args[++i];
+			}
+			else if (args[i].equals("-fork")) {
+				fork = true;
+			}
+			else if (args[i].equals("-exact") && i + 1 < args.length) {
+				exactName = args[++i];
+			}
+			else {
+				filters.add(args[i]);
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmarks that match the filters and prints the results.
+	 * @param benchmarks The benchmarks.
+	 * @return The results, or an empty list if each benchmark ran in its own JVM.
+	 */
+
+	public List<Result> run(List<Benchmark> benchmarks) {
+		if (fork) {
+			runForked(benchmarks);
+			return new ArrayList<Result>();
+		}
+
+		List<Result> results = new ArrayList<Result>();
+
+		// A JVM started by -fork only prints its result to the CSV file.
+		if (exactName == null) {
+			System.out.println(String.format(Locale.ROOT, "%-48s %14s %10s %12s %12s %10s",
+					"Benchmark", "ops/s", "error", "ns/op", "B/op", "MB/s"));
+		}
+
+		for (Benchmark benchmark : benchmarks) {
+			if (!matches(benchmark.getName())) {
+				continue;
+			}
+
+			Result result = run(benchmark);
+			results.add(result);
+
+			if (exactName == null) {
+				printRow(result.name, result.getOpsPerSecond(), result.getErrorPercent(),
+						result.getNanosPerOp(), result.getBytesPerOp(), result.getAllocationRate());
+			}
+		}
+
+		if (csvPath != null) {
+			writeCsv(results);
+		}
+
+		// Prints the sink, so the values returned by the benchmarks are used.
+		if (sink == 42) {
+			System.out.println();
+		}
+		return results;
+	}
+
+	/**
+	 * Runs each benchmark that matches the filters in a new JVM, and <br>
+	 * prints the results. The JVM runs the main class again with the <br>
+	 * same JVM options, and writes its result to a temporary CSV file.
+	 * @param benchmarks The benchmarks.
+	 */
+
+	private void runForked(List<Benchmark> benchmarks) {
+		List<String> rows = new ArrayList<String>();
+
+		System.out.println(String.format(Locale.ROOT, "%-48s %14s %10s %12s %12s %10s",
+				"Benchmark", "ops/s", "error", "ns/op", "B/op", "MB/s"));
+
+		for (Benchmark benchmark : benchmarks) {
+			if (!matches(benchmark.getName())) {
+				continue;
+			}
+
+			String row = runInNewJvm(benchmark.getName());
+
+			if (row == null) {
+				continue;
+			}
+			rows.add(row);
+
+			// The columns are the same as those written by writeCsv, after the name.
+			String[] values = row.substring(benchmark.getName().length() + 1).split(",");
+			printRow(benchmark.getName(), Double.parseDouble(values[0]), Double.parseDouble(values[1]),
+					Double.parseDouble(values[2]), Double.parseDouble(values[3]), Double.parseDouble(values[4]));
+		}
+
+		if (csvPath != null) {
+			try (PrintWriter writer = new PrintWriter(new FileWriter(csvPath))) {
+				writer.println(CSV_HEADER);
+
+				for (String row : rows) {
+					writer.println(row);
+				}
+			}
+			catch (IOException e) {
+				System.out.println("Problem writing " + csvPath);
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Runs one benchmark in a new JVM.
+	 * @param name The name of the benchmark.
+	 * @return The benchmark's line of the CSV file, or null if it failed.
+	 */
+
+	private String runInNewJvm(String name) {
+		File csvFile = null;
+		File logFile = null;
+
+		try {
+			csvFile = File.createTempFile("benchmark", ".csv");
+			logFile = File.createTempFile("benchmark", ".log");
+
+			List<String> command = new ArrayList<String>();
+			command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+			command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(mainClass.getName());
+			command.add("-warmup");
+			command.add(String.valueOf(warmupMillis));
+			command.add("-time");
+			command.add(String.valueOf(iterationMillis));
+			command.add("-iterations");
+			command.add(String.valueOf(iterations));
+			command.add("-csv");
+			command.add(csvFile.getPath());
+			command.add("-exact");
+			command.add(name);
+
+			// The output of the game (such as missing sound cards) is only shown if the benchmark fails.
+			Process process = new ProcessBuilder(command).redirectErrorStream(true)
+					.redirectOutput(logFile).start();
+			int exitCode = process.waitFor();
+
+			List<String> lines = Files.readAllLines(csvFile.toPath(), StandardCharsets.UTF_8);
+
+			if (exitCode == 0 && lines.size() == 2) {
+				return lines.get(1);
+			}
+
+			System.out.println("Problem running " + name + " (exit code " + exitCode + "):");
+			for (String line : Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8)) {
+				System.out.println("    " + line);
+			}
+			return null;
+		}
+		catch (IOException e) {
+			System.out.println("Problem running " + name + ": " + e);
+			return null;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		finally {
+			if (csvFile != null) {
+				csvFile.delete();
+			}
+			if (logFile != null) {
+				logFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Prints the result of a benchmark as a row of the table.
+	 */
+
+	private static void printRow(String name, double opsPerSecond, double errorPercent,
+			double nanosPerOp, double bytesPerOp, double allocationRate) {
+		System.out.println(String.format(Locale.ROOT, "%-48s %14.1f %9.1f%% %12.1f %12.1f %10.1f",
+				name, opsPerSecond, errorPercent, nanosPerOp, bytesPerOp, allocationRate));
+	}
+
+	/**
+	 * Determines if a benchmark should be run.
+	 * @param name The name of the benchmark.
+	 */
+
+	private boolean matches(String name) {
+		if (exactName != null) {
+			return name.equals(exactName);
+		}
+
+		if (filters.isEmpty()) {
+			return true;
+		}
+
+		for (String filter : filters) {
+			if (name.contains(filter)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Warms up and measures one benchmark.
+	 * @param benchmark The benchmark.
+	 */
+
+	private Result run(Benchmark benchmark) {
+		benchmark.setUp();
+
+		try {
+			// Warms up the benchmark.
+			measure(benchmark, warmupMillis);
+
+			Result result = new Result(benchmark.getName());
+
+			for (int i = 0; i < iterations; i++) {
+				result.add(measure(benchmark, iterationMillis));
+			}
+			return result;
+		}
+		finally {
+			benchmark.tearDown();
+		}
+	}
+
+	/**
+	 * Runs a benchmark for a length of time.
+	 * @param benchmark The benchmark.
+	 * @param millis How long to run the benchmark (in milliseconds).
+	 * @return The measurements of the iteration.
+	 */
+
+	private Iteration measure(Benchmark benchmark, long millis) {
+		long gcTime = getGcTime();
+		long allocated = getAllocatedBytes();
+		long start = System.nanoTime();
+		long end = start + millis * 1000000L;
+
+		long ops = 0;
+		long now;
+
+		// The time is only checked every few operations, as it is not free.
+		do {
+			for (int i = 0; i < 16; i++) {
+				sink ^= benchmark.run();
+			}
+			ops += 16;
+			now = System.nanoTime();
+		}
+		while (now < end);
+
+		Iteration iteration = new Iteration();
+		iteration.ops = ops;
+		iteration.nanos = now - start;
+		iteration.bytes = getAllocatedBytes() - allocated;
+		iteration.gcMillis = getGcTime() - gcTime;
+		return iteration;
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the current thread, or 0 if <br>
+	 * the JVM cannot measure it.
+	 */
+
+	private static long getAllocatedBytes() {
+		Object bean = ManagementFactory.getThreadMXBean();
+
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+			return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the total time spent in garbage collection (in milliseconds).
+	 */
+
+	private static long getGcTime() {
+		long total = 0;
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(0, gc.getCollectionTime());
+		}
+		return total;
+	}
+
+	/**
+	 * Writes the results to the CSV file.
+	 * @param results The results.
+	 */
+
+	private void writeCsv(List<Result> results) {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(csvPath))) {
+			writer.println(CSV_HEADER);
+
+			for (Result result : results) {
+				writer.println(String.format(Locale.ROOT, "%s,%.3f,%.3f,%.3f,%.3f,%.3f,%d",
+						result.name, result.getOpsPerSecond(), result.getErrorPercent(),
+						result.getNanosPerOp(), result.getBytesPerOp(),
+						result.getAllocationRate(), result.getGcMillis()));
+			}
+		}
+		catch (IOException e) {
+			System.out.println("Problem writing " + csvPath);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * The measurements of one timed iteration.
+	 */
+
+	private static class Iteration {
+		private long ops;
+		private long nanos;
+		private long bytes;
+		private long gcMillis;
+	}
+
+	/**
+	 * The results of one benchmark.
+	 */
+
+	public static class Result {
+
+		private String name;
+		private List<Iteration> iterations;
+
+		/**
+		 * Creates the results of a benchmark.
+		 * @param name The name of the benchmark.
+		 */
+
+		private Result(String name) {
+			this.name = name;
+			this.iterations = new ArrayList<Iteration>();
+		}
+
+		/**
+		 * Adds a measured iteration.
+		 */
+
+		private void add(Iteration iteration) {
+			iterations.add(iteration);
+		}
+
+		/**
+		 * Gets the name of the benchmark.
+		 */
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the average number of operations per second.
+		 */
+
+		public double getOpsPerSecond() {
+			double total = 0;
+
+			for (Iteration iteration : iterations) {
+				total += iteration.ops * 1e9 / iteration.nanos;
+			}
+			return total / iterations.size();
+		}
+
+		/**
+		 * Gets the standard deviation of the operations per second, <br>
+		 * as a percentage of the average.
+		 */
+
+		public double getErrorPercent() {
+			double mean = getOpsPerSecond();
+			double total = 0;
+
+			for (Iteration iteration : iterations) {
+				double difference = iteration.ops * 1e9 / iteration.nanos - mean;
+				total += difference * difference;
+			}
+			return Math.sqrt(total / iterations.size()) / mean * 100;
+		}
+
+		/**
+		 * Gets the average time of one operation (in nanoseconds).
+		 */
+
+		public double getNanosPerOp() {
+			return 1e9 / getOpsPerSecond();
+		}
+
+		/**
+		 * Gets the average number of bytes allocated by one operation.
+		 */
+
+		public double getBytesPerOp() {
+			long bytes = 0;
+			long ops = 0;
+
+			for (Iteration iteration : iterations) {
+				bytes += iteration.bytes;
+				ops += iteration.ops;
+			}
+			return (double) bytes / ops;
+		}
+
+		/**
+		 * Gets the allocation rate (in megabytes per second).
+		 */
+
+		public double getAllocationRate() {
+			return getBytesPerOp() * getOpsPerSecond() / (1024 * 1024);
+		}
+
+		/**
+		 * Gets the total time spent in garbage collection (in milliseconds).
+		 */
+
+		public long getGcMillis() {
+			long total = 0;
+
+			for (Iteration iteration : iterations) {
+				total += iteration.gcMillis;
+			}
+			return total;
+		}
+	}
+
+}
@@ -0,0 +1,436 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import game.OnlineLeaderboard;
+import game.ScoreEntry;
+
+/**
+ * The OnlineLeaderboardCheck checks the OnlineLeaderboard against a <br>
+ * stub leaderboard server that runs in the same JVM. <br> <br>
+ *
+ * Two leaderboards are checked at the same time, each with its own <br>
+ * address on the server: <br>
+ * /scores only downloads the best scores. The scores must be cached, <br>
+ * and only downloaded again once the cache has expired (60 seconds). <br>
+ * /runs sends runs. The server holds the first request open while <br>
+ * more runs are submitted, answers it and the next one with HTTP 503, <br>
+ * and then takes longer than the read timeout to answer the third. <br>
+ * Every run must still arrive exactly once and in order, in batches of <br>
+ * at most 20, and the leaderboard must wait longer after each failure. <br> <br>
+ *
+ * Submitting a run and getting the scores (which the leaderboard panel <br>
+ * does every time it is drawn) must never wait for the server, so each <br>
+ * call is timed while the server is not answering. The check takes <br>
+ * a little over a minute, because it waits for the cache to expire. <br>
+ * The exit code is 1 if anything is wrong.
+ *
+ * @author Elliott Vince
+ */
+
+public class OnlineLeaderboardCheck {
+
+	// The number of runs that are sent.
+	private static final int RUNS = 46;
+
+	// The maximum number of runs in one request.
+	private static final int BATCH_SIZE = 20;
+
+	// How long the downloaded scores are cached (in milliseconds).
+	private static final long CACHE_TTL_MILLIS = 60 * 1000;
+
+	// How long the leaderboard waits for an answer (in milliseconds).
+	private static final long READ_TIMEOUT_MILLIS = 5000;
+
+	// How long the server takes to answer the request that times out.
+	private static final long SLOW_MILLIS = READ_TIMEOUT_MILLIS + 1500;
+
+	// The longest that submitting or getting the scores may take (in milliseconds).
+	private static final double MAX_CALL_MILLIS = 20;
+
+	private static boolean passed = true;
+
+	/**
+	 * Runs the check.
+	 * @param args The arguments (not used).
+	 */
+
+	public static void main(String[] args) throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+		// Several threads, so a slow answer does not hold up the other leaderboard.
+		server.setExecutor(Executors.newFixedThreadPool(4));
+
+		ScoresHandler scores = new ScoresHandler();
+		RunsHandler runs = new RunsHandler();
+		server.createContext("/scores", scores);
+		server.createContext("/runs", runs);
+		server.start();
+
+		String address = "http://127.0.0.1:" + server.getAddress().getPort();
+
+		try {
+			OnlineLeaderboard sender = new OnlineLeaderboard(address + "/runs");
+			OnlineLeaderboard reader = new OnlineLeaderboard(address + "/scores");
+
+			checkSending(sender, runs);
+			checkCache(reader, scores);
+		}
+		finally {
+			server.stop(0);
+		}
+
+		System.out.println(passed ? "OK" : "FAILED");
+		System.exit(passed ? 0 : 1);
+	}
+
+	/**
+	 * Checks that runs are sent in batches, and sent again after a <br>
+	 * failure, waiting longer each time.
+	 * @param leaderboard The leaderboard that sends the runs.
+	 * @param server The handler of the runs on the server.
+	 */
+
+	private static void checkSending(OnlineLeaderboard leaderboard, RunsHandler server) throws Exception {
+		leaderboard.submit(createRun(0));
+
+		// The rest are submitted while the server holds the first request open.
+		if (!server.firstRequest.await(5, TimeUnit.SECONDS)) {
+			fail("The first run was not sent");
+			return;
+		}
+
+		double slowest = 0;
+		for (int i = 1; i < RUNS; i++) {
+			long start = System.nanoTime();
+			leaderboard.submit(createRun(i));
+			leaderboard.getTopScores();
+			slowest = Math.max(slowest, (System.nanoTime() - start) / 1e6);
+		}
+		check(slowest < MAX_CALL_MILLIS, String.format(Locale.ROOT,
+				"Submitting while the server is busy took at most %.2f ms", slowest));
+
+		server.release.countDown();
+
+		// Waits for the two failures, the timeout and the last batches.
+		long deadline = System.currentTimeMillis() + 30 * 1000;
+		while (leaderboard.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		Thread.sleep(500);
+
+		List<Request> requests = server.getRequests();
+		List<Integer> received = new ArrayList<Integer>();
+		int accepted = 0;
+		int largest = 0;
+
+		for (Request request : requests) {
+			largest = Math.max(largest, request.scores.size());
+
+			if (request.accepted) {
+				received.addAll(request.scores);
+				accepted++;
+			}
+		}
+
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < RUNS; i++) {
+			expected.add(i);
+		}
+
+		check(received.equals(expected), "Every run arrived once and in order ("
+				+ received.size() + " of " + RUNS + ")");
+		check(largest <= BATCH_SIZE, "Each request had at most " + BATCH_SIZE
+				+ " runs (the largest had " + largest + ")");
+		check(accepted == (RUNS + BATCH_SIZE - 1) / BATCH_SIZE, "The runs were sent in "
+				+ accepted + " batches after the failures");
+
+		if (requests.size() < 4) {
+			fail("Only " + requests.size() + " requests were sent");
+			return;
+		}
+
+		/*
+		 * The first retry waits 0.5 to 1 seconds, and the wait doubles
+		 * with each failure. The third request timed out, so the fourth
+		 * one is also later by the read timeout.
+		 */
+
+		long firstWait = requests.get(1).time - requests.get(0).answered;
+		long secondWait = requests.get(2).time - requests.get(1).answered;
+		long thirdWait = requests.get(3).time - requests.get(2).time - READ_TIMEOUT_MILLIS;
+
+		check(firstWait >= 450, "Retried after HTTP 503 in " + firstWait + " ms");
+		check(secondWait >= 950, "Retried after another HTTP 503 in " + secondWait + " ms");
+		check(thirdWait >= 1950, "Retried after a timeout in " + thirdWait + " ms");
+
+		for (int i = 4; i < requests.size(); i++) {
+			long wait = requests.get(i).time - requests.get(i - 1).answered;
+			check(wait < 500, "Sent the next batch after a success in " + wait + " ms");
+		}
+	}
+
+	/**
+	 * Checks that the best scores are cached, and downloaded again <br>
+	 * once the cache expires.
+	 * @param leaderboard The leaderboard that downloads the scores.
+	 * @param server The handler of the scores on the server.
+	 */
+
+	private static void checkCache(OnlineLeaderboard leaderboard, ScoresHandler server) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!leaderboard.hasTopScores() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		List<ScoreEntry> scores = leaderboard.getTopScores();
+		check(scores.size() == 2 && scores.get(0).getName().equals("alice")
+				&& scores.get(0).getScore() == 300, "Downloaded the scores " + describe(scores));
+
+		long firstDownload = server.getTime(0);
+
+		// The panel gets the scores every frame, which must only use the cache.
+		double slowest = 0;
+		while (System.currentTimeMillis() < firstDownload + CACHE_TTL_MILLIS - 1000) {
+			long start = System.nanoTime();
+			leaderboard.getTopScores();
+			slowest = Math.max(slowest, (System.nanoTime() - start) / 1e6);
+			Thread.sleep(20);
+		}
+
+		check(server.getCount() == 1, "Downloaded " + server.getCount()
+				+ " time(s) before the cache expired");
+
+		// The second download is slow, so getting the scores must not wait for it.
+		server.slow = true;
+		deadline = System.currentTimeMillis() + 10 * 1000;
+
+		while (leaderboard.getTopScores().get(0).getName().equals("alice")
+				&& System.currentTimeMillis() < deadline) {
+			long start = System.nanoTime();
+			leaderboard.getTopScores();
+			slowest = Math.max(slowest, (System.nanoTime() - start) / 1e6);
+			Thread.sleep(20);
+		}
+
+		check(slowest < MAX_CALL_MILLIS, String.format(Locale.ROOT,
+				"Getting the cached scores took at most %.2f ms", slowest));
+
+		if (server.getCount() < 2) {
+			fail("The scores were not downloaded again after the cache expired");
+			return;
+		}
+
+		long age = server.getTime(1) - firstDownload;
+		check(age >= CACHE_TTL_MILLIS, "Downloaded again after " + age / 1000 + " s");
+		check(leaderboard.getTopScores().get(0).getName().equals("carol"),
+				"Replaced the scores with " + describe(leaderboard.getTopScores()));
+	}
+
+	/**
+	 * Creates a run with a score that shows its order.
+	 * @param index The index of the run.
+	 */
+
+	private static ScoreEntry createRun(int index) {
+		return new ScoreEntry("player", index, 1, 1000, 1000000L + index);
+	}
+
+	/**
+	 * Gets a short description of a list of scores.
+	 */
+
+	private static String describe(List<ScoreEntry> scores) {
+		StringBuilder text = new StringBuilder("[");
+
+		for (ScoreEntry score : scores) {
+			if (text.length() > 1) {
+				text.append(", ");
+			}
+			text.append(score.getName()).append(": ").append(score.getScore());
+		}
+		return text.append(']').toString();
+	}
+
+	/**
+	 * Prints the result of a check.
+	 * @param ok Whether the check passed.
+	 * @param message What was checked.
+	 */
+
+	private static void check(boolean ok, String message) {
+		System.out.println((ok ? "  ok      " : "  FAILED  ") + message);
+		passed &= ok;
+	}
+
+	/**
+	 * Prints a check that failed.
+	 * @param message What went wrong.
+	 */
+
+	private static void fail(String message) {
+		check(false, message);
+	}
+
+	/**
+	 * Answers a request with a status and a body.
+	 */
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(bytes);
+		}
+	}
+
+	/**
+	 * A request to send runs, as the server saw it.
+	 */
+
+	private static class Request {
+
+		// When the request arrived, and when it was answered.
+		private long time;
+		private long answered;
+
+		// The scores of the runs in the request.
+		private List<Integer> scores = new ArrayList<Integer>();
+
+		// Whether the runs were accepted.
+		private boolean accepted;
+
+	}
+
+	/**
+	 * Receives runs. The first request waits until it is released, <br>
+	 * the first two fail with HTTP 503, and the third is answered <br>
+	 * after the read timeout.
+	 */
+
+	private static class RunsHandler implements HttpHandler {
+
+		private CountDownLatch firstRequest = new CountDownLatch(1);
+		private CountDownLatch release = new CountDownLatch(1);
+
+		private List<Request> requests = new ArrayList<Request>();
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			// This leaderboard also downloads the scores, which are not checked here.
+			if (exchange.getRequestMethod().equals("GET")) {
+				respond(exchange, 200, "");
+				return;
+			}
+
+			Request request = new Request();
+			request.time = System.currentTimeMillis();
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+					exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+				String line;
+
+				while ((line = reader.readLine()) != null) {
+					request.scores.add(Integer.parseInt(line.split("\t")[1]));
+				}
+			}
+
+			int index;
+			synchronized (this) {
+				index = requests.size();
+				requests.add(request);
+			}
+
+			try {
+				if (index == 0) {
+					firstRequest.countDown();
+					release.await(10, TimeUnit.SECONDS);
+				}
+				else if (index == 2) {
+					Thread.sleep(SLOW_MILLIS);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			request.accepted = index > 2;
+			request.answered = System.currentTimeMillis();
+			respond(exchange, index < 2 ? 503 : request.accepted ? 200 : 500, "");
+		}
+
+		/**
+		 * Gets the requests that have arrived.
+		 */
+
+		private synchronized List<Request> getRequests() {
+			return new ArrayList<Request>(requests);
+		}
+
+	}
+
+	/**
+	 * Serves the best scores, and records when they were downloaded. <br>
+	 * The scores are different after the first download.
+	 */
+
+	private static class ScoresHandler implements HttpHandler {
+
+		private List<Long> times = Collections.synchronizedList(new ArrayList<Long>());
+
+		// Whether the server takes a while to answer.
+		private volatile boolean slow;
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			times.add(System.currentTimeMillis());
+
+			if (slow) {
+				try {
+					Thread.sleep(2000);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			respond(exchange, 200, times.size() == 1 ? "alice: 300\nbob: 200\n" : "carol: 400\nalice: 300\n");
+		}
+
+		/**
+		 * Gets the number of times the scores were downloaded.
+		 */
+
+		private int getCount() {
+			return times.size();
+		}
+
+		/**
+		 * Gets when the scores were downloaded.
+		 * @param index The index of the download.
+		 */
+
+		private long getTime(int index) {
+			return times.get(index);
+		}
+
+	}
+
+}
@@ -0,0 +1,411 @@
+package bench;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import game.Game;
+import gameobjects.projectiles.Arrow;
+import gamestates.PlayState;
+import gamestates.StateManager;
+import gfx.Animation.AnimationDirection;
+
+/**
+ * The RenderBenchmarks measure how long it takes to draw a frame of <br>
+ * the game, without a window or a display. <br> <br>
+ *
+ * Fixed scenes (the game with enemies and arrows, the pause menu, <br>
+ * the main menu and the death screen) are drawn into an off-screen <br>
+ * BufferedImage, and into a VolatileImage when a display is available. <br>
+ * The scenes are the same every run, so they can also be saved as <br>
+ * golden images and compared, which checks that a faster renderer <br>
+ * still draws exactly the same pixels. <br> <br>
+ *
+ * Arguments (as well as those of the BenchmarkRunner): <br>
+ * -golden &lt;folder&gt; Saves an image of each scene, and does not run <br>
+ * the benchmarks. <br>
+ * -compare &lt;folder&gt; Compares each scene with the saved images, and <br>
+ * does not run the benchmarks. The exit code is 1 if any pixel differs.
+ *
+ * @author Elliott Vince
+ */
+
+public class RenderBenchmarks {
+
+	// The seed of the game and of the places of the arrows, so every run uses the same scene.
+	private static final long SEED = 7;
+
+	/**
+	 * Runs the benchmarks, or saves or compares the golden images.
+	 * @param args The arguments.
+	 */
+
+	public static void main(String[] args) throws IOException {
+		List<String> runnerArgs = new ArrayList<String>();
+		String goldenFolder = null;
+		boolean compare = false;
+
+		for (int i = 0; i < args.length; i++) {
+			if ((args[i].equals("-golden") || args[i].equals("-compare")) && i + 1 < args.length) {
+				compare = args[i].equals("-compare");
+				goldenFolder = args[++i];
+			}
+			else {
+				runnerArgs.add(args[i]);
+			}
+		}
+
+		Game game = Game.createHeadless();
+		List<Scene> scenes = createScenes();
+
+		if (goldenFolder != null) {
+			int failures = compare ? compareGolden(game, scenes, new File(goldenFolder))
+					: saveGolden(game, scenes, new File(goldenFolder));
+			System.exit(failures == 0 ? 0 : 1);
+		}
+
+		printPipeline();
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		for (Scene scene : scenes) {
+			benchmarks.add(createBufferedImageBenchmark(game, scene));
+
+			if (!GraphicsEnvironment.isHeadless()) {
+				benchmarks.add(createVolatileImageBenchmark(game, scene));
+			}
+		}
+
+		new BenchmarkRunner(RenderBenchmarks.class, runnerArgs.toArray(new String[0])).run(benchmarks);
+		System.exit(0);
+	}
+
+	/**
+	 * Creates the scenes that are drawn.
+	 */
+
+	private static List<Scene> createScenes() {
+		List<Scene> scenes = new ArrayList<Scene>();
+		scenes.add(new PlayScene(10, 0));
+		scenes.add(new PlayScene(100, 50));
+		scenes.add(new PlayScene(1000, 200));
+
+		scenes.add(new Scene("paused-enemies=100") {
+
+			@Override
+			public void show(Game game) {
+				new PlayScene(100, 0).show(game);
+				game.getStateManager().pause();
+			}
+
+		});
+
+		scenes.add(new Scene("mainmenu") {
+
+			@Override
+			public void show(Game game) {
+				game.getStateManager().openMainMenu();
+			}
+
+		});
+
+		scenes.add(new Scene("death") {
+
+			@Override
+			public void show(Game game) {
+				game.getStateManager().showDeathScreen();
+			}
+
+		});
+		return scenes;
+	}
+
+	/**
+	 * Prints how Java2D draws on this computer.
+	 */
+
+	private static void printPipeline() {
+		System.out.println("Java " + System.getProperty("java.version") +
+				", headless: " + GraphicsEnvironment.isHeadless());
+
+		String[] properties = {"sun.java2d.opengl", "sun.java2d.d3d",
+				"sun.java2d.xrender", "sun.java2d.metal", "sun.java2d.pmoffscreen"};
+
+		for (String property : properties) {
+			if (System.getProperty(property) != null) {
+				System.out.println(property + "=" + System.getProperty(property));
+			}
+		}
+
+		if (!GraphicsEnvironment.isHeadless()) {
+			GraphicsConfiguration config = getConfiguration();
+			VolatileImage image = config.createCompatibleVolatileImage(Game.WIDTH, Game.HEIGHT);
+
+			System.out.println("Screen: " + config.getDevice().getIDstring() +
+					", VolatileImage accelerated: " + image.getCapabilities().isAccelerated());
+			image.flush();
+		}
+		else {
+			System.out.println("VolatileImage targets are skipped, as there is no display.");
+		}
+		System.out.println();
+	}
+
+	/**
+	 * Gets the configuration of the default screen.
+	 */
+
+	private static GraphicsConfiguration getConfiguration() {
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
+	/**
+	 * Creates a benchmark that draws a scene into a BufferedImage.
+	 * @param game The game.
+	 * @param scene The scene.
+	 */
+
+	private static Benchmark createBufferedImageBenchmark(final Game game, final Scene scene) {
+		return new Benchmark("render/" + scene.getName() + "/buffered") {
+
+			private BufferedImage image;
+			private Graphics2D graphics;
+
+			@Override
+			public void setUp() {
+				scene.show(game);
+				image = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+				graphics = image.createGraphics();
+			}
+
+			@Override
+			public long run() {
+				game.render(graphics);
+				return image.getRGB(Game.WIDTH / 2, Game.HEIGHT / 2);
+			}
+
+			@Override
+			public void tearDown() {
+				graphics.dispose();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark that draws a scene into a VolatileImage. <br>
+	 * The image is recreated if its contents are lost.
+	 * @param game The game.
+	 * @param scene The scene.
+	 */
+
+	private static Benchmark createVolatileImageBenchmark(final Game game, final Scene scene) {
+		return new Benchmark("render/" + scene.getName() + "/volatile") {
+
+			private GraphicsConfiguration config;
+			private VolatileImage image;
+			private int lostCount;
+
+			@Override
+			public void setUp() {
+				scene.show(game);
+				config = getConfiguration();
+				image = config.createCompatibleVolatileImage(Game.WIDTH, Game.HEIGHT);
+			}
+
+			@Override
+			public long run() {
+				if (image.validate(config) == VolatileImage.IMAGE_INCOMPATIBLE) {
+					image = config.createCompatibleVolatileImage(Game.WIDTH, Game.HEIGHT);
+				}
+
+				Graphics2D graphics = image.createGraphics();
+				game.render(graphics);
+				graphics.dispose();
+
+				if (image.contentsLost()) {
+					lostCount++;
+				}
+				return lostCount;
+			}
+
+			@Override
+			public void tearDown() {
+				if (lostCount > 0) {
+					System.out.println(getName() + ": contents lost " + lostCount + " times");
+				}
+				image.flush();
+			}
+
+		};
+	}
+
+	/**
+	 * Draws a scene into a new image.
+	 * @param game The game.
+	 * @param scene The scene.
+	 */
+
+	private static BufferedImage renderScene(Game game, Scene scene) {
+		scene.show(game);
+
+		BufferedImage image = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		game.render(graphics);
+		graphics.dispose();
+		return image;
+	}
+
+	/**
+	 * Saves an image of each scene.
+	 * @param game The game.
+	 * @param scenes The scenes.
+	 * @param folder The folder of the images.
+	 * @return The number of images that could not be saved.
+	 */
+
+	private static int saveGolden(Game game, List<Scene> scenes, File folder) throws IOException {
+		folder.mkdirs();
+
+		for (Scene scene : scenes) {
+			File file = new File(folder, scene.getName() + ".png");
+			ImageIO.write(renderScene(game, scene), "png", file);
+			System.out.println("Saved " + file);
+		}
+		return 0;
+	}
+
+	/**
+	 * Compares each scene with its saved image.
+	 * @param game The game.
+	 * @param scenes The scenes.
+	 * @param folder The folder of the images.
+	 * @return The number of scenes that do not match.
+	 */
+
+	private static int compareGolden(Game game, List<Scene> scenes, File folder) throws IOException {
+		int failures = 0;
+
+		for (Scene scene : scenes) {
+			File file = new File(folder, scene.getName() + ".png");
+
+			if (!file.isFile()) {
+				System.out.println(scene.getName() + ": no golden image");
+				failures++;
+				continue;
+			}
+
+			BufferedImage golden = ImageIO.read(file);
+			BufferedImage image = renderScene(game, scene);
+			int different = 0;
+
+			for (int y = 0; y < Game.HEIGHT; y++) {
+				for (int x = 0; x < Game.WIDTH; x++) {
+					if ((image.getRGB(x, y) & 0xFFFFFF) != (golden.getRGB(x, y) & 0xFFFFFF)) {
+						different++;
+					}
+				}
+			}
+
+			if (different > 0) {
+				System.out.println(scene.getName() + ": " + different + " pixels differ");
+				failures++;
+			}
+			else {
+				System.out.println(scene.getName() + ": identical");
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * A Scene sets up the game so it shows a fixed screen.
+	 */
+
+	private static abstract class Scene {
+
+		private String name;
+
+		/**
+		 * Creates a scene.
+		 * @param name The name of the scene.
+		 */
+
+		private Scene(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Gets the name of the scene.
+		 */
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Sets up the game so it shows the scene.
+		 * @param game The game.
+		 */
+
+		public abstract void show(Game game);
+	}
+
+	/**
+	 * A scene of the game with a number of enemies and arrows.
+	 */
+
+	private static class PlayScene extends Scene {
+
+		private int enemies;
+		private int arrows;
+
+		/**
+		 * Creates a scene of the game.
+		 * @param enemies The number of skeletons.
+		 * @param arrows The number of arrows.
+		 */
+
+		private PlayScene(int enemies, int arrows) {
+			super("play-enemies=" + enemies + ",arrows=" + arrows);
+			this.enemies = enemies;
+			this.arrows = arrows;
+		}
+
+		@Override
+		public void show(Game game) {
+			StateManager stateManager = game.getStateManager();
+			PlayState playState = stateManager.getPlayState();
+			stateManager.startNewGame(SEED);
+
+			// The enemies and arrows are placed around the player, so most of them are visible.
+			Rectangle area = new Rectangle(playState.getPlayer().getPosX() - Game.WIDTH / 2,
+					playState.getPlayer().getPosY() - Game.HEIGHT / 2, Game.WIDTH, Game.HEIGHT);
+			SimulationBenchmarks.addSkeletons(playState, enemies, area);
+
+			Random random = new Random(SEED);
+			AnimationDirection[] directions = AnimationDirection.values();
+
+			for (int i = 0; i < arrows; i++) {
+				playState.addGameObject(new Arrow(playState, playState.getPlayer(),
+						area.x + random.nextInt(area.width), area.y + random.nextInt(area.height),
+						directions[random.nextInt(directions.length)]));
+			}
+
+			// Moves the camera to the player.
+			playState.getCamera().update();
+		}
+	}
+
+}
@@ -0,0 +1,295 @@
+package bench;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import game.Game;
+import gameobjects.GameObject;
+import gameobjects.LivingEntity;
+import gameobjects.player.Player;
+import gamestates.PlayState;
+import gamestates.StateManager;
+import input.Input;
+import replay.Replay;
+import replay.ReplayPlayer;
+
+/**
+ * The ReplayBenchmark records a long game without a window, saves it <br>
+ * as a replay, and then times how long the replay takes to play again <br>
+ * as fast as it can. It also checks that the replay played the same. <br> <br>
+ *
+ * The game is played by pressing keys and the mouse button through <br>
+ * the Input class, so it is recorded the same way as a game played <br>
+ * by a person. The keys walk the player in line with the nearest <br>
+ * skeleton and then shoot at it, so the game moves through the levels. <br>
+ * The player is healed and given arrows before every update, in the <br>
+ * recording and in the replay, so the game lasts the whole time. <br>
+ * The replay is saved in cache/replays like any other game, so it can <br>
+ * also be played with the ReplayRunner. The exit code is 1 if the <br>
+ * replay played differently. <br> <br>
+ *
+ * Arguments: <br>
+ * -minutes &lt;n&gt; The length of the game (default 30). <br>
+ * -runs &lt;n&gt; The number of times the replay is played (default 3).
+ *
+ * @author Elliott Vince
+ */
+
+public class ReplayBenchmark {
+
+	// The seed of the game.
+	private static final long SEED = 7;
+
+	// How close (in pixels) the player must be to a skeleton's row or column to shoot at it.
+	private static final int AIM_DISTANCE = 12;
+
+	// The number of updates without a kill after which the player wanders away.
+	private static final int STUCK_TICKS = Game.TICKS_PER_SECOND * 5;
+
+	// The number of updates that the player wanders for.
+	private static final int WANDER_TICKS = Game.TICKS_PER_SECOND;
+
+	// The keys that are pressed.
+	private static final int[] KEYS = {KeyEvent.VK_W, KeyEvent.VK_A, KeyEvent.VK_S, KeyEvent.VK_D};
+
+	/**
+	 * Runs the benchmark.
+	 * @param args The arguments.
+	 */
+
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		int minutes = 30;
+		int runs = 3;
+
+		for (int i = 0; i + 1 < args.length; i++) {
+			if (args[i].equals("-minutes")) {
+				minutes = Integer.parseInt(args[++i]);
+			}
+			else if (args[i].equals("-runs")) {
+				runs = Integer.parseInt(args[++i]);
+			}
+		}
+
+		int ticks = minutes * 60 * Game.TICKS_PER_SECOND;
+		Game game = Game.createHeadless();
+
+		long start = System.nanoTime();
+		record(game, ticks);
+		double recordSeconds = (System.nanoTime() - start) / 1e9;
+
+		// The replay is saved and read again, so the file format is included.
+		Future<File> saving = game.getStateManager().getPlayState().finishRecording();
+		File file = saving != null ? saving.get() : null;
+		if (file == null) {
+			System.out.println("The replay could not be saved");
+			System.exit(1);
+		}
+		Replay replay = Replay.read(file);
+
+		System.out.println(String.format(Locale.ROOT, "Recorded %d minutes (%d updates) in %.2f s, %s is %d KB",
+				minutes, ticks, recordSeconds, file, file.length() / 1024));
+
+		boolean same = true;
+		for (int run = 1; run <= runs; run++) {
+			start = System.nanoTime();
+			ReplayPlayer player = play(game, replay);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			boolean passed = player.isFinished() && player.getDivergedTick() < 0;
+			same &= passed;
+
+			System.out.println(String.format(Locale.ROOT, "Replay %d: %.2f s (%.0fx real time), %s", run,
+					seconds, minutes * 60 / seconds, passed ? "OK"
+							: "DIVERGED at update " + player.getDivergedTick()));
+		}
+
+		System.exit(same ? 0 : 1);
+	}
+
+	/**
+	 * Plays and records a game.
+	 * @param game The game.
+	 * @param ticks The number of updates.
+	 */
+
+	private static void record(Game game, int ticks) {
+		StateManager stateManager = game.getStateManager();
+		stateManager.startNewGame(SEED);
+
+		PlayState playState = stateManager.getPlayState();
+		playState.startRecording();
+
+		Input input = game.getInput();
+		Canvas source = new Canvas();
+
+		// The key of the direction that the player last walked in, which is the way they face.
+		int facing = -1;
+
+		// Used to wander away when a skeleton is too close to shoot.
+		SplittableRandom random = new SplittableRandom(SEED);
+		int lastScore = 0;
+		int lastKill = 0;
+		int wanderKey = -1;
+
+		for (int i = 0; i < ticks; i++) {
+			Player player = playState.getPlayer();
+			LivingEntity target = getNearestEnemy(playState);
+
+			int key = -1;
+			boolean shooting = false;
+
+			if (player.getScore() != lastScore) {
+				lastScore = player.getScore();
+				lastKill = i;
+			}
+
+			/*
+			 * Arrows cannot hit a skeleton that is standing on the player,
+			 * so if nothing has been killed for a while the player walks
+			 * in a random direction for a moment.
+			 */
+
+			if (target != null && i - lastKill > STUCK_TICKS) {
+				if (wanderKey < 0) {
+					wanderKey = KEYS[random.nextInt(KEYS.length)];
+				}
+				key = wanderKey;
+
+				if (i - lastKill > STUCK_TICKS + WANDER_TICKS) {
+					lastKill = i;
+					wanderKey = -1;
+				}
+			}
+			else if (target != null) {
+				int distanceX = target.getCenterX() - player.getCenterX();
+				int distanceY = target.getCenterY() - player.getCenterY();
+
+				/*
+				 * Once the skeleton is in line with the player, the player
+				 * turns to face it by taking a step towards it, and then
+				 * stands still and shoots. Otherwise the player walks
+				 * into line with it.
+				 */
+
+				if (Math.abs(distanceX) <= AIM_DISTANCE || Math.abs(distanceY) <= AIM_DISTANCE) {
+					int towards = Math.abs(distanceX) <= AIM_DISTANCE ? (distanceY < 0 ? KEYS[0] : KEYS[2])
+							: (distanceX < 0 ? KEYS[1] : KEYS[3]);
+
+					if (facing == towards) {
+						shooting = true;
+					}
+					else {
+						key = towards;
+					}
+				}
+				else if (Math.abs(distanceX) < Math.abs(distanceY)) {
+					key = distanceX < 0 ? KEYS[1] : KEYS[3];
+				}
+				else {
+					key = distanceY < 0 ? KEYS[0] : KEYS[2];
+				}
+			}
+
+			for (int k : KEYS) {
+				KeyEvent event = new KeyEvent(source, k == key ? KeyEvent.KEY_PRESSED : KeyEvent.KEY_RELEASED,
+						0, 0, k, KeyEvent.CHAR_UNDEFINED);
+
+				if (k == key) {
+					input.keyPressed(event);
+				}
+				else {
+					input.keyReleased(event);
+				}
+			}
+
+			MouseEvent event = new MouseEvent(source, shooting ? MouseEvent.MOUSE_PRESSED
+					: MouseEvent.MOUSE_RELEASED, 0, 0, 0, 0, 1, false, MouseEvent.BUTTON1);
+
+			if (shooting) {
+				input.mousePressed(event);
+			}
+			else {
+				input.mouseReleased(event);
+			}
+
+			int lastX = player.getPosX();
+			int lastY = player.getPosY();
+			update(game);
+
+			if (player.getPosX() != lastX || player.getPosY() != lastY) {
+				facing = key;
+			}
+		}
+	}
+
+	/**
+	 * Gets the skeleton that is closest to the player.
+	 * @param playState The play state.
+	 * @return The skeleton, or null if there are none.
+	 */
+
+	private static LivingEntity getNearestEnemy(PlayState playState) {
+		Player player = playState.getPlayer();
+		List<GameObject> gameObjects = playState.getGameObjects();
+
+		LivingEntity nearest = null;
+		long nearestDistance = Long.MAX_VALUE;
+
+		for (int i = 0; i < gameObjects.size(); i++) {
+			GameObject gameObject = gameObjects.get(i);
+
+			if (gameObject instanceof LivingEntity && gameObject != player) {
+				long distanceX = gameObject.getCenterX() - player.getCenterX();
+				long distanceY = gameObject.getCenterY() - player.getCenterY();
+				long distance = distanceX * distanceX + distanceY * distanceY;
+
+				if (distance < nearestDistance) {
+					nearest = (LivingEntity) gameObject;
+					nearestDistance = distance;
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Plays a replay as fast as it can.
+	 * @param game The game.
+	 * @param replay The replay.
+	 * @return The player of the replay, which knows if it played the same.
+	 */
+
+	private static ReplayPlayer play(Game game, Replay replay) {
+		StateManager stateManager = game.getStateManager();
+		stateManager.startReplay(replay);
+
+		PlayState playState = stateManager.getPlayState();
+		ReplayPlayer player = playState.getReplayPlayer();
+
+		while (!player.isFinished() && stateManager.getCurrentState() == playState) {
+			update(game);
+		}
+		return player;
+	}
+
+	/**
+	 * Updates the game once. The player is healed and given arrows, <br>
+	 * so the game never ends.
+	 */
+
+	private static void update(Game game) {
+		Player player = game.getStateManager().getPlayState().getPlayer();
+		player.heal(player.getMaxHealth());
+		player.refillAmmo();
+		game.update();
+	}
+
+}
@@ -0,0 +1,251 @@
+package bench;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import game.Game;
+import game.GameClock;
+import game.ScoreLog;
+import gameobjects.GameObject;
+import gameobjects.player.Player;
+import gameobjects.projectiles.Arrow;
+import gameobjects.skeleton.Skeleton;
+import gamestates.PlayState;
+import gfx.Animation;
+import gfx.Animation.AnimationDirection;
+import levels.LevelManager;
+
+/**
+ * The SimulationBenchmarks measure the parts of the game that run <br>
+ * every update: the PlayState with different numbers of enemies, <br>
+ * arrow collisions, skeleton spawning, animations and the leaderboard. <br> <br>
+ *
+ * The game is created without a window, so the benchmarks can run <br>
+ * with java.awt.headless=true. Run them from the project folder, so <br>
+ * the resources can be found. See the BenchmarkRunner for the arguments.
+ *
+ * @author Elliott Vince
+ */
+
+public class SimulationBenchmarks {
+
+	// The numbers of enemies used by the PlayState benchmarks.
+	private static final int[] ENEMY_COUNTS = {10, 100, 1000, 10000};
+
+	// The numbers of objects that an arrow is checked against.
+	private static final int[] OBJECT_COUNTS = {100, 1000, 10000};
+
+	// The seed of the games and of the places of the enemies, so every run uses the same scene.
+	private static final long SEED = 42;
+
+	/**
+	 * Runs the benchmarks.
+	 * @param args The arguments of the BenchmarkRunner.
+	 */
+
+	public static void main(String[] args) {
+		Game game = Game.createHeadless();
+		PlayState playState = game.getStateManager().getPlayState();
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		for (int count : ENEMY_COUNTS) {
+			benchmarks.add(createPlayStateBenchmark(playState, count));
+		}
+
+		for (int count : OBJECT_COUNTS) {
+			benchmarks.add(createArrowBenchmark(playState, count));
+		}
+
+		benchmarks.add(createSpawnBenchmark(playState));
+		benchmarks.add(createAnimationBenchmark());
+		benchmarks.add(createLeaderboardBenchmark());
+
+		new BenchmarkRunner(SimulationBenchmarks.class, args).run(benchmarks);
+		System.exit(0);
+	}
+
+	/**
+	 * Adds skeletons at random locations in the map.
+	 * @param playState The play state.
+	 * @param count The number of skeletons.
+	 * @param area The area where the skeletons are placed.
+	 */
+
+	static void addSkeletons(PlayState playState, int count, Rectangle area) {
+		Random random = new Random(SEED);
+
+		for (int i = 0; i < count; i++) {
+			int posX = area.x + random.nextInt(Math.max(1, area.width));
+			int posY = area.y + random.nextInt(Math.max(1, area.height));
+			playState.addGameObject(new Skeleton(playState, posX, posY, 100, 100));
+		}
+	}
+
+	/**
+	 * Creates a benchmark of one update of the PlayState.
+	 * @param playState The play state.
+	 * @param enemies The number of skeletons in the game.
+	 */
+
+	private static Benchmark createPlayStateBenchmark(final PlayState playState, final int enemies) {
+		return new Benchmark("PlayState.update/enemies=" + enemies) {
+
+			@Override
+			public void setUp() {
+				playState.reset(SEED);
+				addSkeletons(playState, enemies, playState.getBounds());
+			}
+
+			@Override
+			public long run() {
+				// The player is healed, so the game never ends.
+				Player player = playState.getPlayer();
+				player.heal(player.getMaxHealth());
+
+				playState.update();
+				return playState.getGameObjects().size();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of an arrow checking for collisions. <br>
+	 * The arrow never hits anything, so it checks every object.
+	 * @param playState The play state.
+	 * @param objects The number of objects in the game.
+	 */
+
+	private static Benchmark createArrowBenchmark(final PlayState playState, final int objects) {
+		return new Benchmark("Arrow.update/objects=" + objects) {
+
+			private Arrow arrow;
+
+			@Override
+			public void setUp() {
+				playState.reset(SEED);
+
+				// The skeletons are placed away from the arrow's path.
+				Rectangle bounds = playState.getBounds();
+				addSkeletons(playState, objects, new Rectangle(bounds.x + 1000, bounds.y + 1000,
+						bounds.width - 1000, bounds.height - 1000));
+
+				arrow = new Arrow(playState, playState.getPlayer(), 0, 0, AnimationDirection.RIGHT);
+			}
+
+			@Override
+			public long run() {
+				arrow.setLocation(0, 0);
+				arrow.update();
+				return arrow.getPosX();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of spawning the skeletons of the first level.
+	 * @param playState The play state.
+	 */
+
+	private static Benchmark createSpawnBenchmark(final PlayState playState) {
+		return new Benchmark("LevelManager.spawnSkeletons") {
+
+			private LevelManager levelManager;
+
+			@Override
+			public void setUp() {
+				playState.reset(SEED);
+				levelManager = new LevelManager(playState);
+			}
+
+			@Override
+			public long run() {
+				List<GameObject> gameObjects = playState.getGameObjects();
+
+				// Removes the spawned skeletons now and then. The player is the first object.
+				if (gameObjects.size() > 1000) {
+					gameObjects.subList(1, gameObjects.size()).clear();
+				}
+
+				levelManager.restartLevel();
+				levelManager.spawnSkeletons(levelManager.getTotalSkeletons());
+				return gameObjects.size();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of updating an animation.
+	 */
+
+	private static Benchmark createAnimationBenchmark() {
+		return new Benchmark("Animation.update") {
+
+			private Animation animation;
+
+			@Override
+			public void setUp() {
+				BufferedImage[] frames = new BufferedImage[8];
+
+				for (int i = 0; i < frames.length; i++) {
+					frames[i] = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+				}
+				animation = new Animation(frames);
+			}
+
+			@Override
+			public long run() {
+				// Animations run on the game's clock, which moves once per update.
+				GameClock.tick();
+				animation.update();
+				return animation.getCurrentFrame();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a benchmark of adding a score to the leaderboard and <br>
+	 * getting the leaderboard again. The score log is only kept in <br>
+	 * memory, so nothing is read or saved.
+	 */
+
+	private static Benchmark createLeaderboardBenchmark() {
+		return new Benchmark("ScoreLog.record") {
+
+			private ScoreLog scoreLog;
+			private long count;
+
+			@Override
+			public void setUp() {
+				scoreLog = ScoreLog.createInMemory();
+				count = 0;
+			}
+
+			@Override
+			public long run() {
+				// Starts again before the scores get too high for an int.
+				if (count == Integer.MAX_VALUE) {
+					scoreLog = ScoreLog.createInMemory();
+					count = 0;
+				}
+
+				/*
+				 * Each score is higher than every score before it, so every
+				 * one makes the leaderboard and is sorted up to first place.
+				 */
+
+				scoreLog.record("bench", (int) ++count, 1, 0);
+				return scoreLog.getTopScores(ScoreLog.LEADERBOARD_SCORES).size();
+			}
+
+		};
+	}
+
+}
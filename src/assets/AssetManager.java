@@ -0,0 +1,434 @@
+package assets;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import audio.PcmCache;
+import audio.Sound;
+import profiling.AssetLoadEvent;
+import profiling.FrameMonitor;
+
+/**
+ * The AssetManager loads and stores every image that the game uses. <br>
+ * Images are decoded once and then shared, so spawning an enemy or <br>
+ * opening a menu never has to read from disk. <br> <br>
+ *
+ * Call {@link #preload()} when the game starts. This decodes every image <br>
+ * and sound effect in parallel on a small pool of worker threads while <br>
+ * the loading screen displays the progress. Sound effects are decoded <br>
+ * into the {@link PcmCache}, where the AudioMixer gets them.
+ *
+ * @author Elliott Vince
+ */
+
+public class AssetManager {
+
+	// The folders which are scanned for images when preloading.
+	private static final String[] IMAGE_FOLDERS = {
+		"resources/sprites",
+		"resources/ui",
+		"resources/backgrounds",
+		"resources/icons"
+	};
+
+	/*
+	 * Images that are drawn at a different size than the file.
+	 * Each entry is {path, width, height}.
+	 */
+
+	private static final Object[][] SCALED_IMAGES = {
+		{"resources/backgrounds/mainmenu.jpg", 800, 600},
+		{"resources/ui/HUD.png", 146, 210}
+	};
+
+	// The maximum number of worker threads used while preloading.
+	private static final int MAX_WORKERS = 4;
+
+	// Decoded images, stored by their file path.
+	private static final Map<String, BufferedImage> images =
+			new ConcurrentHashMap<String, BufferedImage>();
+
+	// Preload progress.
+	private static final AtomicInteger totalAssets = new AtomicInteger();
+	private static final AtomicInteger loadedAssets = new AtomicInteger();
+
+	private static volatile boolean preloadStarted = false;
+
+	/**
+	 * The AssetManager only has static methods.
+	 */
+
+	private AssetManager() {
+	}
+
+	/**
+	 * Starts decoding every image and sound effect in the background. <br>
+	 * This method returns immediately. Use {@link #isLoaded()} and <br>
+	 * {@link #getProgress()} to check on the preload.
+	 */
+
+	public static synchronized void preload() {
+
+		if (preloadStarted) {
+			return;
+		}
+		preloadStarted = true;
+
+		// Enumerates every asset that should be loaded.
+		List<String> imagePaths = new ArrayList<String>();
+		for (String folder : IMAGE_FOLDERS) {
+			findFiles(new File(folder), imagePaths, ".png", ".jpg");
+		}
+
+		// The sound effects that the AudioMixer plays.
+		List<String> soundPaths = new ArrayList<String>();
+		for (Sound sound : Sound.values()) {
+			soundPaths.add(sound.getPath());
+		}
+
+		totalAssets.set(imagePaths.size() + soundPaths.size() +
+				SCALED_IMAGES.length);
+
+		// Creates the worker pool. The threads do not keep the game running.
+		int workers = Math.max(1, Math.min(MAX_WORKERS,
+				Runtime.getRuntime().availableProcessors()));
+
+		ExecutorService executor = Executors.newFixedThreadPool(workers,
+				new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "asset-loader-" +
+						count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+
+		for (final String path : imagePaths) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						getImage(path);
+					}
+					catch (RuntimeException e) {
+						System.out.println("Problem preloading " + path + ": " + e);
+					}
+					finally {
+						// A failed asset still counts, so the loading screen can finish.
+						loadedAssets.incrementAndGet();
+					}
+				}
+
+			});
+		}
+
+		for (final Object[] scaled : SCALED_IMAGES) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						getScaledImage((String) scaled[0], (Integer) scaled[1],
+								(Integer) scaled[2]);
+					}
+					catch (RuntimeException e) {
+						System.out.println("Problem preloading " + scaled[0] + ": " + e);
+					}
+					finally {
+						loadedAssets.incrementAndGet();
+					}
+				}
+
+			});
+		}
+
+		for (final String path : soundPaths) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						loadSound(path);
+					}
+					catch (RuntimeException e) {
+						System.out.println("Problem preloading " + path + ": " + e);
+					}
+					finally {
+						loadedAssets.incrementAndGet();
+					}
+				}
+
+			});
+		}
+
+		// The pool shuts down once the queued tasks have finished.
+		executor.shutdown();
+	}
+
+	/**
+	 * Determines if every preloaded asset is in memory.
+	 * @return True if the preload has finished, otherwise false.
+	 */
+
+	public static boolean isLoaded() {
+		return preloadStarted && loadedAssets.get() >= totalAssets.get();
+	}
+
+	/**
+	 * Gets how much of the preload has finished.
+	 * @return A value between 0 and 1.
+	 */
+
+	public static double getProgress() {
+		int total = totalAssets.get();
+
+		if (total == 0) {
+			return preloadStarted ? 1.0 : 0.0;
+		}
+		return Math.min(1.0, (double) loadedAssets.get() / total);
+	}
+
+	/**
+	 * Gets the image at the specified path. <br>
+	 * If the image has not been loaded yet, it is loaded now.
+	 * @param path The file path of the image.
+	 * @return The image, or null if it could not be read.
+	 */
+
+	public static BufferedImage getImage(String path) {
+		BufferedImage image = images.get(path);
+
+		if (image == null) {
+			AssetLoadEvent event = new AssetLoadEvent();
+			event.begin();
+			long start = System.nanoTime();
+			
+			try {
+				image = toCompatibleImage(ImageIO.read(new File(path)));
+			} catch (IOException e) {
+				System.out.println("Problem loading image " + path);
+				System.out.println(e);
+				return null;
+			}
+
+			if (image == null) {
+				return null;
+			}
+
+			FrameMonitor.assetLoaded(path, System.nanoTime() - start);
+			commitImageEvent(event, path, "Image", image);
+
+			// Another thread may have loaded the image in the meantime.
+			BufferedImage previous = images.putIfAbsent(path, image);
+			if (previous != null) {
+				image = previous;
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Gets the image at the specified path, scaled to the specified size. <br>
+	 * The scaled image is kept so it only has to be scaled once.
+	 * @param path The file path of the image.
+	 * @param width The width of the scaled image.
+	 * @param height The height of the scaled image.
+	 * @return The scaled image, or null if it could not be read.
+	 */
+
+	public static BufferedImage getScaledImage(String path, int width, int height) {
+		String key = path + "@" + width + "x" + height;
+		BufferedImage scaled = images.get(key);
+
+		if (scaled == null) {
+			BufferedImage image = getImage(path);
+
+			if (image == null) {
+				return null;
+			}
+
+			AssetLoadEvent event = new AssetLoadEvent();
+			event.begin();
+			long start = System.nanoTime();
+
+			scaled = createImage(width, height, image.getTransparency());
+
+			// Draws the image at the new size with smooth scaling.
+			Graphics2D graphics = scaled.createGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+					RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(image, 0, 0, width, height, null);
+			graphics.dispose();
+
+			FrameMonitor.assetLoaded(path, System.nanoTime() - start);
+			commitImageEvent(event, path, "Scaled Image", scaled);
+
+			BufferedImage previous = images.putIfAbsent(key, scaled);
+			if (previous != null) {
+				scaled = previous;
+			}
+		}
+		return scaled;
+	}
+
+	/**
+	 * Decodes a sound effect into the PcmCache, or maps it if it is <br>
+	 * already cached, so the AudioMixer does not have to decode it.
+	 * @param path The file path of the sound.
+	 */
+
+	private static void loadSound(String path) {
+		AssetLoadEvent event = new AssetLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
+
+		ShortBuffer samples = PcmCache.get(path);
+
+		if (samples == null) {
+			return;
+		}
+
+		FrameMonitor.assetLoaded(path, System.nanoTime() - start);
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.path = path;
+			event.kind = "Sound";
+			event.size = samples.remaining() * 2;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Records that an image was loaded in flight recordings.
+	 * @param event The event, which was started before the image was loaded.
+	 * @param path The file path of the image.
+	 * @param kind The kind of asset.
+	 * @param image The loaded image.
+	 */
+
+	private static void commitImageEvent(AssetLoadEvent event, String path, String kind,
+			BufferedImage image) {
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.path = path;
+			event.kind = kind;
+			event.width = image.getWidth();
+			event.height = image.getHeight();
+			event.size = (long) image.getWidth() * image.getHeight() *
+					image.getColorModel().getPixelSize() / 8;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Creates an empty image in the screen's pixel format.
+	 * @param width The width of the image.
+	 * @param height The height of the image.
+	 * @param transparency The transparency of the image.
+	 */
+
+	public static BufferedImage createImage(int width, int height, int transparency) {
+		GraphicsConfiguration config = getGraphicsConfiguration();
+
+		if (config != null) {
+			return config.createCompatibleImage(width, height, transparency);
+		}
+
+		// No screen is available, so a standard ARGB image is used.
+		return new BufferedImage(width, height,
+				transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB :
+				BufferedImage.TYPE_INT_ARGB);
+	}
+
+	/**
+	 * Copies the image into the screen's pixel format. <br>
+	 * Images in this format can be drawn without being converted each frame.
+	 * @param image The image to be copied.
+	 */
+
+	private static BufferedImage toCompatibleImage(BufferedImage image) {
+		if (image == null || getGraphicsConfiguration() == null) {
+			return image;
+		}
+
+		BufferedImage copy = createImage(image.getWidth(), image.getHeight(),
+				image.getTransparency());
+
+		Graphics2D graphics = copy.createGraphics();
+		graphics.drawImage(image, 0, 0, null);
+		graphics.dispose();
+
+		return copy;
+	}
+
+	/**
+	 * Gets the configuration of the screen, or null if there is no screen.
+	 */
+
+	private static GraphicsConfiguration getGraphicsConfiguration() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return null;
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
+	/**
+	 * Adds every file in the folder (and its subfolders) that ends <br>
+	 * with one of the specified extensions to the list.
+	 * @param folder The folder to be searched.
+	 * @param paths The list that the file paths are added to.
+	 * @param extensions The file extensions to look for.
+	 */
+
+	private static void findFiles(File folder, List<String> paths, String... extensions) {
+		File[] files = folder.listFiles();
+
+		if (files == null) {
+			return;
+		}
+
+		for (File file : files) {
+			if (file.isDirectory()) {
+				findFiles(file, paths, extensions);
+				continue;
+			}
+
+			for (String extension : extensions) {
+				if (file.getName().toLowerCase().endsWith(extension)) {
+					// Stores the path in the same format the game uses.
+					paths.add(file.getPath().replace(File.separatorChar, '/'));
+					break;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,481 @@
+package audio;
+
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import game.Game;
+import gfx.Camera;
+import profiling.SoundEvent;
+
+/**
+ * The AudioMixer plays every sound in the game through one line, <br>
+ * using a single mixing thread. <br> <br>
+ *
+ * Sounds are decoded once and read from the PcmCache. Each sound has a <br>
+ * limit on how many copies can play at once, and repeated triggers <br>
+ * of a sound within a short window are combined into one louder <br>
+ * copy. This keeps the cost of audio the same no matter how many <br>
+ * skeletons are attacking. The volume of each category of sound is <br>
+ * taken from the game's settings. <br> <br>
+ *
+ * Sounds in the game world are panned and made quieter based on <br>
+ * their distance from the center of the camera. Sounds that are too <br>
+ * far away to be heard are never played. <br> <br>
+ *
+ * The copies of the sounds are reused once they have finished, so <br>
+ * playing a sound does not allocate memory on the game's thread.
+ *
+ * @author Elliott Vince
+ */
+
+public class AudioMixer {
+
+	// The number of stereo samples mixed at once (about 23 ms).
+	private static final int BLOCK_FRAMES = 1024;
+	private static final int BLOCK_SIZE = BLOCK_FRAMES * Mp3Stream.CHANNELS;
+
+	// How long the mixing thread waits for a sound when nothing is playing.
+	private static final int IDLE_WAIT_MILLIS = 20;
+
+	// The most sounds that can wait to be started, and the most finished copies that are kept.
+	private static final int MAX_REQUESTS = 256;
+	private static final int MAX_FREE_VOICES = 64;
+
+	// The extra volume added to a sound each time a trigger is combined into it.
+	private static final float COALESCE_BOOST = 0.25f;
+	private static final float MAX_VOICE_GAIN = 2f;
+
+	// Sounds within this distance of the camera's center play at full volume.
+	private static final int FULL_VOLUME_RADIUS = 300;
+
+	// Sounds further than this distance from the camera's center are not played.
+	private static final int AUDIBLE_RADIUS = 900;
+
+	// The horizontal distance at which a sound only plays on one side.
+	private static final int PAN_DISTANCE = Game.WIDTH / 2;
+
+	private Game game;
+
+	// Sounds waiting to be started by the mixing thread.
+	private ArrayBlockingQueue<Voice> requests;
+
+	// Copies of sounds that have finished, which can be played again.
+	private ArrayBlockingQueue<Voice> freeVoices;
+
+	// The sounds that are playing. Only used by the mixing thread.
+	private List<Voice> voices;
+	private int[] voiceCounts;
+
+	// The decoded samples of each sound.
+	private volatile ShortBuffer[] samples;
+
+	// The last copy of each sound, and the time it was triggered.
+	private Voice[] lastVoices;
+	private long[] lastPlayTimes;
+
+	// The camera that sounds in the game world are heard from.
+	private volatile Camera listener;
+
+	// The soundtrack's decoded music.
+	private volatile AudioRingBuffer music;
+
+	private SourceDataLine line;
+
+	/**
+	 * Creates the mixer and starts its thread.
+	 * @param game An instance of the game class.
+	 */
+
+	public AudioMixer(Game game) {
+		this.game = game;
+
+		requests = new ArrayBlockingQueue<Voice>(MAX_REQUESTS);
+		freeVoices = new ArrayBlockingQueue<Voice>(MAX_FREE_VOICES);
+		voices = new ArrayList<Voice>();
+		voiceCounts = new int[Sound.values().length];
+
+		lastVoices = new Voice[Sound.values().length];
+		lastPlayTimes = new long[Sound.values().length];
+
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				mix();
+			}
+
+		}, "audio-mixer");
+
+		// The thread should not keep the game open.
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Plays a sound at full volume on both sides. <br>
+	 * Nothing happens if the sound's category is muted.
+	 * @param sound The sound to be played.
+	 */
+
+	public void play(Sound sound) {
+		play(sound, 1, 1);
+	}
+
+	/**
+	 * Plays a sound from a location in the game world. <br>
+	 * The sound is panned and made quieter based on its distance from <br>
+	 * the center of the camera, and it is skipped if it is too far away.
+	 * @param sound The sound to be played.
+	 * @param worldX The x location of the sound.
+	 * @param worldY The y location of the sound.
+	 */
+
+	public void play(Sound sound, int worldX, int worldY) {
+		Camera listener = this.listener;
+
+		if (listener == null) {
+			play(sound);
+			return;
+		}
+
+		int distanceX = worldX - listener.getCenterX();
+		int distanceY = worldY - listener.getCenterY();
+		double distance = Math.sqrt((double) distanceX * distanceX +
+				(double) distanceY * distanceY);
+
+		// The sound is too far away to be heard.
+		if (distance >= AUDIBLE_RADIUS) {
+			return;
+		}
+
+		// The volume fades out between the two radiuses.
+		float volume = 1;
+		if (distance > FULL_VOLUME_RADIUS) {
+			volume = (float) (1 - (distance - FULL_VOLUME_RADIUS) /
+					(AUDIBLE_RADIUS - FULL_VOLUME_RADIUS));
+		}
+
+		// The pan is from -1 (left) to 1 (right).
+		float pan = Math.max(-1, Math.min(1, (float) distanceX / PAN_DISTANCE));
+
+		play(sound, volume * Math.min(1, 1 - pan), volume * Math.min(1, 1 + pan));
+	}
+
+	/**
+	 * Plays a sound with a volume on each side. <br>
+	 * Nothing happens if the sound's category is muted.
+	 * @param sound The sound to be played.
+	 * @param leftGain The volume of the left side, from 0 to 1.
+	 * @param rightGain The volume of the right side, from 0 to 1.
+	 */
+
+	private synchronized void play(Sound sound, float leftGain, float rightGain) {
+		if (getGain(sound.getCategory()) <= 0) {
+			return;
+		}
+
+		int index = sound.ordinal();
+		long now = System.nanoTime();
+		Voice last = lastVoices[index];
+
+		/*
+		 * Combines the sound with the last copy if it was triggered recently.
+		 * The last copy may have been reused for another sound, so the sound
+		 * is checked as well.
+		 */
+
+		if (last != null && last.sound == sound && now - lastPlayTimes[index] <
+				TimeUnit.MILLISECONDS.toNanos(sound.getCoalesceMillis())) {
+			last.boost(leftGain, rightGain);
+			return;
+		}
+
+		// Reuses a finished copy if there is one.
+		Voice voice = freeVoices.poll();
+		if (voice == null) {
+			voice = new Voice();
+		}
+		voice.reset(sound, leftGain, rightGain);
+
+		if (!requests.offer(voice)) {
+			// Too many sounds are waiting, so this one is skipped.
+			return;
+		}
+
+		lastVoices[index] = voice;
+		lastPlayTimes[index] = now;
+	}
+
+	/**
+	 * Sets the camera that sounds in the game world are heard from.
+	 * @param listener The camera.
+	 */
+
+	public void setListener(Camera listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Sets the music that is mixed with the sound effects.
+	 * @param music The decoded music.
+	 */
+
+	public void setMusic(AudioRingBuffer music) {
+		this.music = music;
+	}
+
+	/**
+	 * Gets the volume of a category of sounds, from 0 to 1.
+	 * @param category The category of sounds.
+	 */
+
+	public float getGain(SoundCategory category) {
+		// Sound effects are muted if sounds are turned off.
+		if (category != SoundCategory.MUSIC && !game.getSettings().areSoundsEnabled()) {
+			return 0;
+		}
+		return game.getSettings().getVolume(category) / 100f;
+	}
+
+	/**
+	 * The loop of the mixing thread.
+	 */
+
+	private void mix() {
+		decodeSounds();
+		openLine();
+
+		int[] mixed = new int[BLOCK_SIZE];
+		short[] musicSamples = new short[BLOCK_SIZE];
+		byte[] bytes = new byte[BLOCK_SIZE * 2];
+
+		try {
+			while (true) {
+				AudioRingBuffer music = this.music;
+
+				// Waits for a sound if nothing is playing.
+				if (voices.isEmpty() && (music == null || music.getSize() == 0)) {
+					Voice voice = requests.poll(IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+					if (voice != null) {
+						start(voice);
+					}
+					continue;
+				}
+
+				/*
+				 * A problem in one block is printed and the block is skipped,
+				 * so the mixer keeps playing the music and the other sounds.
+				 */
+
+				try {
+					// Starts the sounds that were played since the last block.
+					Voice request;
+					while ((request = requests.poll()) != null) {
+						start(request);
+					}
+
+					Arrays.fill(mixed, 0);
+
+					// Adds the music.
+					if (music != null) {
+						int count = music.poll(musicSamples, 0, BLOCK_SIZE);
+						float gain = getGain(SoundCategory.MUSIC);
+
+						for (int i = 0; i < count; i++) {
+							mixed[i] += (int) (musicSamples[i] * gain);
+						}
+					}
+
+					// Adds each sound, and removes the sounds that have finished.
+					for (int index = voices.size() - 1; index >= 0; index--) {
+						Voice voice = voices.get(index);
+
+						boolean playing;
+						try {
+							playing = voice.mixInto(mixed, getGain(voice.sound.getCategory()));
+						}
+						catch (RuntimeException e) {
+							// Only the sound with the problem is stopped.
+							System.out.println("Problem mixing " + voice.sound + ": " + e);
+							playing = false;
+						}
+
+						if (!playing) {
+							voices.remove(index);
+							voiceCounts[voice.sound.ordinal()]--;
+							freeVoices.offer(voice);
+						}
+					}
+
+					// Converts the samples to little-endian bytes.
+					for (int i = 0; i < BLOCK_SIZE; i++) {
+						int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixed[i]));
+						bytes[i * 2] = (byte) sample;
+						bytes[i * 2 + 1] = (byte) (sample >> 8);
+					}
+
+					if (line != null) {
+						line.write(bytes, 0, bytes.length);
+					}
+					else {
+						// There is no sound card, so the block is skipped in real time.
+						Thread.sleep(BLOCK_FRAMES * 1000L / Mp3Stream.SAMPLE_RATE);
+					}
+				}
+				catch (RuntimeException e) {
+					System.out.println("Problem mixing the sounds: " + e);
+					Thread.sleep(BLOCK_FRAMES * 1000L / Mp3Stream.SAMPLE_RATE);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			// The thread ends.
+		}
+	}
+
+	/**
+	 * Starts a sound, unless too many copies of it are playing.
+	 * @param voice The sound to be started.
+	 */
+
+	private void start(Voice voice) {
+		int index = voice.sound.ordinal();
+
+		if (samples[index] == null || voiceCounts[index] >= voice.sound.getMaxVoices()) {
+			freeVoices.offer(voice);
+			return;
+		}
+
+		voice.data = samples[index];
+		voices.add(voice);
+		voiceCounts[index]++;
+
+		SoundEvent event = new SoundEvent();
+
+		if (event.shouldCommit()) {
+			event.sound = voice.sound.name();
+			event.category = voice.sound.getCategory().name();
+			event.voices = voices.size();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Loads every sound from the PcmCache. <br>
+	 * The loading screen has usually decoded them already, and any <br>
+	 * that are not cached yet are decoded and cached.
+	 */
+
+	private void decodeSounds() {
+		ShortBuffer[] decoded = new ShortBuffer[Sound.values().length];
+
+		for (Sound sound : Sound.values()) {
+			decoded[sound.ordinal()] = PcmCache.get(sound.getPath());
+		}
+		samples = decoded;
+	}
+
+	/**
+	 * Opens the sound card's line.
+	 */
+
+	private void openLine() {
+		AudioFormat format = new AudioFormat(Mp3Stream.SAMPLE_RATE, 16,
+				Mp3Stream.CHANNELS, true, false);
+
+		try {
+			SourceDataLine line = AudioSystem.getSourceDataLine(format);
+			line.open(format, BLOCK_SIZE * 2 * 4);
+			line.start();
+			this.line = line;
+		}
+		catch (LineUnavailableException | IllegalArgumentException e) {
+			System.out.println("Problem opening the sound card");
+			System.out.println(e);
+		}
+	}
+
+	/**
+	 * A copy of a sound that is playing.
+	 */
+
+	private static class Voice {
+
+		private Sound sound;
+
+		// The decoded samples of the sound.
+		private ShortBuffer data;
+
+		// The index of the next sample.
+		private int position;
+
+		// The volume of each side.
+		private volatile float leftGain;
+		private volatile float rightGain;
+
+		/**
+		 * Sets the sound of the copy, so it plays from the start.
+		 * @param sound The sound to be played.
+		 * @param leftGain The volume of the left side.
+		 * @param rightGain The volume of the right side.
+		 */
+
+		private void reset(Sound sound, float leftGain, float rightGain) {
+			this.sound = sound;
+			this.data = null;
+			this.position = 0;
+			this.leftGain = leftGain;
+			this.rightGain = rightGain;
+		}
+
+		/**
+		 * Makes the sound louder when another trigger is combined into it.
+		 * @param leftGain The volume of the left side of the trigger.
+		 * @param rightGain The volume of the right side of the trigger.
+		 */
+
+		private void boost(float leftGain, float rightGain) {
+			this.leftGain = Math.min(this.leftGain + leftGain * COALESCE_BOOST, MAX_VOICE_GAIN);
+			this.rightGain = Math.min(this.rightGain + rightGain * COALESCE_BOOST, MAX_VOICE_GAIN);
+		}
+
+		/**
+		 * Adds the next block of the sound to the mixed samples.
+		 * @param mixed The mixed samples.
+		 * @param categoryGain The volume of the sound's category.
+		 * @return False if the sound has finished.
+		 */
+
+		private boolean mixInto(int[] mixed, float categoryGain) {
+			float left = leftGain * categoryGain;
+			float right = rightGain * categoryGain;
+			int count = Math.min(mixed.length, data.limit() - position);
+
+			// The samples alternate between the left and right sides.
+			int i = 0;
+			for (; i + 1 < count; i += 2) {
+				mixed[i] += (int) (data.get(position + i) * left);
+				mixed[i + 1] += (int) (data.get(position + i + 1) * right);
+			}
+
+			// A sound with an odd number of samples ends with a left sample only.
+			if (i < count) {
+				mixed[i] += (int) (data.get(position + i) * left);
+			}
+
+			position += count;
+			return position < data.limit();
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package audio;
+
+/**
+ * An AudioRingBuffer holds decoded samples between the thread <br>
+ * that decodes them and the thread that plays them. <br> <br>
+ *
+ * Writing waits while the buffer is full, and reading waits while <br>
+ * it is empty. Clearing the buffer releases any waiting writer, <br>
+ * so a song can be stopped at any time.
+ *
+ * @author Elliott Vince
+ */
+
+public class AudioRingBuffer {
+
+	private short[] buffer;
+
+	// The index of the next sample to read.
+	private int readIndex;
+
+	// The number of samples in the buffer.
+	private int size;
+
+	// Increases each time the buffer is cleared.
+	private int generation;
+
+	/**
+	 * Creates a new ring buffer.
+	 * @param capacity The number of samples the buffer can hold.
+	 */
+
+	public AudioRingBuffer(int capacity) {
+		this.buffer = new short[capacity];
+	}
+
+	/**
+	 * Writes samples to the buffer, waiting for space if necessary.
+	 * @param samples The samples to be written.
+	 * @param offset The index of the first sample.
+	 * @param length The number of samples.
+	 * @return True if every sample was written, or false if the buffer <br>
+	 * was cleared while waiting.
+	 */
+
+	public synchronized boolean write(short[] samples, int offset, int length)
+			throws InterruptedException {
+		int startGeneration = generation;
+
+		while (length > 0) {
+			while (size == buffer.length) {
+				wait();
+
+				if (generation != startGeneration) {
+					return false;
+				}
+			}
+
+			// Copies as many samples as will fit before the end of the array.
+			int writeIndex = (readIndex + size) % buffer.length;
+			int count = Math.min(length, Math.min(buffer.length - size,
+					buffer.length - writeIndex));
+
+			System.arraycopy(samples, offset, buffer, writeIndex, count);
+			size += count;
+			offset += count;
+			length -= count;
+
+			notifyAll();
+		}
+		return true;
+	}
+
+	/**
+	 * Reads samples from the buffer, waiting until at least one is available.
+	 * @param samples The array that the samples are read into.
+	 * @param length The maximum number of samples to read.
+	 * @return The number of samples read.
+	 */
+
+	public synchronized int read(short[] samples, int length) throws InterruptedException {
+		while (size == 0) {
+			wait();
+		}
+		return poll(samples, 0, length);
+	}
+
+	/**
+	 * Reads the samples that are available, without waiting.
+	 * @param samples The array that the samples are read into.
+	 * @param offset The index that the first sample is read into.
+	 * @param length The maximum number of samples to read.
+	 * @return The number of samples read, which may be 0.
+	 */
+
+	public synchronized int poll(short[] samples, int offset, int length) {
+		int total = Math.min(length, size);
+
+		for (int read = 0; read < total;) {
+			int count = Math.min(total - read, buffer.length - readIndex);
+			System.arraycopy(buffer, readIndex, samples, offset + read, count);
+
+			readIndex = (readIndex + count) % buffer.length;
+			read += count;
+		}
+
+		size -= total;
+
+		if (total > 0) {
+			notifyAll();
+		}
+		return total;
+	}
+
+	/**
+	 * Removes every sample from the buffer.
+	 */
+
+	public synchronized void clear() {
+		readIndex = 0;
+		size = 0;
+		generation++;
+		notifyAll();
+	}
+
+	/**
+	 * Gets the number of samples in the buffer.
+	 */
+
+	public synchronized int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of samples the buffer can hold.
+	 */
+
+	public int getCapacity() {
+		return buffer.length;
+	}
+
+}
@@ -0,0 +1,210 @@
+package audio;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.DecoderException;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+
+/**
+ * An Mp3Stream decodes an MP3 file one frame at a time. <br>
+ * Every frame is converted to 16-bit stereo samples at the <br>
+ * game's output rate (44100 Hz), so songs and sounds with <br>
+ * different formats can be played through the same line. <br> <br>
+ *
+ * The samples of the last decoded frame are stored in a buffer <br>
+ * that is reused for every frame.
+ *
+ * @author Elliott Vince
+ */
+
+public class Mp3Stream {
+
+	// The format that every stream is converted to.
+	public static final int SAMPLE_RATE = 44100;
+	public static final int CHANNELS = 2;
+
+	private String path;
+
+	private Bitstream bitstream;
+	private Decoder decoder;
+
+	// The converted samples of the last frame (left, right, left, right...).
+	private short[] samples;
+	private int length;
+
+	// The position of the next output sample, measured in source samples.
+	private double position;
+
+	// The last source sample of the previous frame.
+	private short lastLeft;
+	private short lastRight;
+
+	private boolean finished;
+
+	/**
+	 * Opens the MP3 file at the specified path.
+	 * @param path The file path of the MP3 file.
+	 * @throws IOException If the file cannot be opened.
+	 */
+
+	public Mp3Stream(String path) throws IOException {
+		this(path, new BufferedInputStream(new FileInputStream(path)));
+	}
+
+	/**
+	 * Opens an MP3 stream.
+	 * @param path The file path of the MP3 file. This is only used in messages.
+	 * @param inputStream The MP3 data.
+	 */
+
+	public Mp3Stream(String path, InputStream inputStream) {
+		this.path = path;
+		this.bitstream = new Bitstream(inputStream);
+		this.decoder = new Decoder();
+		this.samples = new short[0];
+	}
+
+	/**
+	 * Decodes the next frame of the stream. <br>
+	 * The samples can be read with getSamples() and getLength().
+	 * @return The number of samples decoded, or -1 if the stream has ended.
+	 */
+
+	public int decodeFrame() {
+		length = 0;
+
+		// Some frames produce no samples once they are resampled.
+		while (length == 0 && !finished) {
+			try {
+				Header header = bitstream.readFrame();
+
+				if (header == null) {
+					finished = true;
+					break;
+				}
+
+				SampleBuffer buffer = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+				bitstream.closeFrame();
+
+				convert(buffer);
+			}
+			catch (BitstreamException | DecoderException e) {
+				System.out.println("Problem decoding file " + path);
+				System.out.println(e);
+				finished = true;
+			}
+		}
+
+		return finished && length == 0 ? -1 : length;
+	}
+
+	/**
+	 * Converts the samples of a decoded frame to the output format.
+	 * @param buffer The decoded frame.
+	 */
+
+	private void convert(SampleBuffer buffer) {
+		short[] source = buffer.getBuffer();
+		int channels = buffer.getChannelCount();
+		int frames = buffer.getBufferLength() / channels;
+		int rate = buffer.getSampleFrequency();
+
+		if (rate == SAMPLE_RATE) {
+			ensureCapacity(frames * CHANNELS);
+
+			// The samples are copied, and mono samples are played on both sides.
+			for (int i = 0; i < frames; i++) {
+				samples[length++] = source[i * channels];
+				samples[length++] = source[i * channels + channels - 1];
+			}
+		}
+		else {
+			double step = (double) rate / SAMPLE_RATE;
+			ensureCapacity(((int) (frames / step) + 2) * CHANNELS);
+
+			/*
+			 * Linear resampling. Positions below zero fall between the
+			 * last sample of the previous frame and the first sample of
+			 * this frame.
+			 */
+
+			while (position < frames - 1) {
+				int index = (int) Math.floor(position);
+				double fraction = position - index;
+
+				short left1 = index < 0 ? lastLeft : source[index * channels];
+				short right1 = index < 0 ? lastRight : source[index * channels + channels - 1];
+				short left2 = source[(index + 1) * channels];
+				short right2 = source[(index + 1) * channels + channels - 1];
+
+				samples[length++] = (short) (left1 + (left2 - left1) * fraction);
+				samples[length++] = (short) (right1 + (right2 - right1) * fraction);
+
+				position += step;
+			}
+
+			position -= frames;
+			lastLeft = source[(frames - 1) * channels];
+			lastRight = source[(frames - 1) * channels + channels - 1];
+		}
+	}
+
+	/**
+	 * Makes sure the sample buffer can hold the specified number of samples.
+	 * @param capacity The number of samples.
+	 */
+
+	private void ensureCapacity(int capacity) {
+		if (samples.length < capacity) {
+			samples = new short[capacity];
+		}
+	}
+
+	/**
+	 * Gets the samples of the last decoded frame. <br>
+	 * Only the first getLength() samples are part of the frame.
+	 */
+
+	public short[] getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Gets the number of samples in the last decoded frame.
+	 */
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Gets the file path of the stream.
+	 */
+
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Closes the stream.
+	 */
+
+	public void close() {
+		finished = true;
+
+		try {
+			bitstream.close();
+		}
+		catch (BitstreamException e) {
+			System.out.println(e);
+		}
+	}
+
+}
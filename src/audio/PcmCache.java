@@ -0,0 +1,407 @@
+package audio;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The PcmCache stores decoded audio on the disk, so each MP3 file <br>
+ * only has to be decoded once. <br> <br>
+ *
+ * The first time a file is needed, it is decoded to raw 16-bit <br>
+ * stereo samples and written to the cache folder, named by the hash <br>
+ * of the MP3 file. After that, the cached file is memory-mapped, so <br>
+ * playing it costs almost nothing. If the MP3 file changes, its hash <br>
+ * changes and it is decoded again. <br> <br>
+ *
+ * Cached files that have not been used for 30 days (such as the <br>
+ * samples of an MP3 file that was changed or renamed) are deleted <br>
+ * after the warm-up, along with any temporary files left behind by <br>
+ * a game that closed while it was writing.
+ *
+ * @author Elliott Vince
+ */
+
+public class PcmCache {
+
+	private static final String CACHE_FOLDER = "cache/audio";
+
+	// The format of the cached files. This changes if the output format changes.
+	private static final String FILE_SUFFIX = "-" + Mp3Stream.SAMPLE_RATE + "hz-s16le-stereo.pcm";
+
+	// The number of bytes in one sample.
+	private static final int SAMPLE_BYTES = 2;
+
+	// Cached files that have not been used for this many days are deleted.
+	private static final int MAX_UNUSED_DAYS = 30;
+
+	// When the cache was first used. Older temporary files belong to a game that has closed.
+	private static final long START_TIME = System.currentTimeMillis();
+
+	// Samples that have been mapped or decoded, stored by their MP3 file path.
+	private static Map<String, ShortBuffer> loaded = new ConcurrentHashMap<String, ShortBuffer>();
+
+	// The hashes of the MP3 files, stored by their file path.
+	private static Map<String, FileHash> hashes = new ConcurrentHashMap<String, FileHash>();
+
+	/**
+	 * PcmCache only has static methods.
+	 */
+
+	private PcmCache() {
+	}
+
+	/**
+	 * Gets the decoded samples of an MP3 file. <br>
+	 * The file is decoded and added to the cache if it is not cached yet.
+	 * @param path The file path of the MP3 file.
+	 * @return The samples (left, right, left, right...), or null if <br>
+	 * the file could not be read.
+	 */
+
+	public static ShortBuffer get(String path) {
+		ShortBuffer samples = loaded.get(path);
+
+		if (samples == null) {
+			samples = load(path, true);
+		}
+		return samples == null ? null : samples.duplicate();
+	}
+
+	/**
+	 * Gets the decoded samples of an MP3 file, only if it is already cached.
+	 * @param path The file path of the MP3 file.
+	 * @return The samples, or null if the file is not cached.
+	 */
+
+	public static ShortBuffer getIfCached(String path) {
+		ShortBuffer samples = loaded.get(path);
+
+		if (samples == null) {
+			samples = load(path, false);
+		}
+		return samples == null ? null : samples.duplicate();
+	}
+
+	/**
+	 * Decodes and caches a list of MP3 files on a background thread. <br>
+	 * The files are cached one after another, and files that are <br>
+	 * already cached are skipped. Stale files are deleted from the <br>
+	 * cache afterwards. The thread has the lowest priority, so decoding <br>
+	 * never takes time away from the game thread or the mixer.
+	 * @param paths The file paths of the MP3 files.
+	 */
+
+	public static void warmUp(List<String> paths) {
+		final List<String> files = new ArrayList<String>(paths);
+
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					for (String path : files) {
+						get(path);
+					}
+					deleteStaleFiles();
+				}
+				catch (RuntimeException e) {
+					System.out.println("Problem warming up the audio cache: " + e);
+				}
+			}
+
+		}, "pcm-cache-warmup");
+
+		// The thread should not keep the game open, or slow it down.
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Loads the samples of an MP3 file from the cache.
+	 * @param path The file path of the MP3 file.
+	 * @param decode Whether the file should be decoded if it is not cached.
+	 */
+
+	private static ShortBuffer load(String path, boolean decode) {
+		String hash;
+
+		try {
+			hash = getHash(path);
+		}
+		catch (IOException e) {
+			System.out.println("Problem loading sound " + path);
+			System.out.println(e);
+			return null;
+		}
+
+		File cacheFile = new File(CACHE_FOLDER, hash + FILE_SUFFIX);
+
+		// The MP3 file is not read again if it is not cached and should not be decoded.
+		if (!decode && !cacheFile.isFile()) {
+			return null;
+		}
+
+		ShortBuffer samples = null;
+		byte[] data = null;
+
+		try {
+			if (!cacheFile.isFile()) {
+				data = Files.readAllBytes(new File(path).toPath());
+				write(path, data, cacheFile);
+			}
+
+			if (cacheFile.isFile()) {
+				samples = map(cacheFile);
+			}
+		}
+		catch (IOException e) {
+			System.out.println("Problem caching sound " + path);
+			System.out.println(e);
+		}
+
+		// The file is decoded into memory if it could not be cached.
+		if (samples == null && decode) {
+			try {
+				if (data == null) {
+					data = Files.readAllBytes(new File(path).toPath());
+				}
+				samples = ShortBuffer.wrap(decode(path, data));
+			}
+			catch (IOException e) {
+				System.out.println("Problem loading sound " + path);
+				System.out.println(e);
+				return null;
+			}
+		}
+
+		if (samples != null) {
+			loaded.put(path, samples);
+		}
+		return samples;
+	}
+
+	/**
+	 * Gets the hash of an MP3 file. The hash is remembered, and is <br>
+	 * only computed again if the file's size or date changes.
+	 * @param path The file path of the MP3 file.
+	 */
+
+	private static String getHash(String path) throws IOException {
+		File file = new File(path);
+		long length = file.length();
+		long modified = file.lastModified();
+
+		FileHash known = hashes.get(path);
+		if (known != null && known.length == length && known.modified == modified) {
+			return known.hash;
+		}
+
+		String hash = hash(Files.readAllBytes(file.toPath()));
+		hashes.put(path, new FileHash(length, modified, hash));
+		return hash;
+	}
+
+	/**
+	 * Deletes the cached files that have not been used for <br>
+	 * MAX_UNUSED_DAYS days, and the temporary files of games that <br>
+	 * closed while they were writing.
+	 */
+
+	private static void deleteStaleFiles() {
+		File[] files = new File(CACHE_FOLDER).listFiles();
+
+		if (files == null) {
+			return;
+		}
+
+		long unusedSince = START_TIME - MAX_UNUSED_DAYS * 24L * 60 * 60 * 1000;
+
+		for (File file : files) {
+			String name = file.getName();
+			boolean stale = name.endsWith(".tmp") && file.lastModified() < START_TIME
+					|| name.endsWith(FILE_SUFFIX) && file.lastModified() < unusedSince;
+
+			if (stale && !file.delete()) {
+				System.out.println("Problem deleting " + file);
+			}
+		}
+	}
+
+	/**
+	 * Memory-maps a cached file.
+	 * @param cacheFile The cached file.
+	 */
+
+	private static ShortBuffer map(File cacheFile) throws IOException {
+		// The date of the file is when it was last used, so files that are still used are kept.
+		cacheFile.setLastModified(System.currentTimeMillis());
+
+		try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return bytes.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+		}
+	}
+
+	/**
+	 * Decodes an MP3 file and writes its samples to the cache. <br>
+	 * The samples are written to a temporary file first, so a cached <br>
+	 * file is never left half-written.
+	 * @param path The file path of the MP3 file.
+	 * @param data The contents of the MP3 file.
+	 * @param cacheFile The cached file.
+	 */
+
+	private static void write(String path, byte[] data, File cacheFile) throws IOException {
+		File folder = cacheFile.getParentFile();
+		folder.mkdirs();
+
+		File tempFile = File.createTempFile("pcm", ".tmp", folder);
+
+		try {
+			writeSamples(path, data, tempFile);
+
+			try {
+				Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException e) {
+				// Another thread may have cached the same file first.
+				if (!cacheFile.isFile()) {
+					throw e;
+				}
+			}
+		}
+		finally {
+			// The temporary file is removed if the samples could not be cached.
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	/**
+	 * Decodes an MP3 file and writes its samples to a file.
+	 * @param path The file path of the MP3 file.
+	 * @param data The contents of the MP3 file.
+	 * @param file The file that the samples are written to.
+	 */
+
+	private static void writeSamples(String path, byte[] data, File file) throws IOException {
+		Mp3Stream stream = new Mp3Stream(path, new ByteArrayInputStream(data));
+
+		try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+			byte[] bytes = new byte[0];
+			int count;
+
+			while ((count = stream.decodeFrame()) >= 0) {
+				if (bytes.length < count * SAMPLE_BYTES) {
+					bytes = new byte[count * SAMPLE_BYTES];
+				}
+
+				// Converts the samples to little-endian bytes.
+				short[] samples = stream.getSamples();
+				for (int i = 0; i < count; i++) {
+					bytes[i * 2] = (byte) samples[i];
+					bytes[i * 2 + 1] = (byte) (samples[i] >> 8);
+				}
+
+				output.write(bytes, 0, count * SAMPLE_BYTES);
+			}
+		}
+		finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Decodes a whole MP3 file into memory.
+	 * @param path The file path of the MP3 file.
+	 * @param data The contents of the MP3 file.
+	 */
+
+	private static short[] decode(String path, byte[] data) {
+		Mp3Stream stream = new Mp3Stream(path, new ByteArrayInputStream(data));
+		short[] decoded = new short[Mp3Stream.SAMPLE_RATE * Mp3Stream.CHANNELS];
+		int length = 0;
+		int count;
+
+		while ((count = stream.decodeFrame()) >= 0) {
+			if (decoded.length < length + count) {
+				short[] larger = new short[Math.max(decoded.length * 2, length + count)];
+				System.arraycopy(decoded, 0, larger, 0, length);
+				decoded = larger;
+			}
+
+			System.arraycopy(stream.getSamples(), 0, decoded, length, count);
+			length += count;
+		}
+
+		stream.close();
+
+		short[] samples = new short[length];
+		System.arraycopy(decoded, 0, samples, 0, length);
+		return samples;
+	}
+
+	/**
+	 * Gets the SHA-256 hash of a file's contents.
+	 * @param data The contents of the file.
+	 */
+
+	private static String hash(byte[] data) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+			StringBuilder builder = new StringBuilder();
+
+			for (byte b : digest) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * The hash of an MP3 file, and the size and date of the file <br>
+	 * when it was hashed.
+	 */
+
+	private static class FileHash {
+
+		private long length;
+		private long modified;
+		private String hash;
+
+		/**
+		 * Creates a FileHash.
+		 * @param length The size of the file.
+		 * @param modified The date of the file.
+		 * @param hash The hash of the file's contents.
+		 */
+
+		private FileHash(long length, long modified, String hash) {
+			this.length = length;
+			this.modified = modified;
+			this.hash = hash;
+		}
+	}
+
+}
@@ -1,5 +1,9 @@
 package audio;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A simple enum of songs and their file paths.
  * @author Elliott Vince
@@ -9,14 +13,11 @@ public enum Song {
 	
 	TRACK_1("Conquerors.mp3"),
 	TRACK_2("EpicOrchestralFantasy.mp3"),
-	TRACK_3("ForTheKing.mp3"),
-	TRACK_4("LandOfFearless.mp3"),
-	TRACK_5("NewSunrise.mp3"),
-	TRACK_6("NoMoreMagic.mp3"),
-	TRACK_7("oga_blaze.mp3"),
-	TRACK_8("RegularBattle.mp3"),
-	TRACK_9("SpiritOfValley.mp3"),
-	TRACK_10("BossBattleMetal.mp3");
+	TRACK_3("LandOfFearless.mp3"),
+	TRACK_4("NewSunrise.mp3"),
+	TRACK_5("RegularBattle.mp3"),
+	TRACK_6("TheTreadOfWar.mp3"),
+	TRACK_7("BossBattleMetal.mp3");
 	
 	private String path;
 	
@@ -39,4 +40,33 @@ public enum Song {
 	public String getPath() {
 		return path;
 	}
+	
+	/**
+	 * Determines whether the song's file exists.
+	 */
+	
+	public boolean exists() {
+		return new File(path).isFile();
+	}
+	
+	/**
+	 * Checks that the file of every song exists. <br>
+	 * Any missing songs are reported and left out of the returned list, <br>
+	 * so the soundtrack never tries to load them.
+	 * @return The songs whose files exist.
+	 */
+	
+	public static List<Song> validate() {
+		List<Song> songs = new ArrayList<Song>();
+		
+		for (Song song : values()) {
+			if (song.exists()) {
+				songs.add(song);
+			}
+			else {
+				System.out.println("Missing soundtrack file " + song.getPath());
+			}
+		}
+		return songs;
+	}
 }
@@ -0,0 +1,72 @@
+package audio;
+
+/**
+ * A simple enum of sound effects and their settings. <br>
+ * Each sound has a category, a maximum number of copies that <br>
+ * can play at once, and a window in which repeated triggers <br>
+ * of the sound are combined into one.
+ * @author Elliott Vince
+ */
+
+public enum Sound {
+	
+	SWORD_ATTACK("sfx/sword-attack.mp3", SoundCategory.SFX, 4, 60),
+	SHOOT_ARROW("sfx/shoot-arrow.mp3", SoundCategory.SFX, 6, 40),
+	ARROW_HIT("sfx/arrow-hit.mp3", SoundCategory.SFX, 6, 40),
+	GAME_OVER("music/gameover.mp3", SoundCategory.SFX, 1, 0);
+	
+	private String path;
+	private SoundCategory category;
+	private int maxVoices;
+	private int coalesceMillis;
+	
+	/**
+	 * A simple sound object. <br>
+	 * <b>Note:</b> The sound must be located in the resources/audio folder.
+	 * 
+	 * @param path The sound's path, relative to the audio folder.
+	 * @param category The category of the sound.
+	 * @param maxVoices The number of copies of the sound that can play at once.
+	 * @param coalesceMillis Triggers of the sound within this many <br>
+	 * milliseconds of each other are played as one.
+	 */
+	
+	private Sound(String path, SoundCategory category, int maxVoices, int coalesceMillis) {
+		this.path = "resources/audio/" + path;
+		this.category = category;
+		this.maxVoices = maxVoices;
+		this.coalesceMillis = coalesceMillis;
+	}
+	
+	/**
+	 * Gets the path of the sound.
+	 */
+	
+	public String getPath() {
+		return path;
+	}
+	
+	/**
+	 * Gets the category of the sound.
+	 */
+	
+	public SoundCategory getCategory() {
+		return category;
+	}
+	
+	/**
+	 * Gets the number of copies of the sound that can play at once.
+	 */
+	
+	public int getMaxVoices() {
+		return maxVoices;
+	}
+	
+	/**
+	 * Gets the window in which repeated triggers are played as one.
+	 */
+	
+	public int getCoalesceMillis() {
+		return coalesceMillis;
+	}
+}
@@ -0,0 +1,33 @@
+package audio;
+
+/**
+ * The categories of sounds in the game. <br>
+ * Each category has its own volume in the game's settings.
+ * @author Elliott Vince
+ */
+
+public enum SoundCategory {
+	
+	MUSIC("musicvolume"),
+	SFX("sfxvolume"),
+	UI("uivolume");
+	
+	private String settingsKey;
+	
+	/**
+	 * A sound category.
+	 * @param settingsKey The name of the category's volume in the settings file.
+	 */
+	
+	private SoundCategory(String settingsKey) {
+		this.settingsKey = settingsKey;
+	}
+	
+	/**
+	 * Gets the name of the category's volume in the settings file.
+	 */
+	
+	public String getSettingsKey() {
+		return settingsKey;
+	}
+}
@@ -14,14 +14,21 @@ import java.util.List;
 
 public class Soundtrack {
 	
+	// The songs whose files exist.
+	private List<Song> songs;
+	
 	private List<Song> queue;
 	private int remainingSongs;
 	
 	/**
-	 * Creates a new soundtrack object.
+	 * Creates a new soundtrack object. <br>
+	 * Songs whose files are missing are left out of the soundtrack.
 	 */
 	
 	public Soundtrack() {
+		// Checks that every song exists.
+		songs = Song.validate();
+		
 		// Initializes the queue of songs.
 		queue = new ArrayList<Song>();
 		// Resets the soundtrack.
@@ -35,23 +42,47 @@ public class Soundtrack {
 	
 	public void reset() {
 		// Adds each song to the queue.
-		for (int index = 0; index < Song.values().length; index++) {
-			queue.add(Song.values()[index]);
-		}
+		queue.clear();
+		queue.addAll(songs);
 
 		// Shuffles the queue.
 		remainingSongs = queue.size();
 		shuffle();
 	}
 	
+	/**
+	 * Gets every song in the soundtrack.
+	 */
+	
+	public List<Song> getSongs() {
+		return songs;
+	}
+	
 	/**
 	 * Gets the current song.
+	 * @return The current song, or null if the soundtrack has no songs.
 	 */
 	
 	public Song getCurrentSong() {
+		if (queue.isEmpty()) {
+			return null;
+		}
 		return queue.get(0);
 	}
 	
+	/**
+	 * Gets the song after the current song, without moving to it. <br>
+	 * This is used to load the next song before the current song ends.
+	 * @return The next song, or null if the queue will be reset first.
+	 */
+	
+	public Song getNextSong() {
+		if (!hasNextSong()) {
+			return null;
+		}
+		return queue.get(1);
+	}
+	
 	/**
 	 * Shuffles the queue.
 	 */
@@ -1,139 +1,570 @@
 package audio;
 
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
-import javazoom.jl.player.advanced.*;
+import profiling.SongEvent;
 
 /**
- * This class is used to open and play MP3 files.
- * A few modifications were made to the original class
- * (made by Casey Devet) so it could be implemented into
- * a soundtrack and queue system.
- * 
+ * The SoundtrackPlayer plays the songs of the soundtrack one after <br>
+ * another, without any gaps between them. <br> <br>
+ *
+ * Songs are streamed by a decoder thread that lasts for the whole <br>
+ * game. It decodes the current song into a ring buffer, which the <br>
+ * AudioMixer plays along with the game's sound effects. <br>
+ * While the buffer is full, the decoder loads the start of the next <br>
+ * song, so the change between songs never waits on the disk. The end <br>
+ * of each song is held back and crossfaded into the next song. <br> <br>
+ *
+ * Songs are decoded into the PcmCache in the background. Once a song <br>
+ * is cached, it is read from the cache instead of being decoded.
+ *
  * @author Elliott Vince (original file: Casey Devet
  * (casey.devet@sccdsb.net))
  */
 public class SoundtrackPlayer
 {
-	
+
+	// The default length of the crossfade between songs.
+	private static final int DEFAULT_CROSSFADE_MILLIS = 2000;
+
+	// The amount of decoded music that is kept ahead of playback.
+	private static final int BUFFER_MILLIS = 2000;
+
+	// The amount of the next song that is decoded before it starts.
+	private static final int PREFETCH_MILLIS = 3000;
+
+	// The number of samples read from a cached song at once.
+	private static final int CACHE_CHUNK_SIZE = 4608;
+
 	private Soundtrack soundtrack;
-	
+
 	private Song currentSong;
-	
-	private String filename;
-	
-	private AdvancedPlayer player;
 
-	private boolean openFlag = false;
-	private boolean playing = false;
+	// The decoded samples waiting to be played.
+	private AudioRingBuffer buffer;
+
+	private Thread decoderThread;
+
+	private volatile boolean playing = false;
+
+	// Increases each time the soundtrack is stopped.
+	private volatile int generation;
+
+	// The number of samples that are crossfaded between songs.
+	private volatile int crossfadeSamples;
+
+	// The next song, with its start already decoded.
+	private Track nextTrack;
+
+	/*
+	 * The end of the current song, which is held back so it can be
+	 * crossfaded. It is stored as a circular buffer.
+	 */
+
+	private short[] tail;
+	private int tailStart;
+	private int tailLength;
+
+	// Stores samples before they are written to the ring buffer.
+	private short[] staging;
 
 	/**
 	 * Creates a soundtrack player.
 	 * @param soundtrack An instance of the soundtrack class.
+	 * @param mixer The mixer that plays the music.
 	 */
-	public SoundtrackPlayer (Soundtrack soundtrack)
+	public SoundtrackPlayer (Soundtrack soundtrack, AudioMixer mixer)
 	{
 		this.soundtrack = soundtrack;
 		soundtrack.shuffle();
+
+		this.buffer = new AudioRingBuffer(toSamples(BUFFER_MILLIS));
+		this.staging = new short[0];
+		setCrossfade(DEFAULT_CROSSFADE_MILLIS);
+
+		mixer.setMusic(buffer);
+
+		// Caches every song so they do not have to be decoded while playing.
+		List<String> paths = new ArrayList<String>();
+		for (Song song : soundtrack.getSongs()) {
+			paths.add(song.getPath());
+		}
+		PcmCache.warmUp(paths);
 	}
-	
+
 	/**
-	 * Loads and plays the next song in the soundtrack.
+	 * Plays the current song in the soundtrack, and then every song <br>
+	 * after it. This does nothing if the soundtrack is already playing.
 	 */
-	
-	public void playNextSong() {
-		currentSong = soundtrack.getCurrentSong();
-		
-		// Loads the song at the current position.
-		load(currentSong.getPath());
-		player.setPlayBackListener(new FinishedHandler());
-		play();
-		
+
+	public synchronized void playNextSong() {
+		if (playing) {
+			return;
+		}
+
+		playing = true;
+		startThread();
+
+		// Wakes up the decoder thread.
+		notifyAll();
 	}
 
 	/**
-	 * Loads an audio file.
-	 * @param filename The audio file to be loaded.
+	 * Stops the playback. The current song starts again from the <br>
+	 * beginning the next time playNextSong() is called.
 	 */
-	
-	public void load(String filename)
+	public synchronized void stop ()
 	{
-		this.filename = filename;
-		
-		try {
-			FileInputStream fis = new FileInputStream(filename);
-			BufferedInputStream bis = new BufferedInputStream(fis);
-			player = new AdvancedPlayer(bis);
-		}
-		catch (Exception e) {
-			System.out.println("Problem loading file " + filename);
-			System.out.println(e);
-		}
-		openFlag = true;
+		playing = false;
+		generation++;
+
+		// Removes the music that has not been played yet.
+		buffer.clear();
 	}
 
 	/**
-	 * Plays the MP3 file to the sound card.  If the file is not open, this method
-	 * will open it first.
+	 * Returns the state of the playback.
+	 * @return true if the audio is playing and false otherwise.
 	 */
-	public void play()
+	public boolean isPlaying ()
 	{
-		if (!openFlag)
-		{
-			load(filename);
+		return playing;
+	}
+
+	/**
+	 * Gets the song that is currently playing.
+	 */
+
+	public Song getCurrentSong() {
+		return currentSong;
+	}
+
+	/**
+	 * Sets the length of the crossfade between songs. <br>
+	 * A length of 0 plays the songs back to back. <br>
+	 * The new length is used the next time the soundtrack starts.
+	 * @param millis The length of the crossfade, in milliseconds.
+	 */
+
+	public void setCrossfade(int millis) {
+		crossfadeSamples = toSamples(Math.max(millis, 0));
+	}
+
+	/**
+	 * Starts the decoder thread if it has not started.
+	 */
+
+	private void startThread() {
+		if (decoderThread != null) {
+			return;
 		}
-		// run in new thread to play in background
-		new Thread() {
+
+		decoderThread = new Thread(new Runnable() {
+
+			@Override
 			public void run() {
-				try { player.play(); }
-				catch (Exception e) { System.out.println(e); }
+				decode();
 			}
-		}.start();
-		playing = true;
+
+		}, "soundtrack-decoder");
+
+		// The thread should not keep the game open.
+		decoderThread.setDaemon(true);
+		decoderThread.start();
 	}
 
 	/**
-	 * Stops the playback.  The MP3 file is closed and must be opened to be
-	 * played again.  Note that this does not pause the sound file, but stops it.
+	 * The loop of the decoder thread. It waits until the soundtrack <br>
+	 * is played, and then decodes songs until it is stopped.
 	 */
-	public void stop ()
-	{
-		if (player != null)
-		{
-			player.close();
-			openFlag = false;
+
+	private void decode() {
+		try {
+			while (true) {
+				int playGeneration = waitForPlay();
+				playSoundtrack(playGeneration);
+
+				synchronized (this) {
+					// Removes anything written after the soundtrack was stopped.
+					if (generation != playGeneration) {
+						buffer.clear();
+					}
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			// The thread ends.
 		}
-		playing = false;
 	}
 
 	/**
-	 * Returns the state of the playback.
-	 * @return true if the audio is playing and false otherwise.
+	 * Waits until the soundtrack should play.
+	 * @return The generation of the playback.
 	 */
-	public boolean isPlaying ()
-	{
-		return playing;
+
+	private synchronized int waitForPlay() throws InterruptedException {
+		while (!playing) {
+			wait();
+		}
+		return generation;
 	}
 
-	private class FinishedHandler extends PlaybackListener
-	{
-		public void playbackFinished (PlaybackEvent evt)
-		{
-			
-			player.close();
+	/**
+	 * Decodes songs into the ring buffer until the soundtrack is stopped.
+	 * @param playGeneration The generation of the playback.
+	 */
+
+	private void playSoundtrack(int playGeneration) throws InterruptedException {
+		tail = new short[crossfadeSamples];
+		tailStart = 0;
+		tailLength = 0;
+
+		Track track = openTrack(soundtrack.getCurrentSong());
+		boolean prefetched = false;
+
+		while (track != null && generation == playGeneration) {
+			currentSong = track.song;
+
+			if (track.read()) {
+				if (!writeThroughTail(track.samples, track.offset, track.length)) {
+					break;
+				}
+
+				// Loads the start of the next song once the buffer is full enough.
+				if (!prefetched && buffer.getSize() > buffer.getCapacity() / 2) {
+					prefetched = true;
+					prefetchNextSong();
+				}
+				continue;
+			}
+
+			// The song has ended, so the soundtrack moves to the next song.
+			track.close();
 
-			// Plays the next song if the queue size is greater than 0.
 			if (soundtrack.hasNextSong()) {
 				soundtrack.nextSong();
-				playNextSong();
 			}
 			else {
 				// The queue has no remaining songs. Therefore, it is reset.
 				soundtrack.reset();
-				playNextSong();
 			}
-			playing = false;
+
+			Song song = soundtrack.getCurrentSong();
+
+			if (nextTrack != null && nextTrack.song == song) {
+				track = nextTrack;
+			}
+			else {
+				closeNextTrack();
+				track = openTrack(song);
+			}
+
+			nextTrack = null;
+			prefetched = false;
+
+			if (track != null && !crossfade(track)) {
+				break;
+			}
+		}
+
+		if (track != null) {
+			track.close();
+		}
+		closeNextTrack();
+
+		// The soundtrack stops if a song could not be played.
+		if (track == null) {
+			synchronized (this) {
+				if (generation == playGeneration) {
+					playing = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Opens and decodes the start of the next song in the queue.
+	 */
+
+	private void prefetchNextSong() {
+		Song song = soundtrack.getNextSong();
+
+		if (song != null) {
+			nextTrack = openTrack(song);
+
+			if (nextTrack != null) {
+				nextTrack.prefetch(Math.max(toSamples(PREFETCH_MILLIS), tail.length));
+			}
+		}
+	}
+
+	/**
+	 * Closes the prefetched song, if there is one.
+	 */
+
+	private void closeNextTrack() {
+		if (nextTrack != null) {
+			nextTrack.close();
+			nextTrack = null;
+		}
+	}
+
+	/**
+	 * Opens a song.
+	 * @param song The song to be opened.
+	 * @return The opened song, or null if it could not be opened.
+	 */
+
+	private Track openTrack(Song song) {
+		if (song == null) {
+			System.out.println("The soundtrack has no songs.");
+			return null;
+		}
+
+		SongEvent event = new SongEvent();
+		event.begin();
+
+		try {
+			Track track = new Track(song);
+			event.end();
+
+			if (event.shouldCommit()) {
+				event.path = song.getPath();
+				event.cached = track.cached != null;
+				event.commit();
+			}
+			return track;
+		}
+		catch (IOException e) {
+			System.out.println("Problem loading file " + song.getPath());
+			System.out.println(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes samples to the ring buffer. The most recent samples are <br>
+	 * held back in the tail, so that they can be crossfaded if the song ends.
+	 * @param samples The samples to be written.
+	 * @param offset The index of the first sample.
+	 * @param length The number of samples.
+	 * @return False if the soundtrack was stopped while writing.
+	 */
+
+	private boolean writeThroughTail(short[] samples, int offset, int length)
+			throws InterruptedException {
+		if (tail.length == 0) {
+			return buffer.write(samples, offset, length);
+		}
+
+		if (staging.length < length) {
+			staging = new short[length];
+		}
+
+		int count = 0;
+
+		for (int i = offset; i < offset + length; i++) {
+			if (tailLength == tail.length) {
+				// The oldest sample in the tail is written, and replaced.
+				staging[count++] = tail[tailStart];
+				tail[tailStart] = samples[i];
+				tailStart = (tailStart + 1) % tail.length;
+			}
+			else {
+				tail[(tailStart + tailLength) % tail.length] = samples[i];
+				tailLength++;
+			}
+		}
+
+		return count == 0 || buffer.write(staging, 0, count);
+	}
+
+	/**
+	 * Fades the end of the last song out while the start of the next <br>
+	 * song fades in, and writes the result to the ring buffer.
+	 * @param track The next song.
+	 * @return False if the soundtrack was stopped while writing.
+	 */
+
+	private boolean crossfade(Track track) throws InterruptedException {
+		int length = tailLength;
+
+		if (length == 0) {
+			return true;
+		}
+
+		track.prefetch(length);
+
+		if (staging.length < length) {
+			staging = new short[length];
+		}
+
+		int frames = length / Mp3Stream.CHANNELS;
+
+		for (int i = 0; i < length; i++) {
+			// The volume of the next song, from 0 to 1.
+			double volume = (i / Mp3Stream.CHANNELS + 0.5) / frames;
+
+			short last = tail[(tailStart + i) % tail.length];
+			short next = i < track.headLength ? track.head[i] : 0;
+
+			int mixed = (int) (last * (1 - volume) + next * volume);
+			staging[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixed));
+		}
+
+		// The mixed samples of the next song are not played again.
+		track.headPosition = Math.min(length, track.headLength);
+
+		tailStart = 0;
+		tailLength = 0;
+
+		return buffer.write(staging, 0, length);
+	}
+
+	/**
+	 * Converts a length of time to a number of samples.
+	 * @param millis The length of time, in milliseconds.
+	 */
+
+	private static int toSamples(int millis) {
+		return (int) ((long) Mp3Stream.SAMPLE_RATE * millis / 1000) * Mp3Stream.CHANNELS;
+	}
+
+	/**
+	 * A song that is being played. The start of the song can be <br>
+	 * decoded early, before the song begins to play. Songs that are <br>
+	 * in the PcmCache are read from it instead of being decoded.
+	 */
+
+	private class Track
+	{
+		private Song song;
+
+		// The song's source. Only one of these is used.
+		private ShortBuffer cached;
+		private Mp3Stream stream;
+
+		// Holds samples read from the cache.
+		private short[] chunk;
+
+		// The decoded start of the song.
+		private short[] head;
+		private int headLength;
+		private int headPosition;
+
+		// The samples returned by the last call to read().
+		private short[] samples;
+		private int offset;
+		private int length;
+
+		/**
+		 * Opens a song.
+		 * @param song The song to be opened.
+		 */
+
+		private Track(Song song) throws IOException
+		{
+			this.song = song;
+			this.cached = PcmCache.getIfCached(song.getPath());
+
+			if (cached != null) {
+				chunk = new short[CACHE_CHUNK_SIZE];
+			}
+			else {
+				stream = new Mp3Stream(song.getPath());
+			}
+
+			this.head = new short[0];
+		}
+
+		/**
+		 * Reads the next samples from the song's source into the samples field.
+		 * @return The number of samples, or -1 if the song has ended.
+		 */
+
+		private int next()
+		{
+			if (cached != null) {
+				int count = Math.min(chunk.length, cached.remaining());
+
+				if (count == 0) {
+					return -1;
+				}
+
+				cached.get(chunk, 0, count);
+				samples = chunk;
+				return count;
+			}
+
+			int decoded = stream.decodeFrame();
+			samples = stream.getSamples();
+			return decoded;
+		}
+
+		/**
+		 * Decodes the start of the song.
+		 * @param count The number of samples to decode.
+		 */
+
+		private void prefetch(int count)
+		{
+			while (headLength < count) {
+				int decoded = next();
+
+				if (decoded < 0) {
+					break;
+				}
+
+				if (head.length < headLength + decoded) {
+					short[] larger = new short[Math.max(count, headLength + decoded)];
+					System.arraycopy(head, 0, larger, 0, headLength);
+					head = larger;
+				}
+
+				System.arraycopy(samples, 0, head, headLength, decoded);
+				headLength += decoded;
+			}
+		}
+
+		/**
+		 * Reads the next samples of the song.
+		 * @return False if the song has ended.
+		 */
+
+		private boolean read()
+		{
+			// The decoded start of the song is played first.
+			if (headPosition < headLength) {
+				samples = head;
+				offset = headPosition;
+				length = headLength - headPosition;
+				headPosition = headLength;
+				return true;
+			}
+
+			int decoded = next();
+
+			if (decoded < 0) {
+				return false;
+			}
+
+			offset = 0;
+			length = decoded;
+			return true;
+		}
+
+		/**
+		 * Closes the song.
+		 */
+
+		private void close()
+		{
+			if (stream != null) {
+				stream.close();
+			}
 		}
 	}
 }
@@ -6,18 +6,31 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.event.KeyEvent;
 import java.awt.image.BufferStrategy;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 
+import audio.AudioMixer;
 import audio.Soundtrack;
 import audio.SoundtrackPlayer;
 import gamestates.GameState;
+import gamestates.LoadingState;
 import gamestates.MainMenuState;
+import gamestates.PlayState;
+import gamestates.StateManager;
 import input.Input;
+import profiling.AllocationTracker;
+import profiling.FrameEvent;
+import profiling.FrameMonitor;
+import profiling.TelemetryRecorder;
+import profiling.TickEvent;
+import replay.Replay;
 import util.Methods;
 
 /**
@@ -41,14 +54,20 @@ public class Game implements Runnable {
 
 	// Game Loop Variables
 	private boolean running;
-	private static final double UPDATES_PER_SECOND = 1.0 / 60.0;
+	public static final int TICKS_PER_SECOND = 60;
+	private static final double UPDATES_PER_SECOND = 1.0 / TICKS_PER_SECOND;
 	private int fps;
 	
+	// The FPS text, which is only created again when the FPS changes.
+	private static final Font FPS_FONT = new Font("Arial", Font.PLAIN, 16);
+	private String fpsText;
+	private int fpsTextValue = -1;
+	
 	// Input
 	private Input input;
 	
-	// The current state of the game.
-	private GameState currentState;
+	// The stack of game states.
+	private StateManager stateManager;
 	
 	// A List of Icons.
 	private List<Image> icons;
@@ -59,15 +78,25 @@ public class Game implements Runnable {
 	private Image icon_48x48;
 	private Image icon_64x64;
 	
-	// Leaderboard
-	private Leaderboard leaderboard;
+	
+	// Score Log
+	private ScoreLog scoreLog;
+	
+	// Online Leaderboard
+	private OnlineLeaderboard onlineLeaderboard;
 	
 	// Soundtraack
 	private SoundtrackPlayer soundtrackPlayer;
 	
+	// Audio Mixer
+	private AudioMixer audioMixer;
+	
 	// Settings
 	private Settings settings;
 	
+	// Performance telemetry, which is only recorded if it is turned on.
+	private TelemetryRecorder telemetry;
+	
 	/**
 	 * Creates a new game. To launch the game, call the {@link #run}
 	 * method.
@@ -99,9 +128,43 @@ public class Game implements Runnable {
 		canvas.setFocusable(true);
 		canvas.requestFocus();
 		
+		StartupProfiler.mark("Window created");
+		
 		init();
 		
 		frame.setIconImages(icons);
+		StartupProfiler.mark("Window icons set");
+	}
+	
+	/**
+	 * Creates a game without a window. The game does not run its own <br>
+	 * loop, and it does not play music. This is used by the benchmarks, <br>
+	 * which call update() directly.
+	 * @param canvas The canvas which receives the input listeners.
+	 */
+	
+	private Game(Canvas canvas) {
+		this.canvas = canvas;
+		canvas.setSize(new Dimension(WIDTH, HEIGHT));
+		
+		init();
+	}
+	
+	/**
+	 * Creates a game without a window. It can be used when <br>
+	 * java.awt.headless is true.
+	 */
+	
+	public static Game createHeadless() {
+		return new Game(new Canvas());
+	}
+	
+	/**
+	 * Determines if the game has no window.
+	 */
+	
+	public boolean isHeadless() {
+		return frame == null;
 	}
 	
 	/**
@@ -128,8 +191,11 @@ public class Game implements Runnable {
 		icons.add(icon_48x48);
 		icons.add(icon_64x64);
 		
-		// Initializes the leaderboard
-		leaderboard = new Leaderboard();
+		StartupProfiler.mark("Icons loaded and scaled");
+		
+		// Loads the history of every run.
+		scoreLog = new ScoreLog();
+		StartupProfiler.mark("Score log loaded");
 		
 		running = true;
 		
@@ -140,22 +206,86 @@ public class Game implements Runnable {
 		
 		// Loads the game's settings.
 		settings = new Settings(this);
+		StartupProfiler.mark("Settings loaded");
+		
+		// Connects to the online leaderboard, if one is set.
+		onlineLeaderboard = new OnlineLeaderboard(settings.getLeaderboardUrl());
+		
+		// Records the session's performance if telemetry is turned on.
+		telemetry = new TelemetryRecorder(this);
+		telemetry.setRecording(settings.get(Settings.TELEMETRY));
+		
+		settings.addListener(new SettingListener() {
+			
+			@Override
+			public void settingChanged(Setting<?> setting) {
+				if (setting == Settings.TELEMETRY) {
+					telemetry.setRecording(settings.get(Settings.TELEMETRY));
+				}
+			}
+			
+		});
+		
+		// Initializes the audio mixer, which plays every sound.
+		audioMixer = new AudioMixer(this);
+		StartupProfiler.mark("Audio mixer started");
 		
 		// Initializes the soundtrack player.
 		
-		soundtrackPlayer = new SoundtrackPlayer(new Soundtrack());
-		if (settings.isMusicEnabled()) {
+		soundtrackPlayer = new SoundtrackPlayer(new Soundtrack(), audioMixer);
+		if (settings.isMusicEnabled() && !isHeadless()) {
 			
 			// Creates and starts the soundtrack
 			soundtrackPlayer.playNextSong();
 		}
 		
+		StartupProfiler.mark("Soundtrack started");
 		
-		// Sets the current state to the main menu.
-		currentState = new MainMenuState(this, input);
-		input.setGameState(currentState);
+		/*
+		 * Sets the current state to the loading screen. The main menu
+		 * opens once every asset has been loaded, unless a replay was
+		 * set with -Deternalcombat.replay=<file>.
+		 */
 		
+		stateManager = new StateManager(this, input);
+		stateManager.set(new LoadingState(new Runnable() {
+			
+			@Override
+			public void run() {
+				String path = System.getProperty("eternalcombat.replay");
+				
+				if (path != null) {
+					try {
+						stateManager.startReplay(Replay.read(new File(path)));
+						return;
+					}
+					catch (IOException e) {
+						System.out.println("Problem reading the replay " + path + ": " + e.getMessage());
+					}
+				}
+				
+				stateManager.openMainMenu();
+			}
+			
+		}));
 		
+		StartupProfiler.mark("Loading screen opened");
+		
+		/*
+		 * Saves the replay and any settings that are waiting when the
+		 * game closes. There is one hook for the whole game, so a game
+		 * created by a benchmark only adds one.
+		 */
+		
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				stateManager.finishRecording();
+				settings.flush();
+			}
+			
+		}));
 	}
 	
 	/**
@@ -164,8 +294,44 @@ public class Game implements Runnable {
 	 */
 	
 	public void update() {
-		currentState.update();
+		TickEvent event = null;
+		if (TickEvent.isRecorded()) {
+			event = new TickEvent();
+			event.begin();
+		}
+		long allocations = AllocationTracker.begin();
+		
+		// Shows or hides the allocation overlay.
+		if (input.isKeyDown(KeyEvent.VK_F3)) {
+			AllocationTracker.setEnabled(!AllocationTracker.isEnabled());
+		}
+		
+		// Shows or hides the frame timeline.
+		if (input.isKeyDown(KeyEvent.VK_F4)) {
+			FrameMonitor.setEnabled(!FrameMonitor.isEnabled());
+		}
+		
+		stateManager.update();
 		input.update();
+		
+		AllocationTracker.endTick(allocations);
+		
+		if (event != null) {
+			event.end();
+		}
+		
+		// The details are only filled in if the event is being recorded.
+		if (event != null && event.shouldCommit()) {
+			GameState state = stateManager.getCurrentState();
+			event.state = getStateName(state);
+			
+			if (state instanceof PlayState) {
+				PlayState playState = (PlayState) state;
+				event.gameObjects = playState.getGameObjects().size();
+				event.level = playState.getLevelManager().getCurrentLevel();
+			}
+			event.commit();
+		}
 	}
 	
 	/**
@@ -219,13 +385,23 @@ public class Game implements Runnable {
 					frames = 0;
 				}
 				// Updates the game.
+				long updateStart = System.nanoTime();
 				update();
+				
+				long updateTime = System.nanoTime() - updateStart;
+				FrameMonitor.updated(updateTime);
+				telemetry.tickFinished(updateTime);
 			}
 
 			if (render) {
 				// Renders the game.
 				frames++;
+				long renderStart = System.nanoTime();
 				render();
+				
+				long renderTime = System.nanoTime() - renderStart;
+				FrameMonitor.frameShown(renderTime);
+				telemetry.frameFinished(renderTime);
 			}
 			else {
 
@@ -251,9 +427,14 @@ public class Game implements Runnable {
 	 */
 	
 	private void drawFPS(Graphics2D graphics) {
+		if (fps != fpsTextValue) {
+			fpsTextValue = fps;
+			fpsText = "FPS: " + fps;
+		}
+		
 		graphics.setColor(Color.BLACK);
-		graphics.setFont(new Font("Arial", Font.PLAIN, 16));
-		graphics.drawString("FPS: " + fps, 10, HEIGHT - 10);
+		graphics.setFont(FPS_FONT);
+		graphics.drawString(fpsText, 10, HEIGHT - 10);
 	}
 		
 	/**
@@ -268,19 +449,16 @@ public class Game implements Runnable {
 		 * to the screen.
 		 */
 		
+		FrameEvent event = null;
+		if (FrameEvent.isRecorded()) {
+			event = new FrameEvent();
+			event.begin();
+		}
+		
 		BufferStrategy bufferStrategy = canvas.getBufferStrategy();
 		Graphics2D graphics = (Graphics2D) bufferStrategy.getDrawGraphics();
-		graphics.setColor(Color.BLACK);
-		graphics.fillRect(0, 0, WIDTH, HEIGHT);
 		
-		// Draws the current state.
-		currentState.draw(graphics);
-		
-		// Draws the FPS count to the screen.
-		drawFPS(graphics);
-		
-		// Renders each game object to the screen.
-		currentState.render(graphics);
+		render(graphics);
 
 		/*
 		 * Disposes of the graphics object once every 
@@ -291,6 +469,71 @@ public class Game implements Runnable {
 		
 		// Displays the next buffer.
 		bufferStrategy.show();
+		
+		if (event != null) {
+			event.end();
+		}
+		
+		if (event != null && event.shouldCommit()) {
+			GameState state = stateManager.getCurrentState();
+			event.state = getStateName(state);
+			event.fps = fps;
+			
+			if (state instanceof PlayState) {
+				event.gameObjects = ((PlayState) state).getGameObjects().size();
+			}
+			event.commit();
+		}
+		
+		// Records when the first frame, and the first frame of the main menu, are shown.
+		if (!StartupProfiler.isFinished()) {
+			StartupProfiler.frameShown(stateManager.getCurrentState() instanceof MainMenuState);
+		}
+	}
+	
+	/**
+	 * Gets the name of a state, which is shown in the flight recordings.
+	 * @param state The state, which may be null.
+	 */
+	
+	private static String getStateName(GameState state) {
+		return state == null ? "None" : state.getClass().getSimpleName();
+	}
+	
+	/**
+	 * Renders a frame of the game using the specified graphics. <br>
+	 * This can draw to any target, such as an off-screen image.
+	 * @param graphics The graphics object which will be used.
+	 */
+	
+	public void render(Graphics2D graphics) {
+		long allocations = AllocationTracker.begin();
+		
+		settings.get(Settings.RENDER_QUALITY).apply(graphics);
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(0, 0, WIDTH, HEIGHT);
+		
+		// Draws the current states.
+		stateManager.draw(graphics);
+		
+		// Draws the FPS count to the screen.
+		if (settings.get(Settings.SHOW_FPS)) {
+			drawFPS(graphics);
+		}
+		
+		// Renders each game object to the screen.
+		stateManager.render(graphics);
+		
+		// The overlay is not counted, as it would change what it measures.
+		AllocationTracker.endFrame(allocations);
+		
+		if (AllocationTracker.isEnabled()) {
+			AllocationTracker.draw(graphics, WIDTH);
+		}
+		
+		if (FrameMonitor.isEnabled()) {
+			FrameMonitor.draw(graphics, WIDTH, HEIGHT);
+		}
 	}
 	
 	/**
@@ -311,25 +554,47 @@ public class Game implements Runnable {
 	
 	/**
 	 * Sets the current state of the game. <br>
-	 * This can be used to navigate between the main menu and <br>
-	 * the game itself.
+	 * This replaces every state in the state stack. <br>
+	 * To navigate between the retained states, use {@link #getStateManager()}.
 	 * 
 	 * @param state The new state of the game.
 	 */
 	
 	public void setCurrentState(GameState state) {
-		this.currentState = state;
-		
-		// Sets the input's focused state.
-		input.setGameState(state);
+		stateManager.set(state);
+	}
+	
+	/**
+	 * Gets the game's state manager.
+	 */
+	
+	public StateManager getStateManager() {
+		return stateManager;
 	}
 	
 	/**
-	 * Gets an instance of the leaderboard class.
+	 * Gets the log of every finished run.
 	 */
 	
-	public Leaderboard getLeaderboard() {
-		return leaderboard;
+	public ScoreLog getScoreLog() {
+		return scoreLog;
+	}
+	
+	/**
+	 * Gets the shared online leaderboard. <br>
+	 * It is not used unless an address is set in the settings file.
+	 */
+	
+	public OnlineLeaderboard getOnlineLeaderboard() {
+		return onlineLeaderboard;
+	}
+	
+	/**
+	 * Gets the game's telemetry recorder.
+	 */
+	
+	public TelemetryRecorder getTelemetry() {
+		return telemetry;
 	}
 	
 	/**
@@ -348,6 +613,14 @@ public class Game implements Runnable {
 		return soundtrackPlayer;
 	}
 	
+	/**
+	 * Gets the game's audio mixer.
+	 */
+	
+	public AudioMixer getAudioMixer() {
+		return audioMixer;
+	}
+	
 	/**
 	 * Gets the game's settings.
 	 */
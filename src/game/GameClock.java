@@ -0,0 +1,59 @@
+package game;
+
+/**
+ * The GameClock is the time inside a game. It only moves forward <br>
+ * when the game is updated, by exactly one update each time, so it <br>
+ * does not move while the game is paused, and a game that is played <br>
+ * again from a replay sees the same times no matter how fast it runs. <br> <br>
+ *
+ * Every timer in the game (animations, spawning, powerups and hit <br>
+ * cooldowns) uses this clock instead of the computer's clock.
+ *
+ * @author Elliott Vince
+ */
+
+public class GameClock {
+
+	// The number of updates since the game started.
+	private static long ticks;
+
+	/**
+	 * GameClock only has static methods.
+	 */
+
+	private GameClock() {
+	}
+
+	/**
+	 * Moves the clock forward by one update.
+	 */
+
+	public static void tick() {
+		ticks++;
+	}
+
+	/**
+	 * Starts the clock again at 0. This is called when a new game starts.
+	 */
+
+	public static void reset() {
+		ticks = 0;
+	}
+
+	/**
+	 * Gets the number of updates since the game started.
+	 */
+
+	public static long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the time since the game started (in milliseconds).
+	 */
+
+	public static long getTime() {
+		return ticks * 1000 / Game.TICKS_PER_SECOND;
+	}
+
+}
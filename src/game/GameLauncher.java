@@ -15,6 +15,7 @@ package game;
 public class GameLauncher {
 	
 	public static void main(String[] args) {
+		StartupProfiler.mark("Launcher started");
 		
 		// Starts and opens a new game.
 		javax.swing.SwingUtilities.invokeLater(new Runnable() {
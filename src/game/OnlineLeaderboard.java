@@ -0,0 +1,404 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The OnlineLeaderboard shares scores with a leaderboard server, so <br>
+ * several copies of the game can show the same high scores. It is <br>
+ * only used if a server address is set in the settings file. <br> <br>
+ *
+ * Runs are sent in batches on a background thread. If the server <br>
+ * cannot be reached, the batch is sent again later, waiting twice as <br>
+ * long after each failure. The server's best scores are cached for <br>
+ * a short time. No method of this class waits for the network, so a <br>
+ * slow server never slows down the game. <br> <br>
+ *
+ * Runs are sent with a POST request, one run per line: <br>
+ * name, score, level, duration and timestamp, separated by tabs. <br>
+ * The best scores are read with a GET request that returns one <br>
+ * "name: score" line per score, like the old local leaderboard file.
+ *
+ * @author Elliott Vince
+ */
+
+public class OnlineLeaderboard {
+
+	// The number of best scores that are downloaded.
+	public static final int NUM_SCORES = ScoreLog.LEADERBOARD_SCORES;
+
+	// The maximum number of runs sent in one request.
+	private static final int BATCH_SIZE = 20;
+
+	// The maximum number of runs waiting to be sent. The oldest runs are dropped.
+	private static final int MAX_PENDING = 500;
+
+	// How long to wait for the server (in milliseconds).
+	private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+	private static final int READ_TIMEOUT_MILLIS = 5000;
+
+	// How long to wait before retrying a failed request (in milliseconds).
+	private static final long MIN_RETRY_MILLIS = 1000;
+	private static final long MAX_RETRY_MILLIS = 5 * 60 * 1000;
+
+	// How long the downloaded scores are used before they are downloaded again.
+	private static final long CACHE_TTL_MILLIS = 60 * 1000;
+
+	// The address of the leaderboard server.
+	private URL url;
+
+	// Runs waiting to be sent. Only used while holding the lock of this object.
+	private ArrayDeque<ScoreEntry> pending;
+
+	// Whether a request to send runs is scheduled or running.
+	private boolean sending;
+
+	// The number of failed requests in a row.
+	private int failures;
+
+	// The downloaded scores, and when they were downloaded.
+	private volatile List<ScoreEntry> topScores;
+	private volatile long downloadTime;
+	private volatile boolean downloading;
+
+	// Sends and downloads scores in the background.
+	private ScheduledExecutorService networkExecutor;
+
+	/**
+	 * Creates an online leaderboard.
+	 * @param address The address of the leaderboard server, or <br>
+	 * an empty string if the online leaderboard is not used.
+	 */
+
+	public OnlineLeaderboard(String address) {
+		pending = new ArrayDeque<ScoreEntry>();
+		topScores = Collections.emptyList();
+
+		if (address == null || address.trim().isEmpty()) {
+			return;
+		}
+
+		try {
+			url = new URL(address.trim());
+		}
+		catch (IOException e) {
+			System.out.println("Invalid leaderboard address " + address);
+			return;
+		}
+
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "leaderboard-net");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+
+		// Cancelled retries should not stay in the queue.
+		executor.setRemoveOnCancelPolicy(true);
+		networkExecutor = executor;
+
+		// Downloads the scores so they are ready when the leaderboard is opened.
+		refresh();
+	}
+
+	/**
+	 * Determines whether the online leaderboard is used.
+	 */
+
+	public boolean isEnabled() {
+		return url != null;
+	}
+
+	/**
+	 * Adds a run to be sent to the server. <br>
+	 * This returns straight away, and the run is sent in the background.
+	 * @param entry The run.
+	 */
+
+	public synchronized void submit(ScoreEntry entry) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		if (pending.size() >= MAX_PENDING) {
+			pending.pollFirst();
+		}
+		pending.addLast(entry);
+
+		if (!sending) {
+			sending = true;
+			scheduleSend(0);
+		}
+	}
+
+	/**
+	 * Gets the server's best scores. <br>
+	 * The cached scores are returned straight away. If they are too old, <br>
+	 * they are downloaded again in the background.
+	 * @return The scores, from best to worst. The list is empty if the <br>
+	 * scores have not been downloaded.
+	 */
+
+	public List<ScoreEntry> getTopScores() {
+		if (isEnabled() && System.currentTimeMillis() - downloadTime > CACHE_TTL_MILLIS) {
+			refresh();
+		}
+		return topScores;
+	}
+
+	/**
+	 * Determines whether the server's scores have been downloaded.
+	 */
+
+	public boolean hasTopScores() {
+		return downloadTime != 0;
+	}
+
+	/**
+	 * Gets the number of runs waiting to be sent.
+	 */
+
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Downloads the best scores in the background, unless they are <br>
+	 * already being downloaded.
+	 */
+
+	private void refresh() {
+		if (downloading) {
+			return;
+		}
+		downloading = true;
+
+		networkExecutor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					topScores = download();
+					downloadTime = System.currentTimeMillis();
+				}
+				catch (IOException e) {
+					// The old scores are kept. They are downloaded again after the TTL.
+					downloadTime = System.currentTimeMillis() - CACHE_TTL_MILLIS / 2;
+					System.out.println("Problem downloading the online leaderboard: " + e);
+				}
+				finally {
+					downloading = false;
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Schedules the next batch of runs to be sent.
+	 * @param delay How long to wait (in milliseconds).
+	 */
+
+	private void scheduleSend(long delay) {
+		networkExecutor.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				sendBatch();
+			}
+
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sends the next batch of runs. <br>
+	 * If the request fails, the batch is put back and sent again after <br>
+	 * a delay that doubles with each failure.
+	 */
+
+	private void sendBatch() {
+		List<ScoreEntry> batch = new ArrayList<ScoreEntry>(BATCH_SIZE);
+
+		synchronized (this) {
+			while (batch.size() < BATCH_SIZE && !pending.isEmpty()) {
+				batch.add(pending.pollFirst());
+			}
+		}
+
+		boolean sent;
+		try {
+			sent = upload(batch);
+		}
+		catch (IOException e) {
+			System.out.println("Problem sending scores to the online leaderboard: " + e);
+			sent = false;
+		}
+
+		synchronized (this) {
+			if (sent) {
+				failures = 0;
+
+				// The new runs may have changed the best scores.
+				downloadTime = 0;
+			}
+			else {
+				failures++;
+
+				// Puts the batch back at the front, in the same order.
+				for (int i = batch.size() - 1; i >= 0; i--) {
+					if (pending.size() < MAX_PENDING) {
+						pending.addFirst(batch.get(i));
+					}
+				}
+			}
+
+			if (pending.isEmpty()) {
+				sending = false;
+			}
+			else {
+				scheduleSend(failures == 0 ? 0 : getRetryDelay(failures));
+			}
+		}
+	}
+
+	/**
+	 * Gets how long to wait before retrying. The delay doubles with <br>
+	 * each failure, and is randomized so cabinets that lost the <br>
+	 * network together do not all retry at the same time.
+	 * @param failures The number of failed requests in a row.
+	 */
+
+	private static long getRetryDelay(int failures) {
+		long delay = MIN_RETRY_MILLIS << Math.min(failures - 1, 20);
+		delay = Math.min(delay, MAX_RETRY_MILLIS);
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
+	/**
+	 * Sends runs to the server.
+	 * @param batch The runs.
+	 * @return True if the server accepted the runs, or false if they <br>
+	 * should be sent again.
+	 */
+
+	private boolean upload(List<ScoreEntry> batch) throws IOException {
+		StringBuilder body = new StringBuilder();
+
+		for (ScoreEntry entry : batch) {
+			String name = entry.getName() == null ? "" : entry.getName().replace('\t', ' ');
+
+			body.append(name).append('\t')
+				.append(entry.getScore()).append('\t')
+				.append(entry.getLevel()).append('\t')
+				.append(entry.getDuration()).append('\t')
+				.append(entry.getTimestamp()).append('\n');
+		}
+
+		byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+		HttpURLConnection connection = open();
+
+		try {
+			connection.setRequestMethod("POST");
+			connection.setDoOutput(true);
+			connection.setFixedLengthStreamingMode(bytes.length);
+			connection.setRequestProperty("Content-Type", "text/plain; charset=utf-8");
+
+			try (OutputStream output = connection.getOutputStream()) {
+				output.write(bytes);
+			}
+
+			int status = connection.getResponseCode();
+
+			if (status / 100 == 2) {
+				return true;
+			}
+
+			// Other client errors will never succeed, so the batch is dropped.
+			if (status / 100 == 4 && status != 408 && status != 429) {
+				System.out.println("The online leaderboard rejected " + batch.size() +
+						" scores (HTTP " + status + ")");
+				return true;
+			}
+			return false;
+		}
+		finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Downloads the best scores from the server.
+	 */
+
+	private List<ScoreEntry> download() throws IOException {
+		HttpURLConnection connection = open();
+
+		try {
+			int status = connection.getResponseCode();
+
+			if (status / 100 != 2) {
+				throw new IOException("HTTP " + status);
+			}
+
+			List<ScoreEntry> scores = new ArrayList<ScoreEntry>(NUM_SCORES);
+
+			try (InputStream input = connection.getInputStream();
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(input, StandardCharsets.UTF_8))) {
+				String line;
+
+				while ((line = reader.readLine()) != null && scores.size() < NUM_SCORES) {
+					int separator = line.lastIndexOf(": ");
+
+					if (separator < 0) {
+						continue;
+					}
+
+					try {
+						int score = Integer.parseInt(line.substring(separator + 2).trim());
+						scores.add(new ScoreEntry(line.substring(0, separator), score, 0, 0, 0));
+					}
+					catch (NumberFormatException e) {
+						// Invalid lines are skipped.
+					}
+				}
+			}
+			return Collections.unmodifiableList(scores);
+		}
+		finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Opens a connection to the server.
+	 */
+
+	private HttpURLConnection open() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+		connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+		connection.setUseCaches(false);
+		return connection;
+	}
+
+}
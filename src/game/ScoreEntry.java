@@ -0,0 +1,109 @@
+package game;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * A ScoreEntry is one finished run of the game, as stored <br>
+ * in the ScoreLog.
+ *
+ * @author Elliott Vince
+ */
+
+public class ScoreEntry implements Comparable<ScoreEntry> {
+
+	// The player's name, or null if the player did not enter one.
+	private String name;
+
+	private int score;
+
+	// The level that the player reached.
+	private int level;
+
+	// How long the run lasted (in milliseconds).
+	private long duration;
+
+	// When the run ended (in milliseconds since 1970).
+	private long timestamp;
+
+	/**
+	 * Creates a new score entry.
+	 * @param name The player's name, or null if the player did not enter one.
+	 * @param score The player's score.
+	 * @param level The level that the player reached.
+	 * @param duration How long the run lasted (in milliseconds).
+	 * @param timestamp When the run ended (in milliseconds since 1970).
+	 */
+
+	public ScoreEntry(String name, int score, int level, long duration, long timestamp) {
+		this.name = name;
+		this.score = score;
+		this.level = level;
+		this.duration = duration;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Gets the player's name.
+	 * @return The name, or null if the player did not enter one.
+	 */
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the player's score.
+	 */
+
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the level that the player reached.
+	 */
+
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Gets how long the run lasted (in milliseconds).
+	 */
+
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Gets when the run ended (in milliseconds since 1970).
+	 */
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the day when the run ended, in the computer's time zone.
+	 */
+
+	public LocalDate getDay() {
+		return Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	/**
+	 * Compares two entries by their score. <br>
+	 * If the scores are the same, the earlier run is ranked higher.
+	 */
+
+	@Override
+	public int compareTo(ScoreEntry other) {
+		if (score != other.score) {
+			return Integer.compare(score, other.score);
+		}
+		return Long.compare(other.timestamp, timestamp);
+	}
+
+}
@@ -0,0 +1,853 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The ScoreLog keeps the history of every finished run of the game. <br> <br>
+ *
+ * Runs are appended to a binary log file, so saving a run never <br>
+ * rewrites the history. When the log is loaded, an index of the best <br>
+ * scores, the best score of each player and the best scores of each <br>
+ * day is built in memory, so these can be shown without reading the <br>
+ * file again. The best named scores are the game's leaderboard. <br> <br>
+ *
+ * New runs are written in a simple fixed format. Every so often the <br>
+ * log is compacted, which rewrites the runs in a smaller format and <br>
+ * removes anything that is no longer needed. All reading and writing <br>
+ * is done on a background thread. The log is loaded in the background <br>
+ * when it is created, and is only waited for if it is used before it <br>
+ * has finished loading. <br> <br>
+ *
+ * The first time the log is created, the scores of the old <br>
+ * leaderboard file next to it are added as runs, so they are kept.
+ *
+ * @author Elliott Vince
+ */
+
+public class ScoreLog {
+
+	// The path of the score log.
+	private static final String FILE_PATH = "resources/data/scores.log";
+
+	// The name of the file of the old leaderboard, which is kept next to the log.
+	private static final String LEADERBOARD_FILE = "leaderboard.txt";
+
+	// The first bytes of the file ("ECLG"), followed by its version.
+	private static final int MAGIC = 0x45434C47;
+	private static final byte VERSION = 1;
+	private static final int HEADER_SIZE = 5;
+
+	// Record Types
+	private static final byte NAME_RECORD = 1;
+	private static final byte RUN_RECORD = 2;
+	private static final byte PACKED_RUN_RECORD = 3;
+	private static final byte RESET_RECORD = 4;
+
+	// The number of best scores that are indexed.
+	public static final int TOP_SCORES = 100;
+
+	// The number of best scores that are shown on the leaderboard.
+	public static final int LEADERBOARD_SCORES = 10;
+
+	// The number of best scores that are indexed for each day.
+	public static final int DAY_SCORES = 10;
+
+	// The number of runs appended before the log is compacted.
+	private static final int COMPACT_INTERVAL = 256;
+
+	private File dataFile;
+
+	// The id of each player's name in the log.
+	private Map<String, Integer> nameIds;
+
+	// The best named scores since the last reset. The lowest score is at the head.
+	private PriorityQueue<ScoreEntry> topScores;
+
+	// The best scores from best to worst, or null if they have changed since they were sorted.
+	private List<ScoreEntry> sortedTopScores;
+
+	// The best run of each player.
+	private Map<String, ScoreEntry> bestScores;
+
+	// The best scores of each day.
+	private TreeMap<LocalDate, PriorityQueue<ScoreEntry>> dayScores;
+
+	private int runCount;
+
+	// The number of runs written in the fixed format since the last compaction.
+	private int uncompactedRuns;
+
+	// Loads and writes the log in the background.
+	private ExecutorService ioExecutor;
+
+	// Finishes when the log has been loaded.
+	private Future<?> loading;
+
+	// Whether runs can be saved. This is false if a log that cannot be read could not be moved aside.
+	private volatile boolean writable = true;
+
+	/**
+	 * Creates the score log and starts loading its history.
+	 */
+
+	public ScoreLog() {
+		this(FILE_PATH);
+	}
+
+	/**
+	 * Creates a score log at the specified path and starts loading its history.
+	 * @param path The path of the score log.
+	 */
+
+	public ScoreLog(String path) {
+		this(new File(path));
+	}
+
+	/**
+	 * Creates a score log.
+	 * @param dataFile The log file, or null if the log is only kept in memory.
+	 */
+
+	private ScoreLog(File dataFile) {
+		this.dataFile = dataFile;
+
+		nameIds = new HashMap<String, Integer>();
+		topScores = new PriorityQueue<ScoreEntry>();
+		bestScores = new HashMap<String, ScoreEntry>();
+		dayScores = new TreeMap<LocalDate, PriorityQueue<ScoreEntry>>();
+
+		if (dataFile == null) {
+			loading = CompletableFuture.completedFuture(null);
+			return;
+		}
+
+		ioExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "score-log-io");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+
+		// The history can be large, so it is not loaded on the game thread.
+		loading = ioExecutor.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				load();
+			}
+
+		});
+	}
+
+	/**
+	 * Creates an empty score log that is only kept in memory. <br>
+	 * It never reads or saves a file and does not start a thread, <br>
+	 * so it can be used by the benchmarks.
+	 */
+
+	public static ScoreLog createInMemory() {
+		return new ScoreLog((File) null);
+	}
+
+	/**
+	 * Adds a finished run to the log.
+	 * @param name The player's name, or null if the player did not enter one.
+	 * @param score The player's score.
+	 * @param level The level that the player reached.
+	 * @param duration How long the run lasted (in milliseconds).
+	 * @return The run that was added.
+	 */
+
+	public ScoreEntry record(String name, int score, int level, long duration) {
+		awaitLoad();
+		return add(name, score, level, duration, System.currentTimeMillis());
+	}
+
+	/**
+	 * Adds a run to the indexes and appends it to the log.
+	 * @param name The player's name, or null if the player did not enter one.
+	 * @param score The player's score.
+	 * @param level The level that the player reached.
+	 * @param duration How long the run lasted (in milliseconds).
+	 * @param timestamp When the run ended (in milliseconds since 1970).
+	 * @return The run that was added.
+	 */
+
+	private ScoreEntry add(String name, int score, int level, long duration, long timestamp) {
+		ScoreEntry entry = new ScoreEntry(name, score, level, duration, timestamp);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+
+		try {
+			int nameId = -1;
+
+			// Adds the name to the log the first time it is used.
+			if (name != null) {
+				Integer id = nameIds.get(name);
+
+				if (id == null) {
+					id = nameIds.size();
+					nameIds.put(name, id);
+					writeName(output, id, name);
+				}
+				nameId = id;
+			}
+
+			output.writeByte(RUN_RECORD);
+			output.writeInt(nameId);
+			output.writeInt(score);
+			output.writeInt(level);
+			output.writeLong(duration);
+			output.writeLong(entry.getTimestamp());
+		}
+		catch (IOException e) {
+			// Writing to memory does not fail.
+			throw new IllegalStateException(e);
+		}
+
+		index(entry, true);
+		append(bytes.toByteArray());
+
+		if (++uncompactedRuns >= COMPACT_INTERVAL) {
+			compact();
+		}
+		return entry;
+	}
+
+	/**
+	 * Resets the best scores. The history of every run is kept, but <br>
+	 * only runs after the reset are included in getTopScores().
+	 */
+
+	public void markReset() {
+		awaitLoad();
+		topScores.clear();
+		sortedTopScores = null;
+
+		ByteBuffer record = ByteBuffer.allocate(9);
+		record.put(RESET_RECORD);
+		record.putLong(System.currentTimeMillis());
+		append(record.array());
+	}
+
+	/**
+	 * Gets the best scores since the last reset. Runs without a <br>
+	 * name are not included. The scores are only sorted again after <br>
+	 * they change, so this can be called every frame.
+	 * @param count The maximum number of scores (at most TOP_SCORES).
+	 * @return The scores, from best to worst. The list cannot be changed.
+	 */
+
+	public List<ScoreEntry> getTopScores(int count) {
+		awaitLoad();
+
+		if (sortedTopScores == null) {
+			sortedTopScores = Collections.unmodifiableList(sortDescending(topScores, TOP_SCORES));
+		}
+		return count >= sortedTopScores.size() ? sortedTopScores : sortedTopScores.subList(0, count);
+	}
+
+	/**
+	 * Determines if a score would be on the leaderboard if the player <br>
+	 * entered a name, which is if it beats one of the LEADERBOARD_SCORES <br>
+	 * best scores or there are fewer of them.
+	 * @param score The score.
+	 */
+
+	public boolean isLeaderboardScore(int score) {
+		List<ScoreEntry> scores = getTopScores(LEADERBOARD_SCORES);
+
+		if (score <= 0) {
+			return false;
+		}
+		return scores.size() < LEADERBOARD_SCORES || score > scores.get(scores.size() - 1).getScore();
+	}
+
+	/**
+	 * Gets the best run of a player.
+	 * @param name The player's name.
+	 * @return The player's best run, or null if they have no runs.
+	 */
+
+	public ScoreEntry getBestScore(String name) {
+		awaitLoad();
+		return bestScores.get(name);
+	}
+
+	/**
+	 * Gets the best scores of a day.
+	 * @param day The day.
+	 * @param count The maximum number of scores (at most DAY_SCORES).
+	 * @return The scores, from best to worst.
+	 */
+
+	public List<ScoreEntry> getTopScores(LocalDate day, int count) {
+		awaitLoad();
+		PriorityQueue<ScoreEntry> scores = dayScores.get(day);
+
+		if (scores == null) {
+			return Collections.emptyList();
+		}
+		return sortDescending(scores, count);
+	}
+
+	/**
+	 * Gets the number of runs in the log.
+	 */
+
+	public int getRunCount() {
+		awaitLoad();
+		return runCount;
+	}
+
+	/**
+	 * Waits until the log has been loaded. This rarely has to wait, <br>
+	 * because a run takes much longer than loading the log.
+	 */
+
+	private void awaitLoad() {
+		try {
+			loading.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			System.out.println("Problem loading the score log");
+			e.getCause().printStackTrace();
+		}
+	}
+
+	/**
+	 * Sorts a heap of scores from best to worst.
+	 * @param scores The heap of scores.
+	 * @param count The maximum number of scores.
+	 */
+
+	private static List<ScoreEntry> sortDescending(PriorityQueue<ScoreEntry> scores, int count) {
+		List<ScoreEntry> sorted = new ArrayList<ScoreEntry>(scores);
+		Collections.sort(sorted, Collections.reverseOrder());
+		return sorted.subList(0, Math.min(count, sorted.size()));
+	}
+
+	/**
+	 * Adds a run to the in-memory indexes.
+	 * @param entry The run.
+	 * @param afterReset Whether the run happened after the last reset.
+	 */
+
+	private void index(ScoreEntry entry, boolean afterReset) {
+		runCount++;
+
+		// Only runs with a name are on the leaderboard.
+		if (afterReset && entry.getName() != null) {
+			addToHeap(topScores, entry, TOP_SCORES);
+			sortedTopScores = null;
+		}
+
+		if (entry.getName() != null) {
+			ScoreEntry best = bestScores.get(entry.getName());
+
+			if (best == null || entry.compareTo(best) > 0) {
+				bestScores.put(entry.getName(), entry);
+			}
+		}
+
+		LocalDate day = entry.getDay();
+		PriorityQueue<ScoreEntry> scores = dayScores.get(day);
+
+		if (scores == null) {
+			scores = new PriorityQueue<ScoreEntry>();
+			dayScores.put(day, scores);
+		}
+		addToHeap(scores, entry, DAY_SCORES);
+	}
+
+	/**
+	 * Adds a score to a heap that keeps only the best scores.
+	 * @param heap The heap. The lowest score is at its head.
+	 * @param entry The score to be added.
+	 * @param capacity The number of scores the heap keeps.
+	 */
+
+	private static void addToHeap(PriorityQueue<ScoreEntry> heap, ScoreEntry entry, int capacity) {
+		if (heap.size() < capacity) {
+			heap.add(entry);
+		}
+		else if (entry.compareTo(heap.peek()) > 0) {
+			heap.poll();
+			heap.add(entry);
+		}
+	}
+
+	/**
+	 * Loads the log and builds the indexes on the background thread. <br>
+	 * The log is compacted if it has a damaged end or too many <br>
+	 * runs in the fixed format. A file that is not a log this version <br>
+	 * can read, such as one written by a newer version of the game, <br>
+	 * is never rewritten. It is moved aside, and a new log is started.
+	 */
+
+	private void load() {
+		Contents contents = read(dataFile);
+
+		if (contents.unknown) {
+			moveAside();
+			return;
+		}
+
+		if (!dataFile.exists()) {
+			importLeaderboard();
+		}
+
+		nameIds.putAll(contents.nameIds);
+
+		for (int i = 0; i < contents.runs.size(); i++) {
+			index(contents.runs.get(i), i >= contents.resetIndex);
+		}
+
+		uncompactedRuns = contents.fixedRuns;
+
+		if (contents.damaged || contents.extraResets > 0 ||
+				uncompactedRuns >= COMPACT_INTERVAL) {
+			compact();
+		}
+	}
+
+	/**
+	 * Adds the scores of the old leaderboard file as runs. Their level <br>
+	 * and duration were not kept, so they are 0, and they ended when the <br>
+	 * file was last saved. The old file is left as it is.
+	 */
+
+	private void importLeaderboard() {
+		File file = new File(dataFile.getAbsoluteFile().getParentFile(), LEADERBOARD_FILE);
+		List<String> lines;
+
+		try {
+			lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		}
+		catch (NoSuchFileException e) {
+			return;
+		}
+		catch (IOException e) {
+			System.out.println("Problem reading the old leaderboard");
+			e.printStackTrace();
+			return;
+		}
+
+		for (String line : lines) {
+			/*
+			 * The scores are formatted like so: "Username: Score".
+			 * Empty places were saved as "null: 0", so they are skipped.
+			 */
+
+			int split = line.lastIndexOf(": ");
+
+			if (line.startsWith("#") || split < 0) {
+				continue;
+			}
+
+			try {
+				int score = Integer.parseInt(line.substring(split + 2).trim());
+
+				if (score > 0) {
+					add(line.substring(0, split), score, 0, 0, file.lastModified());
+				}
+			}
+			catch (NumberFormatException e) {
+				System.out.println("Skipping invalid leaderboard entry: " + line);
+			}
+		}
+	}
+
+	/**
+	 * Renames a log file that cannot be read, so its runs are kept. <br>
+	 * If it cannot be renamed, nothing is saved until the game closes.
+	 */
+
+	private void moveAside() {
+		File backup = new File(dataFile.getPath() + "." + System.currentTimeMillis() + ".bak");
+
+		try {
+			Files.move(dataFile.toPath(), backup.toPath());
+			System.out.println("The score log was moved to " + backup);
+		}
+		catch (IOException e) {
+			System.out.println("Problem moving the score log, so runs will not be saved");
+			e.printStackTrace();
+			writable = false;
+		}
+	}
+
+	/**
+	 * Appends records to the log on the background thread.
+	 * @param records The records to be appended.
+	 */
+
+	private void append(final byte[] records) {
+		// A log in memory is not saved.
+		if (dataFile == null) {
+			return;
+		}
+
+		ioExecutor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				if (!writable) {
+					return;
+				}
+
+				try {
+					boolean newFile = !dataFile.isFile() || dataFile.length() == 0;
+
+					if (dataFile.getParentFile() != null) {
+						dataFile.getParentFile().mkdirs();
+					}
+
+					try (FileOutputStream output = new FileOutputStream(dataFile, true)) {
+						if (newFile) {
+							output.write(createHeader());
+						}
+						output.write(records);
+						output.getFD().sync();
+					}
+				}
+				catch (IOException e) {
+					System.out.println("Problem saving the score log");
+					e.printStackTrace();
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Rewrites the log on the background thread. Runs are stored in the <br>
+	 * packed format, only the last reset is kept, and any damaged end <br>
+	 * of the file is removed. Names keep their ids, so runs that are <br>
+	 * appended afterwards still refer to the right names.
+	 */
+
+	private void compact() {
+		uncompactedRuns = 0;
+
+		if (dataFile == null) {
+			return;
+		}
+
+		ioExecutor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				Contents contents = read(dataFile);
+
+				// A file that cannot be read is never replaced.
+				if (!writable || contents.unknown) {
+					return;
+				}
+
+				try {
+					writeCompacted(contents);
+				}
+				catch (IOException e) {
+					System.out.println("Problem compacting the score log");
+					e.printStackTrace();
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Writes the compacted log to a temporary file, and then replaces <br>
+	 * the log with it.
+	 * @param contents The contents of the log.
+	 */
+
+	private void writeCompacted(Contents contents) throws IOException {
+		File tempFile = new File(dataFile.getPath() + ".tmp");
+
+		try (FileOutputStream file = new FileOutputStream(tempFile)) {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file));
+			output.write(createHeader());
+
+			for (Map.Entry<String, Integer> name : contents.nameIds.entrySet()) {
+				writeName(output, name.getValue(), name.getKey());
+			}
+
+			long lastTimestamp = 0;
+
+			for (int i = 0; i < contents.runs.size(); i++) {
+				// A log that was never reset has no reset to keep.
+				if (i == contents.resetIndex && contents.resetTime != 0) {
+					output.writeByte(RESET_RECORD);
+					output.writeLong(contents.resetTime);
+				}
+
+				ScoreEntry run = contents.runs.get(i);
+				Integer nameId = run.getName() == null ? null : contents.nameIds.get(run.getName());
+
+				// Numbers are stored as varints, and timestamps as the change from the last run.
+				output.writeByte(PACKED_RUN_RECORD);
+				writeVarInt(output, nameId == null ? 0 : nameId + 1);
+				writeVarInt(output, run.getScore());
+				writeVarInt(output, run.getLevel());
+				writeVarInt(output, run.getDuration());
+				writeVarInt(output, zigZag(run.getTimestamp() - lastTimestamp));
+
+				lastTimestamp = run.getTimestamp();
+			}
+
+			// The reset happened after the last run.
+			if (contents.resetIndex == contents.runs.size() && contents.resetTime != 0) {
+				output.writeByte(RESET_RECORD);
+				output.writeLong(contents.resetTime);
+			}
+
+			output.flush();
+			file.getFD().sync();
+		}
+
+		try {
+			Files.move(tempFile.toPath(), dataFile.toPath(),
+					StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Reads every record in a log file. <br>
+	 * Reading stops at the first damaged record, such as one that was <br>
+	 * only partly written when the game closed.
+	 * @param file The log file.
+	 */
+
+	private static Contents read(File file) {
+		Contents contents = new Contents();
+		byte[] data;
+
+		try {
+			data = Files.readAllBytes(file.toPath());
+		}
+		catch (NoSuchFileException e) {
+			return contents;
+		}
+		catch (IOException e) {
+			System.out.println("Problem loading the score log");
+			e.printStackTrace();
+			return contents;
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+
+		if (data.length < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+			System.out.println("The score log is not a valid log file, or is from a newer version");
+			contents.unknown = data.length > 0;
+			return contents;
+		}
+
+		Map<Integer, String> names = new HashMap<Integer, String>();
+		long lastTimestamp = 0;
+		int resets = 0;
+
+		try {
+			while (buffer.hasRemaining()) {
+				byte type = buffer.get();
+
+				if (type == NAME_RECORD) {
+					int id = buffer.getInt();
+					byte[] name = new byte[buffer.getShort() & 0xFFFF];
+					buffer.get(name);
+
+					names.put(id, new String(name, StandardCharsets.UTF_8));
+				}
+				else if (type == RUN_RECORD) {
+					String name = names.get(buffer.getInt());
+					int score = buffer.getInt();
+					int level = buffer.getInt();
+					long duration = buffer.getLong();
+					lastTimestamp = buffer.getLong();
+
+					contents.runs.add(new ScoreEntry(name, score, level, duration, lastTimestamp));
+					contents.fixedRuns++;
+				}
+				else if (type == PACKED_RUN_RECORD) {
+					String name = names.get((int) readVarInt(buffer) - 1);
+					int score = (int) readVarInt(buffer);
+					int level = (int) readVarInt(buffer);
+					long duration = readVarInt(buffer);
+					lastTimestamp += unZigZag(readVarInt(buffer));
+
+					contents.runs.add(new ScoreEntry(name, score, level, duration, lastTimestamp));
+				}
+				else if (type == RESET_RECORD) {
+					contents.resetTime = buffer.getLong();
+					contents.resetIndex = contents.runs.size();
+					resets++;
+				}
+				else {
+					throw new IllegalArgumentException("Unknown record type " + type);
+				}
+			}
+		}
+		catch (BufferUnderflowException | IllegalArgumentException e) {
+			// The rest of the file is damaged, so it is ignored.
+			System.out.println("The end of the score log is damaged and will be removed");
+			contents.damaged = true;
+		}
+
+		for (Map.Entry<Integer, String> name : names.entrySet()) {
+			contents.nameIds.put(name.getValue(), name.getKey());
+		}
+
+		contents.extraResets = Math.max(resets - 1, 0);
+		return contents;
+	}
+
+	/**
+	 * Creates the header of the log file.
+	 */
+
+	private static byte[] createHeader() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.put(VERSION);
+		return header.array();
+	}
+
+	/**
+	 * Writes a name record.
+	 * @param output The output stream.
+	 * @param id The id of the name.
+	 * @param name The name.
+	 */
+
+	private static void writeName(DataOutputStream output, int id, String name) throws IOException {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(bytes.length, 0xFFFF);
+
+		output.writeByte(NAME_RECORD);
+		output.writeInt(id);
+		output.writeShort(length);
+		output.write(bytes, 0, length);
+	}
+
+	/**
+	 * Writes a non-negative number using as few bytes as possible.
+	 * @param output The output stream.
+	 * @param value The number.
+	 */
+
+	private static void writeVarInt(DataOutputStream output, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			output.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		output.writeByte((int) value);
+	}
+
+	/**
+	 * Reads a number written by writeVarInt().
+	 * @param buffer The buffer to read from.
+	 */
+
+	private static long readVarInt(ByteBuffer buffer) {
+		long value = 0;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Invalid varint");
+	}
+
+	/**
+	 * Converts a number that may be negative so that it can be written <br>
+	 * with writeVarInt().
+	 * @param value The number.
+	 */
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverses zigZag().
+	 * @param value The converted number.
+	 */
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * The records read from a log file.
+	 */
+
+	private static class Contents {
+
+		// The id of each name.
+		private Map<String, Integer> nameIds = new HashMap<String, Integer>();
+
+		// Every run, in the order they were added.
+		private List<ScoreEntry> runs = new ArrayList<ScoreEntry>();
+
+		// The index of the first run after the last reset.
+		private int resetIndex;
+
+		// The time of the last reset, or 0 if the log was never reset.
+		private long resetTime;
+
+		// The number of resets before the last one.
+		private int extraResets;
+
+		// The number of runs in the fixed format.
+		private int fixedRuns;
+
+		// Whether the end of the file is damaged.
+		private boolean damaged;
+
+		// Whether the file has a header that is not known, so none of it could be read.
+		private boolean unknown;
+	}
+
+}
@@ -0,0 +1,195 @@
+package game;
+
+/**
+ * A Setting is one typed value in the settings file. <br> <br>
+ *
+ * Each setting has a key in the file, a default value, and a way to <br>
+ * read and write its value as text. Values that are missing or <br>
+ * invalid in the file are replaced by the default value. The settings <br>
+ * are created with the static methods of this class and stored in <br>
+ * the Settings class.
+ *
+ * @author Elliott Vince
+ *
+ * @param <T> The type of the setting's value.
+ */
+
+public abstract class Setting<T> {
+
+	// The key in the settings file.
+	private String key;
+
+	private T defaultValue;
+
+	/**
+	 * Creates a new setting.
+	 * @param key The key in the settings file.
+	 * @param defaultValue The default value.
+	 */
+
+	protected Setting(String key, T defaultValue) {
+		this.key = key;
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * Gets the setting's key in the settings file.
+	 */
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the setting's default value.
+	 */
+
+	public T getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Reads a value from the settings file.
+	 * @param text The text in the settings file.
+	 * @return The value, or null if the text is not valid.
+	 */
+
+	public abstract T parse(String text);
+
+	/**
+	 * Converts a value to the text that is stored in the settings file.
+	 * @param value The value.
+	 */
+
+	public abstract String format(T value);
+
+	/**
+	 * Checks that a value is allowed, and corrects it if it is not.
+	 * @param value The value.
+	 * @return The value that should be stored.
+	 */
+
+	public T validate(T value) {
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * Creates a setting that is either on or off.
+	 * @param key The key in the settings file.
+	 * @param defaultValue The default value.
+	 * @param onText The text stored when the setting is on (eg. "on").
+	 * @param offText The text stored when the setting is off (eg. "off").
+	 */
+
+	public static Setting<Boolean> bool(String key, boolean defaultValue,
+			final String onText, final String offText) {
+		return new Setting<Boolean>(key, defaultValue) {
+
+			@Override
+			public Boolean parse(String text) {
+				if (text.trim().equalsIgnoreCase(onText)) {
+					return true;
+				}
+				if (text.trim().equalsIgnoreCase(offText)) {
+					return false;
+				}
+				return null;
+			}
+
+			@Override
+			public String format(Boolean value) {
+				return value ? onText : offText;
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a setting that is a whole number within a range.
+	 * @param key The key in the settings file.
+	 * @param defaultValue The default value.
+	 * @param min The lowest allowed value.
+	 * @param max The highest allowed value.
+	 */
+
+	public static Setting<Integer> integer(String key, int defaultValue,
+			final int min, final int max) {
+		return new Setting<Integer>(key, defaultValue) {
+
+			@Override
+			public Integer parse(String text) {
+				try {
+					return Integer.parseInt(text.trim());
+				}
+				catch (NumberFormatException e) {
+					return null;
+				}
+			}
+
+			@Override
+			public String format(Integer value) {
+				return String.valueOf(value);
+			}
+
+			@Override
+			public Integer validate(Integer value) {
+				// Values outside of the range are moved into it.
+				return value == null ? getDefaultValue() : Math.max(min, Math.min(max, value));
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a setting that is one of the constants of an enum. <br>
+	 * The constants are stored by their name, in lower case.
+	 * @param key The key in the settings file.
+	 * @param type The class of the enum.
+	 * @param defaultValue The default value.
+	 */
+
+	public static <E extends Enum<E>> Setting<E> enumeration(String key,
+			final Class<E> type, E defaultValue) {
+		return new Setting<E>(key, defaultValue) {
+
+			@Override
+			public E parse(String text) {
+				for (E constant : type.getEnumConstants()) {
+					if (constant.name().equalsIgnoreCase(text.trim())) {
+						return constant;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public String format(E value) {
+				return value.name().toLowerCase();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a setting that is a line of text.
+	 * @param key The key in the settings file.
+	 * @param defaultValue The default value.
+	 */
+
+	public static Setting<String> string(String key, String defaultValue) {
+		return new Setting<String>(key, defaultValue) {
+
+			@Override
+			public String parse(String text) {
+				return text.trim();
+			}
+
+			@Override
+			public String format(String value) {
+				return value;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,18 @@
+package game;
+
+/**
+ * A SettingListener is told when the value of a setting changes.
+ *
+ * @author Elliott Vince
+ */
+
+public interface SettingListener {
+
+	/**
+	 * This method is called after a setting has changed.
+	 * @param setting The setting that changed.
+	 */
+
+	public void settingChanged(Setting<?> setting);
+
+}
@@ -2,185 +2,452 @@ package game;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import audio.SoundCategory;
+import gfx.RenderQuality;
 
 /**
  * The settings class stores and retrieves a list of settings from
- * a specific file.
+ * a specific file. <br> <br>
+ *
+ * Every setting is a typed Setting with a default value, so missing
+ * or invalid values in the file are replaced by their defaults.
+ * Listeners can be told when a setting changes. <br> <br>
+ *
+ * Changes are saved in the background. Changes made close together
+ * are combined into one save, and the file is replaced in a single
+ * step, so it is never left half-written.
+ *
  * @author Elliott Vince
  */
 
 public class Settings {
-	
-	private static final String FILE_PATH = 
+
+	private static final String FILE_PATH =
 			"resources/data/settings.properties";
-	
+
+	// How long to wait for more changes before saving (in milliseconds).
+	private static final int SAVE_DELAY_MILLIS = 500;
+
+	// The default volume of each sound category.
+	private static final int DEFAULT_VOLUME = 100;
+
+	// Audio Settings
+	public static final Setting<Boolean> MUSIC = Setting.bool("music", true, "on", "off");
+	public static final Setting<Boolean> SOUNDS = Setting.bool("sounds", true, "on", "off");
+
+	// Graphics Settings
+	public static final Setting<Boolean> FULL_HEALTHBARS =
+			Setting.bool("fullhealthbars", true, "show", "hide");
+	public static final Setting<Boolean> SHOW_FPS = Setting.bool("fps", true, "show", "hide");
+	public static final Setting<RenderQuality> RENDER_QUALITY =
+			Setting.enumeration("renderquality", RenderQuality.class, RenderQuality.DEFAULT);
+
+	// The address of the online leaderboard, or an empty string if it is not used.
+	public static final Setting<String> LEADERBOARD_URL = Setting.string("leaderboardurl", "");
+
+	// Whether performance telemetry is written for each session.
+	public static final Setting<Boolean> TELEMETRY = Setting.bool("telemetry", false, "on", "off");
+
+	// Whether each game is recorded as a replay.
+	public static final Setting<Boolean> REPLAYS = Setting.bool("replays", true, "on", "off");
+
+	// The volume of each sound category, from 0 to 100.
+	private static final Map<SoundCategory, Setting<Integer>> VOLUMES = createVolumeSettings();
+
+	// Every setting, in the order they are saved.
+	private static final List<Setting<?>> SETTINGS = createSettingList();
+
 	private Game game;
-	
-	// Settings variables
-	private boolean playMusic;
-	private boolean playSounds;
-	
+
+	private File dataFile;
+
+	// The value of each setting, stored by its key. Sounds read this on other threads.
+	private Map<String, Object> values;
+
+	private List<SettingListener> listeners;
+
+	// Saves the settings in the background.
+	private ScheduledExecutorService saveExecutor;
+
+	// Whether a save is waiting to run.
+	private AtomicBoolean saveScheduled;
+
 	/**
 	 * Creates a new settings object.
 	 * @param game An instance of the game class.
 	 */
-	
+
 	public Settings(Game game) {
-		
+
 		// Initializes the game class.
 		this.game = game;
-		
+
+		dataFile = new File(FILE_PATH);
+		values = new ConcurrentHashMap<String, Object>();
+		listeners = new CopyOnWriteArrayList<SettingListener>();
+		saveScheduled = new AtomicBoolean();
+
+		// Creates the thread that saves the settings.
+		saveExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "settings-io");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+
+		// Starts or stops the soundtrack when the music is turned on or off.
+		addListener(new SettingListener() {
+
+			@Override
+			public void settingChanged(Setting<?> setting) {
+				if (setting == MUSIC) {
+					updateSoundtrack();
+				}
+			}
+
+		});
+
 		// Loads the settings file.
 		load();
-		
+
+	}
+
+	/**
+	 * Creates the volume setting of each sound category.
+	 */
+
+	private static Map<SoundCategory, Setting<Integer>> createVolumeSettings() {
+		Map<SoundCategory, Setting<Integer>> volumes =
+				new EnumMap<SoundCategory, Setting<Integer>>(SoundCategory.class);
+
+		for (SoundCategory category : SoundCategory.values()) {
+			volumes.put(category, Setting.integer(category.getSettingsKey(), DEFAULT_VOLUME, 0, 100));
+		}
+		return volumes;
 	}
-	
+
+	/**
+	 * Creates the list of every setting.
+	 */
+
+	private static List<Setting<?>> createSettingList() {
+		List<Setting<?>> settings = new ArrayList<Setting<?>>();
+		settings.add(MUSIC);
+		settings.add(SOUNDS);
+		settings.add(FULL_HEALTHBARS);
+		settings.add(SHOW_FPS);
+		settings.add(RENDER_QUALITY);
+		settings.addAll(VOLUMES.values());
+		settings.add(LEADERBOARD_URL);
+		settings.add(TELEMETRY);
+		settings.add(REPLAYS);
+		return Collections.unmodifiableList(settings);
+	}
+
 	/**
-	 * Loads the settings file.
+	 * Loads the settings file. <br>
+	 * Missing or invalid settings are set to their default values, and <br>
+	 * the file is saved again with the corrected values.
 	 */
-	
+
 	private void load() {
-		try {
-			// Loads the file.
-			InputStream inputStream = new FileInputStream(FILE_PATH);
-			Properties properties = new Properties();
+		Properties properties = new Properties();
+		boolean changed = false;
+
+		try (InputStream inputStream = new FileInputStream(dataFile)) {
 			properties.load(inputStream);
-			
-			// Loads the properties from the file.
-			if (properties.getProperty("music").equalsIgnoreCase("on")) {
-				playMusic = true;
-			}
-			else {
-				playMusic = false;
-			}
-			
-			if (properties.getProperty("sounds").equalsIgnoreCase("on")) {
-				playSounds = true;
-			}
-			else {
-				playSounds = false;
-			}
+		}
+		catch (FileNotFoundException e) {
+			// A new default settings file is created.
+			changed = true;
 		}
 		catch (IOException e) {
-			// If an error occurs, a new default settings file is created.
-			createSettings();
+			System.out.println("Problem loading the settings, so the defaults are used");
+			changed = true;
+		}
+
+		for (Setting<?> setting : SETTINGS) {
+			changed |= load(setting, properties.getProperty(setting.getKey()));
+		}
+
+		if (changed) {
+			scheduleSave();
+		}
+	}
+
+	/**
+	 * Loads one setting.
+	 * @param setting The setting.
+	 * @param text The text in the settings file, or null if it is missing.
+	 * @return True if the value in the file was missing or had to be corrected.
+	 */
+
+	private <T> boolean load(Setting<T> setting, String text) {
+		T value = setting.validate(text == null ? null : setting.parse(text));
+		values.put(setting.getKey(), value);
+
+		return text == null || !setting.format(value).equals(text.trim());
+	}
+
+	/**
+	 * Gets the value of a setting.
+	 * @param setting The setting.
+	 */
+
+	@SuppressWarnings("unchecked")
+	public <T> T get(Setting<T> setting) {
+		return (T) values.get(setting.getKey());
+	}
+
+	/**
+	 * Sets the value of a setting. <br>
+	 * If the value changes, the listeners are told and the settings <br>
+	 * are saved in the background.
+	 * @param setting The setting.
+	 * @param value The new value. It is corrected if it is not allowed.
+	 */
+
+	public <T> void set(Setting<T> setting, T value) {
+		value = setting.validate(value);
+		Object oldValue = values.put(setting.getKey(), value);
+
+		if (value.equals(oldValue)) {
+			return;
 		}
+
+		for (SettingListener listener : listeners) {
+			listener.settingChanged(setting);
+		}
+
+		scheduleSave();
 	}
-	
+
+	/**
+	 * Adds a listener that is told when a setting changes.
+	 * @param listener The listener.
+	 */
+
+	public void addListener(SettingListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 * @param listener The listener.
+	 */
+
+	public void removeListener(SettingListener listener) {
+		listeners.remove(listener);
+	}
+
 	/**
-	 * Saves the settings file.
+	 * Gets the volume setting of a sound category.
+	 * @param category The sound category.
 	 */
-	
-	private void save() {
-		
+
+	public static Setting<Integer> getVolumeSetting(SoundCategory category) {
+		return VOLUMES.get(category);
+	}
+
+	/**
+	 * Saves the settings after a short delay, unless a save is <br>
+	 * already waiting. Any changes made before the save runs are <br>
+	 * included in it.
+	 */
+
+	private void scheduleSave() {
+		if (saveScheduled.compareAndSet(false, true)) {
+			saveExecutor.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					flush();
+				}
+
+			}, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Saves the settings straight away if there are unsaved changes.
+	 */
+
+	public void flush() {
+		if (saveScheduled.getAndSet(false)) {
+			save();
+		}
+	}
+
+	/**
+	 * Saves the settings file. The settings are written to a temporary <br>
+	 * file first, which then replaces the settings file.
+	 */
+
+	private synchronized void save() {
+		Properties properties = new Properties();
+
+		for (Setting<?> setting : SETTINGS) {
+			properties.setProperty(setting.getKey(), format(setting));
+		}
+
+		File tempFile = new File(dataFile.getPath() + ".tmp");
+
 		try {
-			OutputStream outputStream = new FileOutputStream(FILE_PATH);
-			Properties properties = new Properties();
-			
-			if (playMusic) {
-				properties.setProperty("music", "on");
-			}
-			else {
-				properties.setProperty("music", "off");
+			try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+				properties.store(outputStream, null);
+				outputStream.getFD().sync();
 			}
-			
-			if (playSounds) {
-				properties.setProperty("sounds", "on");
+
+			try {
+				Files.move(tempFile.toPath(), dataFile.toPath(),
+						StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
 			}
-			else {
-				properties.setProperty("sounds", "off");
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), dataFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
 			}
-			
-			properties.store(outputStream, null);
 		}
 		catch (IOException e) {
+			System.out.println("Problem saving the settings");
 			e.printStackTrace();
 		}
 	}
-	
+
 	/**
-	 * Creates a new settings file with the default settings.
+	 * Converts the value of a setting to text.
+	 * @param setting The setting.
 	 */
-	
-	private void createSettings() {
-		
-		try {
-			// Creates a new file at the specified location.
-			File file = new File(FILE_PATH);
-			file.createNewFile();
-			
-			OutputStream outputStream = new FileOutputStream(FILE_PATH);
-			
-			// Create a new properties object and stores the settings.
-			Properties properties = new Properties();
-			properties.put("music", "on");
-			properties.put("sounds", "on");
-			
-			// Saves the properties file to the output stream.
-			properties.store(outputStream, null);
-			
-		} catch (IOException e) {
-			e.printStackTrace();
+
+	private <T> String format(Setting<T> setting) {
+		return setting.format(get(setting));
+	}
+
+	/**
+	 * Starts or stops the soundtrack to match the music setting.
+	 */
+
+	private void updateSoundtrack() {
+		if (!isMusicEnabled()) {
+			// Stops the soundtrack player if it is playing.
+			if (game.getSoundtrackPlayer().isPlaying()) {
+				game.getSoundtrackPlayer().stop();
+			}
+		}
+		else {
+			// Restarts the soundtrack player if it is not playing.
+			if (!game.getSoundtrackPlayer().isPlaying() && !game.isHeadless()) {
+				game.getSoundtrackPlayer().playNextSong();
+			}
 		}
 	}
-	
+
 	/**
 	 * Determines whether music should play.
 	 * @return True if music should play, otherwise false.
 	 */
-	
+
 	public boolean isMusicEnabled() {
-		return playMusic;
+		return get(MUSIC);
 	}
-	
+
 	/**
 	 * Determines whether sound effects should play.
 	 * @return True if sounds should play, otherwise false.
 	 */
-	
+
 	public boolean areSoundsEnabled() {
-		return playSounds;
+		return get(SOUNDS);
 	}
-	
+
 	/**
 	 * Sets whether music should play.
 	 * @param playMusic True if music should play, otherwise false.
 	 */
-	
+
 	public void toggleMusic(boolean playMusic) {
-		this.playMusic = playMusic;
-		// Saves the settings file.
-		save();
-		
-		if (!playMusic) {
-			// Stops the soundtrack player if it is playing.
-			if (game.getSoundtrackPlayer().isPlaying()) {
-				game.getSoundtrackPlayer().stop();
-			}
-		}
-		else {
-			// Restarts the soundtrack player if it is not playing.
-			if (!game.getSoundtrackPlayer().isPlaying()) {
-				game.getSoundtrackPlayer().playNextSong();
-			}
-		}
-		
+		set(MUSIC, playMusic);
 	}
-	
+
 	/**
 	 * Sets whether sound effects should play.
 	 * @param playSounds True if sound effects should play, otherwise false.
 	 */
-	
+
 	public void toggleSounds(boolean playSounds) {
-		this.playSounds = playSounds;
-		
-		// Saves the settings file.
-		save();
+		set(SOUNDS, playSounds);
+	}
+
+	/**
+	 * Gets the address of the online leaderboard.
+	 * @return The address, or an empty string if the online <br>
+	 * leaderboard is not used.
+	 */
+
+	public String getLeaderboardUrl() {
+		return get(LEADERBOARD_URL);
+	}
+
+	/**
+	 * Determines whether the healthbars of enemies with full health <br>
+	 * should be shown.
+	 * @return True if they should be shown, otherwise false.
+	 */
+
+	public boolean areFullHealthbarsShown() {
+		return get(FULL_HEALTHBARS);
+	}
+
+	/**
+	 * Sets whether the healthbars of enemies with full health should be shown.
+	 * @param showFullHealthbars True if they should be shown, otherwise false.
+	 */
+
+	public void toggleFullHealthbars(boolean showFullHealthbars) {
+		set(FULL_HEALTHBARS, showFullHealthbars);
+	}
+
+	/**
+	 * Gets the volume of a sound category.
+	 * @param category The sound category.
+	 * @return The volume, from 0 to 100.
+	 */
+
+	public int getVolume(SoundCategory category) {
+		return get(getVolumeSetting(category));
+	}
+
+	/**
+	 * Sets the volume of a sound category.
+	 * @param category The sound category.
+	 * @param volume The new volume, from 0 to 100.
+	 */
+
+	public void setVolume(SoundCategory category, int volume) {
+		set(getVolumeSetting(category), volume);
 	}
 }
@@ -0,0 +1,214 @@
+package game;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The StartupProfiler records how long each part of starting the <br>
+ * game takes. <br> <br>
+ *
+ * Each phase is marked with {@link #mark(String)} when it finishes. <br>
+ * Once the main menu has been shown for the first time, a report <br>
+ * of every phase is written to the cache folder, and the time to the <br>
+ * first frame and to the main menu is added to a history file, so <br>
+ * startup times can be compared between versions.
+ *
+ * @author Elliott Vince
+ */
+
+public class StartupProfiler {
+
+	private static final String REPORT_PATH = "cache/startup-report.txt";
+	private static final String HISTORY_PATH = "cache/startup-history.csv";
+
+	// When the JVM started (in milliseconds since 1970).
+	private static final long jvmStartMillis = getJvmStartTime();
+
+	// When this class was loaded, which is when the launcher starts.
+	private static final long startNanos = System.nanoTime();
+	private static final long startMillis = System.currentTimeMillis();
+
+	// The recorded phases.
+	private static final List<String> phases = new ArrayList<String>();
+	private static final List<Long> phaseTimes = new ArrayList<Long>();
+
+	// The time to the first frame, and the first frame of the main menu (in nanoseconds).
+	private static long firstFrameNanos = -1;
+	private static long mainMenuNanos = -1;
+
+	private static volatile boolean finished = false;
+
+	/**
+	 * StartupProfiler only has static methods.
+	 */
+
+	private StartupProfiler() {
+	}
+
+	/**
+	 * Records that a phase of the startup has finished.
+	 * @param phase The name of the phase.
+	 */
+
+	public static synchronized void mark(String phase) {
+		if (finished) {
+			return;
+		}
+
+		phases.add(phase);
+		phaseTimes.add(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records that a frame has been shown. The report is written <br>
+	 * after the first frame of the main menu.
+	 * @param mainMenu Whether the frame showed the main menu.
+	 */
+
+	public static synchronized void frameShown(boolean mainMenu) {
+		if (finished) {
+			return;
+		}
+
+		if (firstFrameNanos < 0) {
+			mark("First frame shown");
+			firstFrameNanos = System.nanoTime() - startNanos;
+		}
+
+		if (mainMenu) {
+			mark("First main menu frame shown");
+			mainMenuNanos = System.nanoTime() - startNanos;
+			finished = true;
+
+			writeReport();
+		}
+	}
+
+	/**
+	 * Determines if the startup has finished.
+	 */
+
+	public static boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Gets the time from the launch to the first frame (in milliseconds).
+	 * @return The time, or -1 if no frame has been shown.
+	 */
+
+	public static synchronized long getTimeToFirstFrame() {
+		return firstFrameNanos < 0 ? -1 : getLaunchDelay() + firstFrameNanos / 1000000;
+	}
+
+	/**
+	 * Gets the time from the launch to the main menu (in milliseconds).
+	 * @return The time, or -1 if the main menu has not been shown.
+	 */
+
+	public static synchronized long getTimeToMainMenu() {
+		return mainMenuNanos < 0 ? -1 : getLaunchDelay() + mainMenuNanos / 1000000;
+	}
+
+	/**
+	 * Gets the time between the JVM starting and the launcher starting <br>
+	 * (in milliseconds), or 0 if the JVM's start time is not known.
+	 */
+
+	private static long getLaunchDelay() {
+		return jvmStartMillis > 0 ? Math.max(0, startMillis - jvmStartMillis) : 0;
+	}
+
+	/**
+	 * Gets when the JVM started, or 0 if it is not known.
+	 */
+
+	private static long getJvmStartTime() {
+		try {
+			return ManagementFactory.getRuntimeMXBean().getStartTime();
+		}
+		catch (RuntimeException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Writes the report and adds to the history on a background thread, <br>
+	 * so the main menu is not slowed down.
+	 */
+
+	private static void writeReport() {
+		final String report = createReport();
+		final String history = String.format(Locale.ROOT, "%d,%d,%d,%d",
+				System.currentTimeMillis(), getLaunchDelay(),
+				getTimeToFirstFrame(), getTimeToMainMenu());
+
+		System.out.print(report);
+
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				File reportFile = new File(REPORT_PATH);
+				File historyFile = new File(HISTORY_PATH);
+				reportFile.getParentFile().mkdirs();
+
+				try (PrintWriter writer = new PrintWriter(new FileWriter(reportFile))) {
+					writer.print(report);
+				}
+				catch (IOException e) {
+					System.out.println("Problem writing the startup report");
+				}
+
+				boolean newFile = !historyFile.isFile();
+
+				try (PrintWriter writer = new PrintWriter(new FileWriter(historyFile, true))) {
+					if (newFile) {
+						writer.println("timestamp,jvm_to_launch_ms,first_frame_ms,main_menu_ms");
+					}
+					writer.println(history);
+				}
+				catch (IOException e) {
+					System.out.println("Problem writing the startup history");
+				}
+			}
+
+		}, "startup-report");
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Creates the text of the report.
+	 */
+
+	private static String createReport() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Startup report\n");
+		builder.append(String.format(Locale.ROOT, "%-36s %10s %10s%n", "Phase", "Took (ms)", "At (ms)"));
+
+		long launchDelay = getLaunchDelay();
+		builder.append(String.format(Locale.ROOT, "%-36s %10d %10d%n", "JVM started to launch",
+				launchDelay, launchDelay));
+
+		long last = 0;
+		for (int i = 0; i < phases.size(); i++) {
+			long time = phaseTimes.get(i);
+			builder.append(String.format(Locale.ROOT, "%-36s %10.1f %10.1f%n", phases.get(i),
+					(time - last) / 1e6, launchDelay + time / 1e6));
+			last = time;
+		}
+
+		builder.append(String.format(Locale.ROOT, "Time to first frame: %d ms%n", getTimeToFirstFrame()));
+		builder.append(String.format(Locale.ROOT, "Time to main menu: %d ms%n", getTimeToMainMenu()));
+		return builder.toString();
+	}
+
+}
@@ -3,6 +3,7 @@ package gameobjects;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 
+import audio.Sound;
 import gamestates.PlayState;
 import gfx.Animation;
 import gfx.Animation.AnimationDirection;
@@ -75,6 +76,33 @@ public abstract class GameObject {
 		return height;
 	}
 	
+	/**
+	 * Gets the x position of the center of the game object.
+	 */
+	
+	public int getCenterX() {
+		return posX + width / 2;
+	}
+	
+	/**
+	 * Gets the y position of the center of the game object.
+	 */
+	
+	public int getCenterY() {
+		return posY + height / 2;
+	}
+	
+	/**
+	 * Plays a sound from the location of the game object. <br>
+	 * The sound is quieter the further it is from the camera, and it <br>
+	 * is not played at all if it is too far away to be heard.
+	 * @param sound The sound to be played.
+	 */
+	
+	public void playSound(Sound sound) {
+		playState.getGame().getAudioMixer().play(sound, getCenterX(), getCenterY());
+	}
+	
 	/**
 	 * Sets the location of the game object.
 	 * @param posX The gameobject's new x location.
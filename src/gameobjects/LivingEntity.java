@@ -1,7 +1,5 @@
 package gameobjects;
 
-import java.awt.Graphics2D;
-
 import gamestates.PlayState;
 import ui.Healthbar;
 
@@ -136,13 +134,12 @@ public abstract class LivingEntity extends GameObject {
 	}
 	
 	/**
-	 * Renders the LivingEntity to the screen.
+	 * Gets the healthbar of the LivingEntity. <br>
+	 * Healthbars are drawn by the PlayState's HealthbarRenderer.
 	 */
 	
-	@Override
-	public void draw(Graphics2D graphics) {
-		super.draw(graphics);
-		healthbar.update(playState, graphics);
+	public Healthbar getHealthbar() {
+		return healthbar;
 	}
 	
 	/**
@@ -3,17 +3,17 @@ package gameobjects.player;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
 
-import audio.MP3Player;
+import audio.Sound;
 import game.Game;
+import game.GameClock;
 import gameobjects.LivingEntity;
 import gameobjects.projectiles.Arrow;
-import gamestates.DeathState;
 import gamestates.PlayState;
 import gfx.Animation;
 import gfx.Animation.AnimationDirection;
 import gfx.AnimationEvent;
 import gfx.SpriteSheet;
-import input.PlayerController;
+import input.Controller;
 
 /**
  * The player is equipped with a bow and arrow and is constantly
@@ -25,7 +25,7 @@ import input.PlayerController;
 
 public class Player extends LivingEntity {
 
-	private PlayerController controller;
+	private Controller controller;
 	
 	private static final String WALKING_SPRITESHEET_PATH = 
 			"sprites/player/walking.png";
@@ -59,6 +59,12 @@ public class Player extends LivingEntity {
 	private Animation shootingDown;
 	private Animation shootingRight;
 	
+	// Every animation, so they can be restarted when a new game starts.
+	private Animation[] animations;
+	
+	// The delay (in milliseconds) of the shooting animations at the start of a game.
+	private long shootingDelay;
+	
 	// Movement variables
 	private boolean shooting;
 	private boolean moving;
@@ -89,7 +95,7 @@ public class Player extends LivingEntity {
 	 * @param maxHealth The maximum amount of health which the player should have.
 	 */
 	
-	public Player(PlayState playState, PlayerController controller, int posX, int posY, 
+	public Player(PlayState playState, Controller controller, int posX, int posY, 
 			int health, int maxHealth) {
 		
 		// Calls the parent class's constructor.
@@ -106,6 +112,33 @@ public class Player extends LivingEntity {
 		// Initalizes all of the player's animations.
 		initAnimations();
 		
+		// Sets the player's stats for the start of a game.
+		reset(posX, posY, health, maxHealth);
+		
+		// Set the color of the healthbar.
+		healthbar.setForegroundColor(Color.GREEN);
+	}
+	
+	/**
+	 * Resets the player for a new game, as if they had just been <br>
+	 * created. The sprite sheets and animations are reused.
+	 * @param posX The x location where the player should spawn.
+	 * @param posY The y location where the player should spawn.
+	 * @param health The amount of health which the player should start with.
+	 * @param maxHealth The maximum amount of health which the player should have.
+	 */
+	
+	public void reset(int posX, int posY, int health, int maxHealth) {
+		setLocation(posX, posY);
+		this.health = health;
+		this.maxHealth = maxHealth;
+		
+		// Starts every animation from its first frame, at the normal attack speed.
+		for (Animation animation : animations) {
+			animation.restart();
+		}
+		setAttackSpeed((int) shootingDelay);
+		
 		// Initializes and sets default animations / directions.
 		setAnimation(idleRight);
 		currentDirection = AnimationDirection.RIGHT;
@@ -114,6 +147,7 @@ public class Player extends LivingEntity {
 		// Sets the speed of the player to twice the default speed.
 		speed = 2;
 		moving = false;
+		shooting = false;
 		
 		// Sets the player's score.
 		score = 0;
@@ -134,9 +168,6 @@ public class Player extends LivingEntity {
 		// Sets the ammo that the player starts with.
 		maxAmmoCount = 200;
 		ammoCount = maxAmmoCount;
-		
-		// Set the color of the healthbar.
-		healthbar.setForegroundColor(Color.GREEN);
 	}
 	
 	/**
@@ -219,6 +250,13 @@ public class Player extends LivingEntity {
 			
 		});
 		shootingRight.setDelay((long) (shootingRight.getDelay() / 1.5));
+		shootingDelay = shootingRight.getDelay();
+		
+		animations = new Animation[] {
+				idleUp, idleLeft, idleDown, idleRight,
+				walkingUp, walkingLeft, walkingDown, walkingRight,
+				shootingUp, shootingLeft, shootingDown, shootingRight
+		};
 	}
 	
 	/**
@@ -404,9 +442,7 @@ public class Player extends LivingEntity {
 		playState.addGameObject(arrow);
 		
 		// Plays the shooting sound effect.
-		MP3Player audioPlayer = new MP3Player(playState.getGame(), 
-				"resources/audio/sfx/shoot-arrow.mp3");
-		audioPlayer.play();
+		playSound(Sound.SHOOT_ARROW);
 			
 		/*
 		 * Moves the animation to the next frame.
@@ -429,7 +465,7 @@ public class Player extends LivingEntity {
 		super.damage(amount);
 		
 		// Sets the current time as the time since last damage.
-		timeSinceLastDamage = System.currentTimeMillis();
+		timeSinceLastDamage = GameClock.getTime();
 	}
 	
 	/**
@@ -448,7 +484,7 @@ public class Player extends LivingEntity {
 	 */
 	
 	public boolean isHitCooldownFinished() {
-		return timeSinceLastDamage + hitCooldown * 1000 < System.currentTimeMillis();
+		return timeSinceLastDamage + hitCooldown * 1000 < GameClock.getTime();
 	}
 	
 	/**
@@ -570,12 +606,10 @@ public class Player extends LivingEntity {
 		game.getSoundtrackPlayer().stop();
 		
 		// Plays the death sound.
-		MP3Player soundPlayer = new MP3Player(playState.getGame(),
-				"resources/audio/music/gameover.mp3");
-		soundPlayer.play();
+		game.getAudioMixer().play(Sound.GAME_OVER);
 		
 		// Opens the death state.
-		game.setCurrentState(new DeathState(playState, game, game.getInput()));
+		game.getStateManager().showDeathScreen();
 		
 	}
 		
@@ -1,15 +1,13 @@
 package gameobjects.powerups;
 
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
+import assets.AssetManager;
+import game.GameClock;
 import gameobjects.player.Player;
 import gamestates.PlayState;
+import util.Methods;
 
 /**
  * Powerups will be used to help the player survive. <br>
@@ -66,7 +64,7 @@ public class Powerup {
 		this.powerupType = type;
 		
 		// Initializes the spawn time.
-		spawnTime = System.currentTimeMillis();
+		spawnTime = GameClock.getTime();
 		
 		// Initializes the powerup.
 		init();
@@ -82,26 +80,7 @@ public class Powerup {
 		
 		// Initializes the image of the powerup.
 		
-		try {
-			if (powerupType == PowerupType.HASTE) {
-				image = ImageIO.read(new File
-						("resources/sprites/powerups/hastepotion.png"));
-			}
-			else if (powerupType == PowerupType.MAX_AMMO) {
-				image = ImageIO.read(new File
-						("resources/sprites/powerups/maxammo.png"));
-			}
-			else if (powerupType == PowerupType.MAX_HEALTH) {
-				image = ImageIO.read(new File
-						("resources/sprites/powerups/maxhealth.png"));
-			}
-			else if (powerupType == PowerupType.STRENGTH) {
-				image = ImageIO.read(new File
-						("resources/sprites/powerups/strengthpotion.png"));
-			}
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		image = AssetManager.getImage(powerupType.getPath());
 		
 		// Sets the width and height of the powerup.
 		this.width = image.getWidth();
@@ -115,15 +94,9 @@ public class Powerup {
 	public void update() {
 		
 		if (!active) {
-			// Gets the player's bounds.
-			Rectangle playerRect = new Rectangle(player.getPosX(), player.getPosY(),
-					player.getWidth(), player.getHeight());
-			
-			// Gets the powerup's bounds.
-			Rectangle powerupRect = new Rectangle(posX, posY, width, height);
-			
 			// Applies the powerup if the player collides with it.
-			if (playerRect.intersects(powerupRect)) {
+			if (Methods.intersects(player.getPosX(), player.getPosY(), player.getWidth(),
+					player.getHeight(), posX, posY, width, height)) {
 				// Applies the powerup to the player.
 				active = true;
 				applyPowerup();
@@ -133,7 +106,7 @@ public class Powerup {
 			// Removes the powerup if it's timer has finished.
 			
 			if (powerupType.hasDuration()) {
-				int elapsedTime = (int) ((System.currentTimeMillis() - startTime) / 1000);
+				int elapsedTime = (int) ((GameClock.getTime() - startTime) / 1000);
 				
 				if (elapsedTime >= powerupType.getDuration()) {
 					// The timer has expired, so the powerup is removed.
@@ -149,7 +122,7 @@ public class Powerup {
 		}
 		
 		// Removes the powerup if its spawn time has elapsed.
-		int elapsedTime = (int) (System.currentTimeMillis() - spawnTime) / 1000;
+		int elapsedTime = (int) (GameClock.getTime() - spawnTime) / 1000;
 		if (elapsedTime >= MAX_SPAWN_TIME) {
 			playState.removePowerup(this);
 		}
@@ -167,15 +140,6 @@ public class Powerup {
 		}
 	}
 	
-	/**
-	 * Sets the time (in milliseconds) since the last spawn occured. <br>
-	 * <b><u>NOTE:</b></u> This should only be used while the game is paused.
-	 */
-	
-	public void updateSpawnTime() {
-		this.spawnTime = System.currentTimeMillis() - spawnTime;
-	}
-	
 	/**
 	 * Applies the powerup to the player.
 	 */
@@ -185,7 +149,7 @@ public class Powerup {
 		
 		if (duration > 0) {
 			// Starts the timer if the powerup has a duration.
-			startTime = System.currentTimeMillis();
+			startTime = GameClock.getTime();
 		}
 		
 		if (powerupType == PowerupType.HASTE) {
@@ -218,6 +182,38 @@ public class Powerup {
 		}
 	}
 	
+	/**
+	 * Gets the x location of the powerup.
+	 */
+	
+	public int getPosX() {
+		return posX;
+	}
+	
+	/**
+	 * Gets the y location of the powerup.
+	 */
+	
+	public int getPosY() {
+		return posY;
+	}
+	
+	/**
+	 * Gets the type of the powerup.
+	 */
+	
+	public PowerupType getType() {
+		return powerupType;
+	}
+	
+	/**
+	 * Determines if the player has picked up the powerup.
+	 */
+	
+	public boolean isActive() {
+		return active;
+	}
+	
 	/**
 	 * Gets the width of the powerup's image.
 	 */
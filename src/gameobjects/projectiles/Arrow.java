@@ -1,15 +1,16 @@
 package gameobjects.projectiles;
 
-import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.util.List;
 
-import audio.MP3Player;
+import audio.Sound;
 import gameobjects.GameObject;
 import gameobjects.LivingEntity;
 import gamestates.PlayState;
 import gfx.Animation;
 import gfx.Animation.AnimationDirection;
 import gfx.SpriteSheet;
+import util.Methods;
 
 /**
  * A projectile that deals damage when it interacts with a LivingEntity.
@@ -121,9 +122,7 @@ public class Arrow extends Projectile {
 		if (object instanceof LivingEntity && !object.equals(source)) {
 			
 			// Plays the hit sound effect.
-			MP3Player audioPlayer = new MP3Player(playState.getGame(),
-					"resources/audio/sfx/arrow-hit.mp3");
-			audioPlayer.play();
+			playSound(Sound.ARROW_HIT);
 			
 			// Damages the entity and removes the projectle.
 			LivingEntity entity = (LivingEntity) object;
@@ -204,14 +203,14 @@ public class Arrow extends Projectile {
 		 * - Detect and handle collisions with any of the gameobjects.
 		 */
 		
-		Rectangle arrowRect = new Rectangle(posX, posY, width, height);
+		List<GameObject> gameObjects = playState.getGameObjects();
 		
 		// Iterates through each game object.
-		for (GameObject gameObject : playState.getGameObjects()) {
-			Rectangle gameObjectRect = new Rectangle(gameObject.getPosX(),
-					gameObject.getPosY(), gameObject.getWidth(), gameObject.getHeight());
+		for (int index = 0; index < gameObjects.size(); index++) {
+			GameObject gameObject = gameObjects.get(index);
 			
-			if (arrowRect.intersects(gameObjectRect)) {
+			if (Methods.intersects(posX, posY, width, height, gameObject.getPosX(),
+					gameObject.getPosY(), gameObject.getWidth(), gameObject.getHeight())) {
 				
 				/*
 				 * The arrow rectangle is touching some part of the 
@@ -1,9 +1,10 @@
 package gameobjects.skeleton;
 
 import java.awt.image.BufferedImage;
-import java.util.Random;
+import java.util.SplittableRandom;
 
-import audio.MP3Player;
+import audio.Sound;
+import game.GameClock;
 import gameobjects.LivingEntity;
 import gameobjects.player.Player;
 import gameobjects.powerups.Powerup;
@@ -104,7 +105,7 @@ public class ArcherSkeleton extends LivingEntity {
 		 * calculations.
 		 */
 		
-		spawnTime = System.currentTimeMillis();
+		spawnTime = GameClock.getTime();
 	}
 	
 	/**
@@ -412,9 +413,7 @@ public class ArcherSkeleton extends LivingEntity {
 		playState.addGameObject(arrow);
 		
 		// Plays the shooting sound effect.
-		MP3Player audioPlayer = new MP3Player(playState.getGame(),
-				"resources/audio/sfx/shoot-arrow.mp3");
-		audioPlayer.play();
+		playSound(Sound.SHOOT_ARROW);
 	}
 	
 	/**
@@ -448,7 +447,7 @@ public class ArcherSkeleton extends LivingEntity {
 		
 		int score = MAX_SCORE_PER_KILL;
 		
-		long deathTime = System.currentTimeMillis();
+		long deathTime = GameClock.getTime();
 		
 		// Determines how many seconds have elapsed.
 		int elapsedTime = (int) (deathTime - spawnTime) / 1000;
@@ -473,7 +472,7 @@ public class ArcherSkeleton extends LivingEntity {
 		playState.getLevelManager().onSkeletonDeath();
 		
 		// A max ammo powerup spawns with a 50% chance.
-		Random random = new Random();
+		SplittableRandom random = playState.getRandom().getLootRandom();
 		
 		int chance = random.nextInt(100) + 1;
 		if (chance <= 50) {
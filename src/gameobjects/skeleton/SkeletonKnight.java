@@ -1,9 +1,10 @@
 package gameobjects.skeleton;
 
 import java.awt.image.BufferedImage;
-import java.util.Random;
+import java.util.SplittableRandom;
 
-import audio.MP3Player;
+import audio.Sound;
+import game.GameClock;
 import gameobjects.LivingEntity;
 import gameobjects.player.Player;
 import gameobjects.powerups.Powerup;
@@ -111,7 +112,7 @@ public class SkeletonKnight extends LivingEntity {
 		 * calculations.
 		 */
 		
-		spawnTime = System.currentTimeMillis();
+		spawnTime = GameClock.getTime();
 		
 	}
 	
@@ -337,9 +338,7 @@ public class SkeletonKnight extends LivingEntity {
 	private void attack() {
 		
 		// Plays the attacking sound.
-		MP3Player audioPlayer = new MP3Player(playState.getGame(),
-				"resources/audio/sfx/sword-attack.mp3");
-		audioPlayer.play();
+		playSound(Sound.SWORD_ATTACK);
 				
 		// Sets the skeleton's direction.
 				
@@ -396,7 +395,7 @@ public class SkeletonKnight extends LivingEntity {
 		
 		int score = MAX_SCORE_PER_KILL;
 		
-		long deathTime = System.currentTimeMillis();
+		long deathTime = GameClock.getTime();
 		
 		// Determines how many seconds have elapsed.
 		int elapsedTime = (int) (deathTime - spawnTime) / 1000;
@@ -421,7 +420,7 @@ public class SkeletonKnight extends LivingEntity {
 		playState.getLevelManager().onSkeletonDeath();
 		
 		// A strength powerup spawns with a 50% chance.
-		Random random = new Random();
+		SplittableRandom random = playState.getRandom().getLootRandom();
 
 		int chance = random.nextInt(100) + 1;
 		if (chance <= 50) {
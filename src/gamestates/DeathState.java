@@ -5,15 +5,23 @@ import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
 
-import javax.swing.JOptionPane;
-
 import game.Game;
+import game.ScoreEntry;
 import input.Input;
+import ui.components.UIButton;
+import ui.components.UILabel;
+import ui.components.UITextField;
+import ui.containers.UIPanel;
+import ui.events.ButtonClickAction;
 
 /**
  * The Death State is displayed when the player dies. <br>
  * It handles the leaderboard system, as well as returning to <br>
- * the main menu.
+ * the main menu. <br> <br>
+ * 
+ * If the player gets a high score, they type their name in a <br>
+ * panel drawn on the game screen. The game loop keeps running <br>
+ * while they type.
  * 
  * @author Elliott Vince
  *
@@ -31,12 +39,22 @@ public class DeathState extends GameState {
 	// How long this screen will be displayed (in seconds).
 	private static final int DISPLAY_TIME = 5;
 	
+	// The maximum length of a name.
+	private static final int MAX_NAME_LENGTH = 10;
+	
 	private PlayState playState;
 	private Game game;
 	private Input input;
 	
 	private String username;
 	
+	// The panel where the player enters their name.
+	private UIPanel namePanel;
+	private UITextField nameField;
+	
+	// Whether the player is entering their name.
+	private volatile boolean enteringName;
+	
 	// The time when this screen was first shown (in milliseconds).
 	private long startTime;
 	
@@ -55,18 +73,71 @@ public class DeathState extends GameState {
 		this.game = game;
 		this.input = input;
 		
+		// Creates the name entry panel.
+		createNamePanel();
+		
 		// Initializes the death state.
 		init();
 	}
 	
 	/**
-	 * Gets the player to input a name using an input dialog.
-	 * @return The player's name. 
+	 * Creates the panel where the player enters their name.
 	 */
 	
-	public String getName() {
-		return JOptionPane.showInputDialog(game.getFrame(), "Enter your name", 
-			"Leaderboard", JOptionPane.QUESTION_MESSAGE);
+	private void createNamePanel() {
+		namePanel = new UIPanel();
+		namePanel.setLocation(Game.WIDTH / 2 - namePanel.getWidth() / 2,
+				Game.HEIGHT / 2 - namePanel.getHeight() / 2);
+		
+		// Initializes the title label.
+		UILabel titleLabel = new UILabel("High Score!");
+		titleLabel.setFontSize(20);
+		namePanel.add(titleLabel);
+		titleLabel.setLocation(titleLabel.getCenteredX(), 12);
+		
+		// Initializes the prompt label.
+		UILabel promptLabel = new UILabel("Enter your name");
+		promptLabel.setFontSize(16);
+		namePanel.add(promptLabel);
+		promptLabel.setLocation(promptLabel.getCenteredX(), 150);
+		
+		// Initializes the name field.
+		nameField = new UITextField(MAX_NAME_LENGTH);
+		nameField.setFontSize(20);
+		namePanel.add(nameField);
+		nameField.setLocation(nameField.getCenteredX(), 210);
+		
+		// Initializes the submit button.
+		UIButton submitButton = new UIButton();
+		namePanel.add(submitButton);
+		submitButton.setText("Submit");
+		submitButton.setLocation(submitButton.getCenteredX(), 320);
+		
+		submitButton.setActionOnClick(new ButtonClickAction() {
+			
+			@Override
+			public void run() {
+				// The name is read on the next update.
+				nameField.submit();
+			}
+			
+		});
+		
+		// Initializes the skip button.
+		UIButton skipButton = new UIButton();
+		namePanel.add(skipButton);
+		skipButton.setText("Skip");
+		skipButton.setLocation(skipButton.getCenteredX(), 390);
+		
+		skipButton.setActionOnClick(new ButtonClickAction() {
+			
+			@Override
+			public void run() {
+				// Returns to the main menu on the next update.
+				nameField.cancel();
+			}
+			
+		});
 	}
 
 	/**
@@ -76,6 +147,7 @@ public class DeathState extends GameState {
 	@Override
 	public void init() {
 		this.username = null;
+		this.enteringName = false;
 		
 		// Initializes the start time.
 		startTime = System.currentTimeMillis();
@@ -88,6 +160,20 @@ public class DeathState extends GameState {
 	@Override
 	public void update() {
 		
+		// Reads the name that the player is typing.
+		if (enteringName) {
+			nameField.update(input);
+			
+			if (nameField.isSubmitted()) {
+				String name = nameField.getText().trim();
+				finish(name.isEmpty() ? null : name);
+			}
+			else if (nameField.isCancelled()) {
+				finish(null);
+			}
+			return;
+		}
+		
 		/*
 		 * The game over screen is displayed for 5 seconds
 		 * before returning to the home screen or updating
@@ -98,50 +184,67 @@ public class DeathState extends GameState {
 		elapsedTime = (int) (System.currentTimeMillis() - startTime) / 1000;
 		
 		if (elapsedTime >= DISPLAY_TIME) {
-			/*
-			 * Either opens the leaderboard or returns to
-			 * the main menu if the screen has been displayed.
-			 * for enough time.
-			 */
-			
-			MainMenuState menu = new MainMenuState(game, input);
 			
-			if (username == null && playState.getPlayer().getScore() >
-					game.getLeaderboard().getScore(9)) {
-		
+			if (!playState.isReplay() && game.getScoreLog().isLeaderboardScore(playState.getPlayer().getScore())) {
+				
 				/*
 				 * Asks the user to input a name if their score will
 				 * be added to the leaderboard. 
 				 */
-				username = getName();
-				
-				/*
-				 * Opens the game's leaderboard panel if the player
-				 * achieved a high score.
-				 */
 				
-				if (game.getLeaderboard().sortNewEntry(username, 
-						playState.getPlayer().getScore())) {
-					 
-					// Saves the leaderboard to the file.
-					game.getLeaderboard().saveToFile();
-					
-					// Opens the leaderboard.
-					menu.openLeaderboard();
-				
-				}
+				enteringName = true;
+				nameField.clear();
+				input.setTextInputEnabled(true);
 			}
 			else {
-				/*
-				 * Opens the game's navigation panel if the player
-				 * did not get a high score.
-				 */
-				menu.openNavigationPanel();
+				// Returns to the main menu.
+				finish(null);
 			}
+		}
+	}
+	
+	/**
+	 * Saves the run and returns to the main menu.
+	 * @param name The player's name, or null if they did not enter one.
+	 */
+	
+	private void finish(String name) {
+		enteringName = false;
+		input.setTextInputEnabled(false);
+		username = name;
+		
+		MainMenuState menu = game.getStateManager().getMainMenu();
+		int score = playState.getPlayer().getScore();
+		
+		// Replays have already been counted when they were played.
+		if (!playState.isReplay()) {
+			
+			// Adds the run to the score log, and sends it to the online leaderboard.
+			ScoreEntry run = game.getScoreLog().record(username, score,
+					playState.getLevelManager().getCurrentLevel(), playState.getRunTime());
+			game.getOnlineLeaderboard().submit(run);
+		}
+		
+		// A name is only asked for if the score is on the leaderboard.
+		if (username != null) {
+			
+			/*
+			 * Opens the game's leaderboard panel if the player
+			 * achieved a high score.
+			 */
 			
-			// Returns to the main menu.
-			game.setCurrentState(menu);
+			menu.openLeaderboard();
 		}
+		else {
+			/*
+			 * Opens the game's navigation panel if the player
+			 * did not get a high score.
+			 */
+			menu.openNavigationPanel();
+		}
+		
+		// Returns to the main menu.
+		game.getStateManager().set(menu);
 	}
 
 	/**
@@ -164,6 +267,10 @@ public class DeathState extends GameState {
 		graphics.drawString(text, Game.WIDTH / 2 - textWidth / 2, 
 				Game.HEIGHT / 2 - textHeight / 2);
 		
+		// Draws the name entry panel.
+		if (enteringName) {
+			namePanel.render(graphics);
+		}
 	}
 
 	/**
@@ -178,12 +285,14 @@ public class DeathState extends GameState {
 	}
 
 	/**
-	 * Handles mouse click events, but this method is not used
-	 * in this GameState.
+	 * Handles mouse click events for the name entry panel.
 	 */
 	
 	@Override
 	public void mouseClicked(MouseEvent e) {
+		if (enteringName) {
+			namePanel.mouseClicked(e);
+		}
 	}
 
 }
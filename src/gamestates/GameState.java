@@ -12,8 +12,8 @@ import java.awt.event.MouseEvent;
  * method that will <br>
  * be called every time the game updates. <br>
  * 
- * In the game class, there is a GameState object called currentState, <br>
- * which is the only game state that will be updated every update.
+ * The game's StateManager keeps a stack of game states. Only the state <br>
+ * at the top of the stack is updated every update.
  * 
  * @author Elliott Vince
  */
@@ -53,5 +53,32 @@ public abstract class GameState {
 	 */
 	
 	public abstract void mouseClicked(MouseEvent e);
+	
+	/**
+	 * This method is called when the state is no longer at the top <br>
+	 * of the state stack. Timers that should not run while the state <br>
+	 * is hidden should be stopped here.
+	 */
+	
+	public void onSuspend() {
+	}
+	
+	/**
+	 * This method is called when the state becomes the top of the <br>
+	 * state stack, including the first time it is shown.
+	 */
+	
+	public void onResume() {
+	}
+	
+	/**
+	 * Determines if the state is drawn on top of the state beneath it. <br>
+	 * By default, states cover the entire screen.
+	 * @return True if the state beneath should also be drawn, otherwise false.
+	 */
+	
+	public boolean isOverlay() {
+		return false;
+	}
 
 }
@@ -0,0 +1,119 @@
+package gamestates;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+
+import assets.AssetManager;
+import game.Game;
+import game.StartupProfiler;
+
+/**
+ * The LoadingState is displayed while the game's assets are <br>
+ * being loaded. It shows a progress bar and opens the next <br>
+ * state once every asset is in memory.
+ *
+ * @author Elliott Vince
+ */
+
+public class LoadingState extends GameState {
+
+	private static final Color BACKGROUND_COLOR = Color.BLACK;
+	private static final Color TEXT_COLOR = Color.WHITE;
+	private static final Color BAR_COLOR = new Color(170, 30, 30);
+	private static final Font DEFAULT_FONT = new Font("Arial", Font.PLAIN, 28);
+
+	// Progress Bar Dimensions
+	private static final int BAR_WIDTH = 400;
+	private static final int BAR_HEIGHT = 20;
+
+	private static final String TEXT = "Loading...";
+
+	// The action that occurs once every asset is loaded.
+	private Runnable onLoaded;
+
+	private boolean finished;
+
+	/**
+	 * Creates a new LoadingState and starts loading the game's assets.
+	 * @param onLoaded The action that occurs once every asset is loaded. <br>
+	 * This is usually used to open the next state.
+	 */
+
+	public LoadingState(Runnable onLoaded) {
+		this.onLoaded = onLoaded;
+
+		// Initializes the loading state.
+		init();
+	}
+
+	/**
+	 * Starts the preload if it has not started already.
+	 */
+
+	@Override
+	public void init() {
+		finished = false;
+		AssetManager.preload();
+	}
+
+	/**
+	 * Opens the next state once every asset is loaded.
+	 */
+
+	@Override
+	public void update() {
+		if (!finished && AssetManager.isLoaded()) {
+			finished = true;
+			StartupProfiler.mark("Assets preloaded");
+			onLoaded.run();
+		}
+	}
+
+	/**
+	 * Draws the loading text and the progress bar.
+	 */
+
+	@Override
+	public void render(Graphics2D graphics) {
+		graphics.setFont(DEFAULT_FONT);
+		graphics.setColor(TEXT_COLOR);
+
+		// Centers the text above the progress bar.
+		int textWidth = graphics.getFontMetrics().stringWidth(TEXT);
+		graphics.drawString(TEXT, Game.WIDTH / 2 - textWidth / 2,
+				Game.HEIGHT / 2 - BAR_HEIGHT);
+
+		int barX = Game.WIDTH / 2 - BAR_WIDTH / 2;
+		int barY = Game.HEIGHT / 2;
+
+		// Fills the part of the bar that has loaded.
+		graphics.setColor(BAR_COLOR);
+		graphics.fillRect(barX, barY,
+				(int) (BAR_WIDTH * AssetManager.getProgress()), BAR_HEIGHT);
+
+		// Draws the border of the bar.
+		graphics.setColor(TEXT_COLOR);
+		graphics.drawRect(barX, barY, BAR_WIDTH, BAR_HEIGHT);
+	}
+
+	/**
+	 * Draws the black background.
+	 */
+
+	@Override
+	public void draw(Graphics2D graphics) {
+		graphics.setColor(BACKGROUND_COLOR);
+		graphics.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
+	}
+
+	/**
+	 * Mouse clicks are ignored while loading.
+	 */
+
+	@Override
+	public void mouseClicked(MouseEvent e) {
+	}
+
+}
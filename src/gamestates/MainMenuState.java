@@ -5,12 +5,8 @@ import java.awt.Image;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
-import javax.swing.ImageIcon;
 
+import assets.AssetManager;
 import game.Game;
 import input.Input;
 import ui.components.UIButton;
@@ -38,6 +34,9 @@ public class MainMenuState extends GameState {
 	private static final String BACK_BTN_PATH =
 			"resources/ui/PrevButton.png";
 	
+	private static final String TITLE_LOGO_PATH =
+			"resources/ui/TitleLogo.png";
+	
 	private static final int MENU_Y_MARGIN = 45;
 	
 	private Image bgImage;
@@ -79,9 +78,9 @@ public class MainMenuState extends GameState {
 	
 	@Override
 	public void init() {
-		// Initializes and scales the background image.
-		this.bgImage = new ImageIcon(BACKGROUND_PATH).getImage()
-				.getScaledInstance(Game.WIDTH, Game.HEIGHT, Image.SCALE_SMOOTH);
+		// Gets the scaled background image.
+		this.bgImage = AssetManager.getScaledImage(BACKGROUND_PATH,
+				Game.WIDTH, Game.HEIGHT);
 		
 		// Initializes the title menu panel.
 		this.titlePanel = new UIPanel();
@@ -98,26 +97,15 @@ public class MainMenuState extends GameState {
 		// Initializes the instructions panel.
 		this.instructionsPanel = new InstructionsPanel();
 		
-		// Starts the soundtrack if it is not playing.
-		if (!game.getSoundtrackPlayer().isPlaying() && 
-				game.getSettings().isMusicEnabled()) {
-			game.getSoundtrackPlayer().playNextSong();
-		}
-				
 		/*
 		 * Initializes any images that the components use.
 		 */
 		
-		try {
-			// Initializes the title logo
-			this.titleLogo = ImageIO.read(new File("resources/ui/TitleLogo.png"));
-			
-			// Initializes the previous / next button images.
-			this.prevBtnImage = ImageIO.read(new File(BACK_BTN_PATH));
-			
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// Initializes the title logo
+		this.titleLogo = AssetManager.getImage(TITLE_LOGO_PATH);
+		
+		// Initializes the previous / next button images.
+		this.prevBtnImage = AssetManager.getImage(BACK_BTN_PATH);
 		
 		// Sets the location of the title logo
 		titleLogoX = Game.WIDTH / 2 - titleLogo.getWidth() / 2;
@@ -207,9 +195,23 @@ public class MainMenuState extends GameState {
 				
 				/*
 				 * Switches the game's current state to the PlayState.
-				 * This starts a new game.
+				 * This starts a new game. If the game's assets are still
+				 * loading, the loading screen is shown first.
 				 */
-				game.setCurrentState(new PlayState(game, input));
+				
+				if (AssetManager.isLoaded()) {
+					game.getStateManager().startNewGame();
+				}
+				else {
+					game.setCurrentState(new LoadingState(new Runnable() {
+
+						@Override
+						public void run() {
+							game.getStateManager().startNewGame();
+						}
+
+					}));
+				}
 
 			}
 
@@ -446,7 +448,7 @@ public class MainMenuState extends GameState {
 			public void run() {
 
 				// Resets the leaderboard.
-				game.getLeaderboard().reset();
+				game.getScoreLog().markReset();
 			}
 
 		});
@@ -566,13 +568,33 @@ public class MainMenuState extends GameState {
 		}
 	}
 	
+	/**
+	 * Starts the soundtrack when the menu is opened if it is not playing.
+	 */
+	
+	@Override
+	public void onResume() {
+		if (!game.getSoundtrackPlayer().isPlaying() && 
+				game.getSettings().isMusicEnabled() && !game.isHeadless()) {
+			game.getSoundtrackPlayer().playNextSong();
+		}
+	}
+	
+	/**
+	 * Opens the title screen.
+	 */
+	
+	public void openTitlePanel() {
+		hidePanels();
+		titlePanel.setVisible(true);
+	}
+	
 	/**
 	 * Opens the leaderboard.
 	 */
 
 	public void openLeaderboard() {
-		titlePanel.setVisible(false);
-		menuPanel.setVisible(false);
+		hidePanels();
 		leaderboardPanel.setVisible(true);
 	}
 	
@@ -581,9 +603,22 @@ public class MainMenuState extends GameState {
 	 */
 	
 	public void openNavigationPanel() {
-		titlePanel.setVisible(false);
+		hidePanels();
 		menuPanel.setVisible(true);
 	}
 	
+	/**
+	 * Hides every panel. The menu is reused, so the panel that was <br>
+	 * open last time must be hidden before another one is opened.
+	 */
+	
+	private void hidePanels() {
+		titlePanel.setVisible(false);
+		menuPanel.setVisible(false);
+		leaderboardPanel.setVisible(false);
+		controlsPanel.setVisible(false);
+		instructionsPanel.setVisible(false);
+	}
+	
 
 }
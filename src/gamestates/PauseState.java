@@ -0,0 +1,271 @@
+package gamestates;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+import assets.AssetManager;
+import game.Game;
+import input.Input;
+import ui.components.UIButton;
+import ui.components.UILabel;
+import ui.containers.UIPanel;
+import ui.events.ButtonClickAction;
+
+/**
+ * The PauseState is shown on top of the PlayState when the <br>
+ * player pauses the game. The game is drawn behind the pause <br>
+ * menu, but it does not update until the game is resumed.
+ *
+ * @author Elliott Vince
+ */
+
+public class PauseState extends GameState {
+
+	private static final int PAUSE_MENU_Y_OFFSET = 30;
+
+	// The semi-opaque background that covers the game.
+	private static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 0.75f);
+
+	private Game game;
+	private Input input;
+
+	/*
+	 * The background is drawn into an image once. Filling the screen
+	 * with a see-through color allocates a new raster every frame,
+	 * but drawing a see-through image does not.
+	 */
+
+	private BufferedImage background;
+
+	// Pause Menu
+	private UIPanel pauseMenu;
+
+	// Settings Buttons
+	private UIButton toggleMusicButton;
+	private UIButton toggleSoundsButton;
+
+	/**
+	 * Creates the pause menu.
+	 * @param game An instance of the game class.
+	 * @param input An instance of the input class.
+	 */
+
+	public PauseState(Game game, Input input) {
+		this.game = game;
+		this.input = input;
+		init();
+	}
+
+	/**
+	 * Initializes the pause menu and its buttons.
+	 */
+
+	@Override
+	public void init() {
+
+		// Initializes the background.
+		background = AssetManager.createImage(Game.WIDTH, Game.HEIGHT, Transparency.TRANSLUCENT);
+		Graphics2D backgroundGraphics = background.createGraphics();
+		backgroundGraphics.setColor(BACKGROUND_COLOR);
+		backgroundGraphics.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
+		backgroundGraphics.dispose();
+
+		// Initializes the pause menu.
+		pauseMenu = new UIPanel();
+		pauseMenu.setLocation(Game.WIDTH / 2 - pauseMenu.getImage().getWidth() / 2,
+				Game.HEIGHT / 2 - pauseMenu.getImage().getHeight() / 2);
+
+		// Initializes the pause menu label.
+		UILabel pauseLabel = new UILabel("Pause Menu");
+		pauseLabel.setFontSize(20);
+
+		pauseMenu.add(pauseLabel);
+		pauseLabel.setLocation(pauseLabel.getCenteredX(), 12);
+
+		// Initializes the resume button.
+		UIButton resumeButton = new UIButton();
+		pauseMenu.add(resumeButton);
+		resumeButton.setText("Resume");
+
+		// Sets the location of the resume button.
+		resumeButton.setLocation(resumeButton.getCenteredX(), pauseMenu.getHeight() / 2 -
+			resumeButton.getHeight() / 2 - PAUSE_MENU_Y_OFFSET * 2 -
+			resumeButton.getHeight() * 2);
+
+		// Adds an action to the button.
+		resumeButton.setActionOnClick(new ButtonClickAction() {
+
+			@Override
+			public void run() {
+				// Resumes the game
+				game.getStateManager().resume();
+			}
+
+		});
+
+		// Initializes the toggle sounds button.
+		toggleMusicButton = new UIButton();
+		pauseMenu.add(toggleMusicButton);
+
+		// Set the location of the toggle music button.
+		toggleMusicButton.setLocation(toggleMusicButton.getCenteredX(),
+			pauseMenu.getHeight() / 2 - toggleMusicButton.getHeight() / 2 -
+			PAUSE_MENU_Y_OFFSET - toggleMusicButton.getHeight());
+
+		// Adds an action to the button
+		toggleMusicButton.setActionOnClick(new ButtonClickAction() {
+
+			@Override
+			public void run() {
+				// Turns off the music.
+				game.getSettings().toggleMusic(!game.getSettings().isMusicEnabled());
+
+				// Updates the text.
+				updateButtonText();
+			}
+
+		});
+
+		// Initializes the toggle sounds button.
+		toggleSoundsButton = new UIButton();
+		pauseMenu.add(toggleSoundsButton);
+
+		// Set the location of the toggle sounds button.
+		toggleSoundsButton.setLocation(toggleSoundsButton.getCenteredX(),
+				pauseMenu.getHeight() / 2 - toggleSoundsButton.getHeight() / 2);
+
+		// Adds an action to the button
+		toggleSoundsButton.setActionOnClick(new ButtonClickAction() {
+
+			@Override
+			public void run() {
+				// Turns off the sounds.
+				game.getSettings().toggleSounds(!game.getSettings().areSoundsEnabled());
+
+				// Updates the text.
+				updateButtonText();
+			}
+
+		});
+
+		// Initializes the main menu button.
+		UIButton mainMenuButton = new UIButton();
+		pauseMenu.add(mainMenuButton);
+		mainMenuButton.setText("Main Menu");
+
+		// Set the location of the main menu button.
+		mainMenuButton.setLocation(mainMenuButton.getCenteredX(), pauseMenu.getHeight() / 2
+			+ mainMenuButton.getHeight() / 2  + PAUSE_MENU_Y_OFFSET);
+
+		// Adds an action to the button
+		mainMenuButton.setActionOnClick(new ButtonClickAction() {
+
+			@Override
+			public void run() {
+				// Ends the game and returns to the main menu.
+				game.getStateManager().openMainMenu();
+			}
+
+		});
+
+		// Initializes the exit button.
+		UIButton exitButton = new UIButton();
+		pauseMenu.add(exitButton);
+		exitButton.setText("Exit Game");
+
+		// Sets the location of the exit button.
+		exitButton.setLocation(exitButton.getCenteredX(), pauseMenu.getHeight() / 2
+			+ mainMenuButton.getHeight() / 2  + PAUSE_MENU_Y_OFFSET * 2 +
+			exitButton.getHeight());
+
+		// Adds an action to the button.
+		exitButton.setActionOnClick(new ButtonClickAction() {
+
+			@Override
+			public void run() {
+				System.exit(0);
+
+			}
+
+		});
+
+		updateButtonText();
+	}
+
+	/**
+	 * Updates the text of the settings buttons.
+	 */
+
+	private void updateButtonText() {
+		toggleMusicButton.setText("Music: " +
+			(game.getSettings().isMusicEnabled() == true ? "On" : "Off"));
+
+		toggleSoundsButton.setText("Sounds: " +
+			(game.getSettings().areSoundsEnabled() == true ? "On" : "Off"));
+	}
+
+	/**
+	 * Resumes the game if the player clicks escape.
+	 */
+
+	@Override
+	public void update() {
+		if (input.isKeyDown(KeyEvent.VK_ESCAPE)) {
+			game.getStateManager().resume();
+		}
+	}
+
+	/**
+	 * Draws the pause menu on top of the game.
+	 */
+
+	@Override
+	public void render(Graphics2D graphics) {
+		// Draws a semi-opaque black background.
+		graphics.drawImage(background, 0, 0, null);
+
+		// Draws the pause menu
+		pauseMenu.render(graphics);
+	}
+
+	/**
+	 * The pause menu does not have a background. <br>
+	 * The game is drawn behind it instead.
+	 */
+
+	@Override
+	public void draw(Graphics2D graphics) {
+	}
+
+	/**
+	 * Handles mouse clicking in the pause menu.
+	 */
+
+	@Override
+	public void mouseClicked(MouseEvent e) {
+		pauseMenu.mouseClicked(e);
+	}
+
+	/**
+	 * Updates the settings buttons when the menu is opened.
+	 */
+
+	@Override
+	public void onResume() {
+		updateButtonText();
+	}
+
+	/**
+	 * The pause menu is drawn on top of the game.
+	 */
+
+	@Override
+	public boolean isOverlay() {
+		return true;
+	}
+
+}
@@ -1,19 +1,19 @@
 package gamestates;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
-import javax.imageio.ImageIO;
-
+import assets.AssetManager;
 import game.Game;
+import game.GameClock;
+import game.Settings;
 import gameobjects.GameObject;
 import gameobjects.player.Player;
 import gameobjects.powerups.Powerup;
@@ -21,11 +21,15 @@ import gfx.Camera;
 import input.Input;
 import input.PlayerController;
 import levels.LevelManager;
+import profiling.AllocationTracker;
+import profiling.AllocationTracker.Section;
+import replay.Replay;
+import replay.ReplayController;
+import replay.ReplayPlayer;
+import replay.ReplayRecorder;
 import ui.HUD;
-import ui.components.UIButton;
-import ui.components.UILabel;
-import ui.containers.UIPanel;
-import ui.events.ButtonClickAction;
+import ui.HealthbarRenderer;
+import util.GameRandom;
 
 /**
  * The game is composed of only one level. <br>
@@ -37,8 +41,6 @@ import ui.events.ButtonClickAction;
 
 public class PlayState extends GameState {
 	
-	private static final int PAUSE_MENU_Y_OFFSET = 30;
-	
 	// Game Class
 	private Game game;
 	
@@ -60,6 +62,9 @@ public class PlayState extends GameState {
 	// HUD
 	private HUD hud;
 	
+	// Draws the healthbars of the living entities.
+	private HealthbarRenderer healthbarRenderer;
+	
 	// Camera
 	private Camera camera;
 	
@@ -72,11 +77,20 @@ public class PlayState extends GameState {
 	// Level Manager
 	private LevelManager levelManager;
 	
-	// Pause
-	private boolean paused;
+	// The random numbers of the current game.
+	private GameRandom random;
+	
+	// Reads the buttons that the player is holding.
+	private PlayerController playerController;
+	
+	// The player's controller, which holds the buttons of the current update.
+	private ReplayController controller;
 	
-	// Pause Menu
-	private UIPanel pauseMenu;
+	// Records the current game, or null if it is not recorded.
+	private volatile ReplayRecorder recorder;
+	
+	// Plays the current game from a replay, or null if it is played by the player.
+	private ReplayPlayer replayPlayer;
 	
 	/**
 	 * Creates the PlayState.
@@ -92,15 +106,12 @@ public class PlayState extends GameState {
 	}
 	
 	/**
-	 * Handles mouse clicking in the play state.
+	 * Handles mouse clicking in the play state, but this method
+	 * is not used in this GameState.
 	 */
 	
 	@Override
 	public void mouseClicked(MouseEvent e) {
-		if (paused) {
-			pauseMenu.mouseClicked(e);
-		}
-		
 	}
 
 	/**
@@ -110,28 +121,46 @@ public class PlayState extends GameState {
 	@Override
 	public void update() {
 		
-		// Toggles pause if the player clicks escape.
+		// Pauses the game if the player clicks escape.
 		if (input.isKeyDown(KeyEvent.VK_ESCAPE)) {
-			paused = !paused;
-
-			// Updates the LevelManager's spawn timer.
-			levelManager.updateLastSpawnTime();
+			ReplayRecorder recorder = this.recorder;
+			if (recorder != null) {
+				recorder.paused();
+			}
 			
+			game.getStateManager().pause();
+			return;
+		}
+		
+		// Returns to the main menu once every update of a replay has been played.
+		if (replayPlayer != null && replayPlayer.isFinished()) {
+			game.getStateManager().openMainMenu();
+			return;
 		}
 		
 		/*
-		 * The powerups need to be updated regardless if the game is
-		 * paused so their timers can update.
+		 * Reads the buttons once for the whole update, from the
+		 * keyboard and mouse or from the replay.
 		 */
 		
+		int buttons;
+		if (replayPlayer != null) {
+			buttons = replayPlayer.nextButtons();
+		}
+		else {
+			buttons = ReplayController.getButtons(playerController);
+		}
+		controller.setButtons(buttons);
+		
+		GameClock.tick();
+		
+		// Updates each powerup and removes it if necessary.
+		long allocations = AllocationTracker.begin();
+		
 		for (int i = 0; i < powerups.size(); i++) {
 			Powerup powerup = powerups.get(i);
 			powerup.update();
 			
-			if (paused) {
-				powerup.updateSpawnTime();
-			}
-			
 			if (powerupsToRemove.contains(powerup)) {
 				
 				// Removes the powerup from the playstate.
@@ -140,31 +169,55 @@ public class PlayState extends GameState {
 			}
 		}
 		
-		// The game updates if it is not paused.
+		AllocationTracker.end(Section.POWERUPS, allocations);
 		
-		if (!paused) {
+		// Updates each GameObject and removes it if necessary.
+		for (int index = 0; index < gameObjects.size(); index++) {
+			GameObject gameObject = gameObjects.get(index);
 			
-			// Updates each GameObject and removes it if necessary.
-			for (int index = 0; index < gameObjects.size(); index++) {
-				GameObject gameObject = gameObjects.get(index);
-				gameObject.update();
-				
-				if (objectsToRemove.contains(gameObject)) {
-					// Removes the object from the playstate.
-					gameObjects.remove(index);
-					objectsToRemove.remove(gameObject);
-				}
-				
-				// Update the camera.
-				camera.update();
-				
-				// Update the level manager
-				levelManager.update();
-				
-				// Update the HUD.
-				hud.update();
+			allocations = AllocationTracker.begin();
+			gameObject.update();
+			AllocationTracker.end(Section.GAME_OBJECTS, allocations);
+			
+			if (objectsToRemove.contains(gameObject)) {
+				// Removes the object from the playstate.
+				gameObjects.remove(index);
+				objectsToRemove.remove(gameObject);
+			}
+			
+			// Update the camera.
+			allocations = AllocationTracker.begin();
+			camera.update();
+			AllocationTracker.end(Section.CAMERA, allocations);
+			
+			// Update the level manager
+			allocations = AllocationTracker.begin();
+			levelManager.update();
+			AllocationTracker.end(Section.LEVELS, allocations);
+			
+			// Update the HUD.
+			allocations = AllocationTracker.begin();
+			hud.update();
+			AllocationTracker.end(Section.HUD, allocations);
+		}
+		
+		// Records the update, or checks that the replay played the same.
+		ReplayRecorder recorder = this.recorder;
+		if (recorder != null || replayPlayer != null) {
+			int checksum = Replay.computeChecksum(this);
+			
+			if (recorder != null) {
+				recorder.tick(buttons, checksum);
+			}
+			else {
+				replayPlayer.check(checksum);
 			}
 		}
+		
+		// Saves the replay if the game ended during this update.
+		if (game.getStateManager().getCurrentState() != this) {
+			finishRecording();
+		}
 	}
 
 	/**
@@ -181,21 +234,15 @@ public class PlayState extends GameState {
 			powerups.get(i).draw(graphics);
 		}
 		
+		// Draws every healthbar on top of the game objects.
+		healthbarRenderer.render(graphics);
+		
 		/*
 		 * Draws the HUD to the screen. This will be visible
 		 * throughout the entire game, even when it is paused. 
 		 */
 		
 		hud.render(graphics);
-		
-		if (paused) {
-			// Draws a semi-opaque black background.
-			graphics.setColor(new Color(0, 0, 0, 0.75f));
-			graphics.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
-			
-			// Draws the pause menu
-			pauseMenu.render(graphics);
-		}
 	}
 
 	/**
@@ -209,18 +256,16 @@ public class PlayState extends GameState {
 	}
 
 	/**
-	 * Initializes the play state.
+	 * Initializes the play state. <br>
+	 * The background and the bounds are only loaded once, and are
+	 * reused by every game.
 	 */
 	
 	@Override
 	public void init() {
 		
 		// Initialize the background image
-		try {
-			background = ImageIO.read(new File("resources/backgrounds/gamebg.png"));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		background = AssetManager.getImage("resources/backgrounds/gamebg.png");
 		
 		// Initializes the bounds of the map and the camera.
 		mapBounds = new Rectangle(191, 191, 1953, 1152);
@@ -235,148 +280,175 @@ public class PlayState extends GameState {
 		powerups = new ArrayList<Powerup>();
 		powerupsToRemove = new ArrayList<Powerup>();
 		
-		// Create the player
-		player = new Player(this, new PlayerController(input), 600, 600, 100, 100);
-		gameObjects.add(player);
-		
 		camera = new Camera(this, Game.WIDTH, Game.HEIGHT);
-		camera.setFocusedObject(player);
 		
-		// Initializes the LevelManager
-		levelManager = new LevelManager(this);
+		// Sounds in the game are heard from the center of the camera.
+		game.getAudioMixer().setListener(camera);
 		
-		// Initializes the HUD.
-		hud = new HUD(this);
+		healthbarRenderer = new HealthbarRenderer(this);
 		
-		// Sets paused to false
-		paused = false;
+		playerController = new PlayerController(input);
+		controller = new ReplayController();
 		
-		// Initializes the pause menu.
-		pauseMenu = new UIPanel();
-		pauseMenu.setLocation(Game.WIDTH / 2 - pauseMenu.getImage().getWidth() / 2,
-				Game.HEIGHT / 2 - pauseMenu.getImage().getHeight() / 2);
+		// Starts the first game.
+		reset();
+	}
+	
+	/**
+	 * Resets the play state so a new game can be played, with a <br>
+	 * new seed. The loaded images, lists, camera, player, <br>
+	 * LevelManager and HUD are reused.
+	 */
+	
+	public void reset() {
+		reset(GameRandom.createSeed());
+	}
+	
+	/**
+	 * Resets the play state so a new game can be played. <br>
+	 * Games with the same seed spawn the same skeletons and drop <br>
+	 * the same powerups.
+	 * @param seed The seed of the game's random numbers.
+	 */
+	
+	public void reset(long seed) {
+		reset(seed, null);
+	}
+	
+	/**
+	 * Resets the play state so a replay can be watched. The game <br>
+	 * is played with the replay's seed and buttons.
+	 * @param replay The replay.
+	 */
+	
+	public void startReplay(Replay replay) {
+		reset(replay.getSeed(), new ReplayPlayer(replay));
+	}
+	
+	/**
+	 * Resets the play state for a new game. <br>
+	 * The game is recorded if it is played by the player, and if <br>
+	 * replays are turned on.
+	 * @param seed The seed of the game's random numbers.
+	 * @param replayPlayer Plays the game from a replay, or null.
+	 */
+	
+	private void reset(long seed, ReplayPlayer replayPlayer) {
 		
-		// Initializes the pause menu label.
-		UILabel pauseLabel = new UILabel("Pause Menu");
-		pauseLabel.setFontSize(20);
+		// Saves the replay of the last game.
+		finishRecording();
 		
-		pauseMenu.add(pauseLabel);
-		pauseLabel.setLocation(pauseLabel.getCenteredX(), 12);
+		// Starts the clock before anything can use it.
+		GameClock.reset();
 		
-		// Initializes the resume button.
-		UIButton resumeButton = new UIButton();
-		pauseMenu.add(resumeButton);
-		resumeButton.setText("Resume");
-
-		// Sets the location of the resume button.
-		resumeButton.setLocation(resumeButton.getCenteredX(), pauseMenu.getHeight() / 2 - 
-			resumeButton.getHeight() / 2 - PAUSE_MENU_Y_OFFSET * 2 - 
-			resumeButton.getHeight() * 2);
-
-		// Adds an action to the button.
-		resumeButton.setActionOnClick(new ButtonClickAction() {
-
-			@Override
-			public void run() {
-				// Resumes the game
-				paused = false;
-				levelManager.updateLastSpawnTime();
-			}
-
-		});
+		// Creates the random numbers before anything can use them.
+		random = new GameRandom(seed);
 		
-		// Initializes the toggle sounds button.
-		UIButton toggleMusicButton = new UIButton();
-		pauseMenu.add(toggleMusicButton);
-		toggleMusicButton.setText("Music: " + 
-			(game.getSettings().isMusicEnabled() == true ? "On" : "Off"));
-
-		// Set the location of the toggle music button.
-		toggleMusicButton.setLocation(toggleMusicButton.getCenteredX(), 
-			pauseMenu.getHeight() / 2 - toggleMusicButton.getHeight() / 2 - 
-			PAUSE_MENU_Y_OFFSET - toggleMusicButton.getHeight());
-
-		// Adds an action to the button
-		toggleMusicButton.setActionOnClick(new ButtonClickAction() {
-
-			@Override
-			public void run() {
-				// Turns off the music.
-				game.getSettings().toggleMusic(!game.getSettings().isMusicEnabled());
-				
-				// Updates the text.
-				toggleMusicButton.setText("Music: " + 
-					(game.getSettings().isMusicEnabled() == true ? "On" : "Off"));
-			}
-
-		});
-
-		// Initializes the toggle sounds button.
-		UIButton toggleSoundsButton = new UIButton();
-		pauseMenu.add(toggleSoundsButton);
-		toggleSoundsButton.setText("Sounds: " + 
-				(game.getSettings().areSoundsEnabled() == true ? "On" : "Off"));
-
-		// Set the location of the toggle sounds button.
-		toggleSoundsButton.setLocation(toggleSoundsButton.getCenteredX(), 
-				pauseMenu.getHeight() / 2 - toggleSoundsButton.getHeight() / 2);
-
-		// Adds an action to the button
-		toggleSoundsButton.setActionOnClick(new ButtonClickAction() {
-
-			@Override
-			public void run() {
-				// Turns off the sounds.
-				game.getSettings().toggleSounds(!game.getSettings().areSoundsEnabled());
-
-				// Updates the text.
-				toggleSoundsButton.setText("Sounds: " + 
-					(game.getSettings().areSoundsEnabled() == true ? "On" : "Off"));
-			}
-
-		});
-
-		// Initializes the main menu button.
-		UIButton mainMenuButton = new UIButton();
-		pauseMenu.add(mainMenuButton);
-		mainMenuButton.setText("Main Menu");
+		// Removes every object from the last game.
+		gameObjects.clear();
+		objectsToRemove.clear();
+		powerups.clear();
+		powerupsToRemove.clear();
 		
-		// Set the location of the main menu button.
-		mainMenuButton.setLocation(mainMenuButton.getCenteredX(), pauseMenu.getHeight() / 2
-			+ mainMenuButton.getHeight() / 2  + PAUSE_MENU_Y_OFFSET);
+		/*
+		 * The player, LevelManager and HUD of the first game are
+		 * reused by every game after it, so their images and
+		 * animations are only created once.
+		 */
 		
-		// Adds an action to the button
-		mainMenuButton.setActionOnClick(new ButtonClickAction() {
-
-			@Override
-			public void run() {
-				// Ends the game and returns to the main menu.
-				game.setCurrentState(new MainMenuState(game, input));
-			}
-			
-		});
+		// Create the player
+		controller.setButtons(0);
+		if (player == null) {
+			player = new Player(this, controller, 600, 600, 100, 100);
+		}
+		else {
+			player.reset(600, 600, 100, 100);
+		}
+		gameObjects.add(player);
 		
-		// Initializes the exit button.
-		UIButton exitButton = new UIButton();
-		pauseMenu.add(exitButton);
-		exitButton.setText("Exit Game");
+		camera.setPosition(0, 0);
+		camera.setFocusedObject(player);
 		
-		// Sets the location of the exit button.
-		exitButton.setLocation(exitButton.getCenteredX(), pauseMenu.getHeight() / 2
-			+ mainMenuButton.getHeight() / 2  + PAUSE_MENU_Y_OFFSET * 2 + 
-			exitButton.getHeight());
+		// Initializes the LevelManager
+		if (levelManager == null) {
+			levelManager = new LevelManager(this);
+		}
+		else {
+			levelManager.reset();
+		}
 		
-		// Adds an action to the button.
-		exitButton.setActionOnClick(new ButtonClickAction() {
-
-			@Override
-			public void run() {
-				System.exit(0);
-				
-			}
-			
-		});
+		// Initializes the HUD.
+		if (hud == null) {
+			hud = new HUD(this);
+		}
+		else {
+			hud.reset();
+		}
+		
+		this.replayPlayer = replayPlayer;
 		
+		// Replays and games without a window are not recorded.
+		if (replayPlayer == null && !game.isHeadless() && game.getSettings().get(Settings.REPLAYS)) {
+			startRecording();
+		}
+	}
+	
+	/**
+	 * Starts recording the current game, even if it would not be <br>
+	 * recorded otherwise (eg. by a benchmark without a window). <br>
+	 * This must be called before the game's first update.
+	 * @return The recorder of the game.
+	 */
+	
+	public ReplayRecorder startRecording() {
+		finishRecording();
+		recorder = new ReplayRecorder(random.getSeed());
+		return recorder;
+	}
+	
+	/**
+	 * Saves the replay of the current game, if it is recorded. <br>
+	 * Nothing else is recorded until the next game starts. This is <br>
+	 * called when the game ends or is left.
+	 * @return The file of the replay once it is saved in the background, <br>
+	 * or null if nothing is saved.
+	 */
+	
+	public Future<File> finishRecording() {
+		ReplayRecorder recorder = this.recorder;
+		
+		if (recorder == null) {
+			return null;
+		}
+		
+		this.recorder = null;
+		return recorder.finish();
+	}
+	
+	/**
+	 * Determines if the current game is played from a replay.
+	 */
+	
+	public boolean isReplay() {
+		return replayPlayer != null;
+	}
+	
+	/**
+	 * Gets the player of the current replay, or null if the game <br>
+	 * is played by the player.
+	 */
+	
+	public ReplayPlayer getReplayPlayer() {
+		return replayPlayer;
+	}
+	
+	/**
+	 * Gets how long the current game has been played (in milliseconds). <br>
+	 * Time spent paused is not counted.
+	 */
+	
+	public long getRunTime() {
+		return GameClock.getTime();
 	}
 	
 	/**
@@ -421,6 +493,15 @@ public class PlayState extends GameState {
 		objectsToRemove.add(gameObject);
 	}
 	
+	/**
+	 * Gets the list of powerups that are currently
+	 * in the playstate.
+	 */
+	
+	public List<Powerup> getPowerups() {
+		return powerups;
+	}
+	
 	/**
 	 * Adds the specified powerup to the playstate.
 	 * @param powerup The powerup to be added.
@@ -484,5 +565,13 @@ public class PlayState extends GameState {
 	public LevelManager getLevelManager() {
 		return levelManager;
 	}
+	
+	/**
+	 * Gets the random numbers of the current game.
+	 */
+	
+	public GameRandom getRandom() {
+		return random;
+	}
 
 }
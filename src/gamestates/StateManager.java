@@ -0,0 +1,306 @@
+package gamestates;
+
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import game.Game;
+import game.StartupProfiler;
+import input.Input;
+import replay.Replay;
+import util.GameRandom;
+
+/**
+ * The StateManager keeps a stack of game states. <br>
+ * Only the state at the top of the stack is updated, but overlay <br>
+ * states (such as the pause menu) are drawn on top of the states <br>
+ * beneath them. <br> <br>
+ *
+ * The main menu, play, pause and death states are created once and <br>
+ * then reused, so switching between them never reloads their images.
+ *
+ * @author Elliott Vince
+ */
+
+public class StateManager {
+
+	private Game game;
+	private Input input;
+
+	// The stack of states. The last state in the list is the top.
+	private List<GameState> states;
+
+	// Retained States
+	private MainMenuState mainMenuState;
+	private PlayState playState;
+	private PauseState pauseState;
+	private DeathState deathState;
+
+	/**
+	 * Creates a new state manager with an empty stack.
+	 * @param game An instance of the game class.
+	 * @param input An instance of the input class.
+	 */
+
+	public StateManager(Game game, Input input) {
+		this.game = game;
+		this.input = input;
+		this.states = new ArrayList<GameState>();
+	}
+
+	/**
+	 * Gets the state at the top of the stack.
+	 * @return The current state, or null if the stack is empty.
+	 */
+
+	public GameState getCurrentState() {
+		if (states.isEmpty()) {
+			return null;
+		}
+		return states.get(states.size() - 1);
+	}
+
+	/**
+	 * Adds a state to the top of the stack. <br>
+	 * The previous state is suspended.
+	 * @param state The state to be added.
+	 */
+
+	public void push(GameState state) {
+		GameState current = getCurrentState();
+
+		if (current != null) {
+			current.onSuspend();
+		}
+
+		states.add(state);
+		focus(state);
+	}
+
+	/**
+	 * Removes the state at the top of the stack. <br>
+	 * The state beneath it is resumed.
+	 */
+
+	public void pop() {
+		if (states.isEmpty()) {
+			return;
+		}
+
+		states.remove(states.size() - 1).onSuspend();
+
+		GameState current = getCurrentState();
+		if (current != null) {
+			focus(current);
+		}
+	}
+
+	/**
+	 * Replaces every state in the stack with the specified state.
+	 * @param state The new state.
+	 */
+
+	public void set(GameState state) {
+		GameState current = getCurrentState();
+
+		if (current != null) {
+			current.onSuspend();
+		}
+
+		states.clear();
+		states.add(state);
+		focus(state);
+	}
+
+	/**
+	 * Resumes the specified state and sends the input to it.
+	 * @param state The state at the top of the stack.
+	 */
+
+	private void focus(GameState state) {
+		input.setGameState(state);
+		state.onResume();
+	}
+
+	/**
+	 * Gets the main menu. It is created the first time it is needed.
+	 */
+
+	public MainMenuState getMainMenu() {
+		if (mainMenuState == null) {
+			mainMenuState = new MainMenuState(game, input);
+			StartupProfiler.mark("Main menu built");
+		}
+		return mainMenuState;
+	}
+
+	/**
+	 * Gets the play state. It is created the first time it is needed.
+	 */
+
+	public PlayState getPlayState() {
+		if (playState == null) {
+			playState = new PlayState(game, input);
+		}
+		return playState;
+	}
+
+	/**
+	 * Gets the pause menu. It is created the first time it is needed.
+	 */
+
+	public PauseState getPauseState() {
+		if (pauseState == null) {
+			pauseState = new PauseState(game, input);
+		}
+		return pauseState;
+	}
+
+	/**
+	 * Gets the death screen. It is created the first time it is needed.
+	 */
+
+	public DeathState getDeathState() {
+		if (deathState == null) {
+			deathState = new DeathState(getPlayState(), game, input);
+		}
+		return deathState;
+	}
+
+	/**
+	 * Saves the replay of the game that is being played, if there <br>
+	 * is one. This is called when the game closes.
+	 */
+
+	public void finishRecording() {
+		if (playState != null) {
+			playState.finishRecording();
+		}
+	}
+
+	/**
+	 * Opens the title screen of the main menu.
+	 */
+
+	public void openMainMenu() {
+		// Saves the replay if a game was left from the pause menu.
+		if (playState != null) {
+			playState.finishRecording();
+		}
+		
+		MainMenuState menu = getMainMenu();
+		menu.openTitlePanel();
+		set(menu);
+	}
+
+	/**
+	 * Starts a new game. The play state is reset and reused.
+	 */
+
+	public void startNewGame() {
+		startNewGame(GameRandom.createSeed());
+	}
+
+	/**
+	 * Starts a new game with the specified seed. <br>
+	 * The play state is reset and reused.
+	 * @param seed The seed of the game's random numbers.
+	 */
+
+	public void startNewGame(long seed) {
+		PlayState state = getPlayState();
+		state.reset(seed);
+		set(state);
+	}
+
+	/**
+	 * Starts watching a replay. The play state is reset and reused.
+	 * @param replay The replay.
+	 */
+
+	public void startReplay(Replay replay) {
+		PlayState state = getPlayState();
+		state.startReplay(replay);
+		set(state);
+	}
+
+	/**
+	 * Opens the pause menu on top of the game.
+	 */
+
+	public void pause() {
+		if (getCurrentState() != getPauseState()) {
+			push(pauseState);
+		}
+	}
+
+	/**
+	 * Closes the pause menu and returns to the game.
+	 */
+
+	public void resume() {
+		if (getCurrentState() == pauseState) {
+			pop();
+		}
+	}
+
+	/**
+	 * Opens the death screen. This should be called when the player dies.
+	 */
+
+	public void showDeathScreen() {
+		DeathState state = getDeathState();
+		state.init();
+		set(state);
+	}
+
+	/**
+	 * Updates the state at the top of the stack.
+	 */
+
+	public void update() {
+		GameState current = getCurrentState();
+
+		if (current != null) {
+			current.update();
+		}
+	}
+
+	/**
+	 * Draws the backgrounds of every visible state.
+	 * @param graphics The graphics object which will be used.
+	 */
+
+	public void draw(Graphics2D graphics) {
+		for (int index = getFirstVisibleIndex(); index < states.size(); index++) {
+			states.get(index).draw(graphics);
+		}
+	}
+
+	/**
+	 * Renders the components of every visible state.
+	 * @param graphics The graphics object which will be used.
+	 */
+
+	public void render(Graphics2D graphics) {
+		for (int index = getFirstVisibleIndex(); index < states.size(); index++) {
+			states.get(index).render(graphics);
+		}
+	}
+
+	/**
+	 * Gets the index of the lowest state that can be seen. <br>
+	 * Overlay states are drawn on top of the state beneath them, <br>
+	 * so the search continues downwards until a full-screen state is found.
+	 */
+
+	private int getFirstVisibleIndex() {
+		int index = states.size() - 1;
+
+		while (index > 0 && states.get(index).isOverlay()) {
+			index--;
+		}
+		return Math.max(index, 0);
+	}
+
+}
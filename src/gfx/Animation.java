@@ -2,6 +2,8 @@ package gfx;
 
 import java.awt.image.BufferedImage;
 
+import game.GameClock;
+
 /**
  * Animations are used to make GameObjects look like
  * they are moving.
@@ -44,8 +46,8 @@ public class Animation {
 		// Sets the current frame at the first frame of the animation.
 		currentFrame = 0;
 		
-		// Sets the start time of the animation at the current time in milliseconds.
-		startTime = System.currentTimeMillis();
+		// Sets the start time of the animation at the current time of the game.
+		startTime = GameClock.getTime();
 		
 		// Sets the default animation direction if it is not null.
 		if (direction == null) {
@@ -72,8 +74,8 @@ public class Animation {
 		// Sets the current frame at the first frame of the animation.
 		currentFrame = 0;
 		
-		// Sets the start time of the animation at the current time in milliseconds.
-		startTime = System.currentTimeMillis();
+		// Sets the start time of the animation at the current time of the game.
+		startTime = GameClock.getTime();
 		
 		this.direction = direction;
 	}
@@ -122,14 +124,14 @@ public class Animation {
 			return;
 		}
 		
-		// Gets how many milliseconds have passed since the animation started.
-		long elapsed = System.currentTimeMillis() - startTime;
+		// Gets how many milliseconds of the game have passed since the animation started.
+		long elapsed = GameClock.getTime() - startTime;
 		
 		// Updates the current frame if the delay has been completed.
 		if (elapsed > delay) {
 			currentFrame++;
 			// Resets the start time of the animation
-			startTime = System.currentTimeMillis();
+			startTime = GameClock.getTime();
 		}
 	
 		/*
@@ -162,6 +164,17 @@ public class Animation {
 		currentFrame = 0;
 	}
 	
+	/**
+	 * Resets the animation back to the first frame, and starts <br>
+	 * timing its first frame from the current time of the game, <br>
+	 * like a new animation.
+	 */
+	
+	public void restart() {
+		reset();
+		startTime = GameClock.getTime();
+	}
+	
 	/**
 	 * Gets the image of the frame that is currently being
 	 * displayed.
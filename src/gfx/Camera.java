@@ -120,5 +120,21 @@ public class Camera {
 	public int getPosY() {
 		return posY;
 	}
+	
+	/**
+	 * Gets the x location of the center of the camera.
+	 */
+	
+	public int getCenterX() {
+		return posX + width / 2;
+	}
+	
+	/**
+	 * Gets the y location of the center of the camera.
+	 */
+	
+	public int getCenterY() {
+		return posY + height / 2;
+	}
 
 }
@@ -0,0 +1,54 @@
+package gfx;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * The RenderQuality decides which rendering hints are used when <br>
+ * the game is drawn. It is chosen in the settings file.
+ *
+ * @author Elliott Vince
+ */
+
+public enum RenderQuality {
+
+	// The platform's default hints are used.
+	DEFAULT,
+
+	// Hints that make drawing as fast as possible.
+	SPEED,
+
+	// Smooth text and images, which is slower on some computers.
+	QUALITY;
+
+	/**
+	 * Sets the rendering hints of a graphics object.
+	 * @param graphics The graphics object.
+	 */
+
+	public void apply(Graphics2D graphics) {
+		switch (this) {
+		case SPEED:
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+					RenderingHints.VALUE_RENDER_SPEED);
+			graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+					RenderingHints.VALUE_ANTIALIAS_OFF);
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			break;
+		case QUALITY:
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+					RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			break;
+		default:
+			break;
+		}
+	}
+
+}
@@ -1,10 +1,8 @@
 package gfx;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 
-import javax.imageio.ImageIO;
+import assets.AssetManager;
 
 /**
  * A spritesheet is a collection of images that continuosly switch
@@ -32,12 +30,8 @@ public class SpriteSheet {
 		this.width = width;
 		this.height = height;
 		
-		try {
-			// Initializes the image.
-			this.image = ImageIO.read(new File("resources/" + path));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// Initializes the image. The image is shared between spritesheets.
+		this.image = AssetManager.getImage("resources/" + path);
 	}
 	
 	/**
@@ -4,6 +4,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import gamestates.GameState;
 
@@ -35,6 +36,15 @@ public class Input implements KeyListener, MouseListener {
 	private boolean[] pressedButtons;
 	private boolean[] pressedButtonsLast;
 	
+	/*
+	 * The characters typed since they were last read. Key events
+	 * come from the event dispatch thread, so the queue is thread safe.
+	 * Characters are only recorded while text input is enabled.
+	 */
+	
+	private ConcurrentLinkedQueue<Character> typedChars;
+	private volatile boolean textInputEnabled;
+	
 	/**
 	 * Creates a new input object. <br>
 	 * <b><u>NOTE:</b></u> The crrent state must be set using 
@@ -68,6 +78,8 @@ public class Input implements KeyListener, MouseListener {
 		
 		pressedButtons = new boolean[NUM_BUTTONS];
 		pressedButtonsLast = new boolean[NUM_BUTTONS];
+		
+		typedChars = new ConcurrentLinkedQueue<Character>();
 	}
 	
 	/**
@@ -189,8 +201,38 @@ public class Input implements KeyListener, MouseListener {
 	public void mouseExited(MouseEvent e) {
 	}
 
+	/**
+	 * Handles the keyTyped event. <br>
+	 * The typed character is recorded if text input is enabled.
+	 */
+	
 	@Override
 	public void keyTyped(KeyEvent e) {
+		if (textInputEnabled && e.getKeyChar() != KeyEvent.CHAR_UNDEFINED) {
+			typedChars.offer(e.getKeyChar());
+		}
+	}
+	
+	/**
+	 * Enables or disables text input. <br>
+	 * Any characters that have not been read are removed.
+	 * @param enabled True if typed characters should be recorded.
+	 */
+	
+	public void setTextInputEnabled(boolean enabled) {
+		textInputEnabled = enabled;
+		typedChars.clear();
+	}
+	
+	/**
+	 * Gets the next character that was typed.
+	 * @return The character, or KeyEvent.CHAR_UNDEFINED if no <br>
+	 * more characters have been typed.
+	 */
+	
+	public char nextTypedChar() {
+		Character typed = typedChars.poll();
+		return typed == null ? KeyEvent.CHAR_UNDEFINED : typed;
 	}
 
 	/**
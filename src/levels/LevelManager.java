@@ -1,13 +1,16 @@
 package levels;
 
 import java.awt.Rectangle;
-import java.util.Random;
+import java.util.SplittableRandom;
 
+import game.GameClock;
 import gameobjects.LivingEntity;
 import gameobjects.skeleton.ArcherSkeleton;
 import gameobjects.skeleton.Skeleton;
 import gameobjects.skeleton.SkeletonKnight;
 import gamestates.PlayState;
+import profiling.LevelEvent;
+import profiling.SpawnEvent;
 
 /**
  * The LevelManager will be used to handle skeleton spawning and other
@@ -35,9 +38,6 @@ public class LevelManager {
 	
 	private double spawnInterval;
 	
-	// Random variable (used for spawn locations)
-	private Random random;
-	
 	/**
 	 * Create a LevelManager object. This will be initialized <br>
 	 * at level 1 with a total skeleton count of 10. <br>
@@ -49,7 +49,14 @@ public class LevelManager {
 	
 	public LevelManager(PlayState playState) {
 		this.playState = playState;
-		
+		reset();
+	}
+	
+	/**
+	 * Starts again from level 1 for a new game.
+	 */
+	
+	public void reset() {
 		// The default fields for level 1 are initialized.
 		this.level = 1;
 		this.totalSkeletons = 5;
@@ -58,10 +65,7 @@ public class LevelManager {
 		
 		this.spawnInterval = 7;
 		
-		this.lastSpawnTime = System.currentTimeMillis();
-		
-		// Creates the random object (used for spawn locations).
-		this.random = new Random();
+		this.lastSpawnTime = GameClock.getTime();
 	}
 	
 	/**
@@ -86,8 +90,7 @@ public class LevelManager {
 		 * time.
 		 */
 		
-		if (lastSpawnTime + spawnInterval * 1000.0 < 
-				System.currentTimeMillis()) {
+		if (lastSpawnTime + spawnInterval * 1000.0 < GameClock.getTime()) {
 			
 			if (remainingSkeletons > 0) {
 				
@@ -110,7 +113,7 @@ public class LevelManager {
 			}
 			
 			// Sets the last spawn time to the current time.
-			lastSpawnTime = System.currentTimeMillis();
+			lastSpawnTime = GameClock.getTime();
 			
 		}
 		
@@ -144,15 +147,6 @@ public class LevelManager {
 		this.spawnInterval = spawnInterval;
 	}
 	
-	/**
-	 * Sets the time (in milliseconds) since the last spawn occured. <br>
-	 * <b><u>NOTE:</b></u> This should only be used while the game is paused.
-	 */
-	
-	public void updateLastSpawnTime() {
-		this.lastSpawnTime = System.currentTimeMillis() - lastSpawnTime;
-	}
-	
 	/**
 	 * Gets how many skeletons will be spawned 
 	 * during the current level.
@@ -186,7 +180,7 @@ public class LevelManager {
 	 * @param amount The amount of skeletons to be spawned.
 	 */
 	
-	private void spawnSkeletons(int amount) {
+	public void spawnSkeletons(int amount) {
 		
 		/*
 		 * Sets the amount to however many skeletons are remaining 
@@ -196,9 +190,15 @@ public class LevelManager {
 			amount = remainingSkeletons;
 		}
 		
+		SpawnEvent event = new SpawnEvent();
+		event.begin();
+		
 		// Gets the map bounds from the PlayState.
 		Rectangle mapBounds = playState.getBounds();
 		
+		// The locations and types of the skeletons come from the game's spawn numbers.
+		SplittableRandom random = playState.getRandom().getSpawnRandom();
+		
 		// Iterates through each skeleton that should be spawned.
 		for (int count = 0; count < amount; count++) {
 			
@@ -217,8 +217,7 @@ public class LevelManager {
 			 * Knights are introduced after level 5.
 			 */
 			
-			Random generator = new Random();
-			int chance = generator.nextInt(100) + 1;
+			int chance = random.nextInt(100) + 1;
 			
 			// Cleaned up the spawning code a bit.
 			LivingEntity enemy = null;
@@ -236,6 +235,16 @@ public class LevelManager {
 			playState.addGameObject(enemy);
 			remainingSkeletons--;		
 		}
+		
+		event.end();
+		
+		if (event.shouldCommit()) {
+			event.level = level;
+			event.spawned = amount;
+			event.remaining = remainingSkeletons;
+			event.gameObjects = playState.getGameObjects().size();
+			event.commit();
+		}
 	}
 	
 	/**
@@ -262,13 +271,35 @@ public class LevelManager {
 		}
 		
 		// Resets the spawn timer.
-		lastSpawnTime = System.currentTimeMillis();
+		lastSpawnTime = GameClock.getTime();
 		
 		// Refills the player's ammo.
 		playState.getPlayer().setMaxAmmo(playState.getPlayer().getMaxAmmo() + 20);
 		playState.getPlayer().refillAmmo();
+		
+		// Records the new level in flight recordings.
+		LevelEvent event = new LevelEvent();
+		
+		if (event.shouldCommit()) {
+			event.level = level;
+			event.totalSkeletons = totalSkeletons;
+			event.spawnInterval = spawnInterval;
+			event.commit();
+		}
 	}
 	
+	/**
+	 * Starts the current level again, without changing the level <br>
+	 * variables. All of the level's skeletons will be spawned again, <br>
+	 * so any skeletons that are still alive should be removed first. <br>
+	 * The spawn timer is also reset.
+	 */
+	
+	public void restartLevel() {
+		remainingSkeletons = totalSkeletons;
+		aliveSkeletons = totalSkeletons;
+		lastSpawnTime = GameClock.getTime();
+	}
 	
 	/**
 	 * This method should be called when a skeleton is killed.
@@ -0,0 +1,297 @@
+package profiling;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * The AllocationTracker measures how much memory the game loop <br>
+ * allocates each update and each frame, and which part of the game <br>
+ * allocated it. <br> <br>
+ *
+ * Each part of an update is measured between {@link #begin()} and <br>
+ * {@link #end(Section, long)}, using the number of bytes allocated <br>
+ * by the current thread. The averages over each second are shown in <br>
+ * an overlay and printed to the console. The tracker is turned on <br>
+ * with F3, or with -Deternalcombat.allocations=true when the game <br>
+ * starts. While it is off, begin() and end() do nothing.
+ *
+ * @author Elliott Vince
+ */
+
+public class AllocationTracker {
+
+	/**
+	 * The parts of the game loop that are measured.
+	 */
+
+	public enum Section {
+		POWERUPS("Powerups"),
+		GAME_OBJECTS("Game objects"),
+		CAMERA("Camera"),
+		LEVELS("Levels"),
+		HUD("HUD"),
+		OTHER("Other");
+
+		private String label;
+
+		private Section(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * Gets the name shown in the overlay.
+		 */
+
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	// The number of updates that are averaged.
+	private static final int WINDOW_TICKS = 60;
+
+	private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+	private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 170);
+
+	private static final Section[] SECTIONS = Section.values();
+
+	private static final com.sun.management.ThreadMXBean threads = getThreadBean();
+
+	// The bytes allocated by measuring the allocations.
+	private static final long overhead = measureOverhead();
+
+	private static volatile boolean enabled = Boolean.getBoolean("eternalcombat.allocations");
+
+	// The bytes allocated by each section during the current window.
+	private static final long[] sectionBytes = new long[SECTIONS.length];
+
+	private static long tickBytes;
+	private static long frameBytes;
+	private static int ticks;
+	private static int frames;
+
+	// The lines of the overlay, which are only created once per window.
+	private static volatile String[] lines = {"Allocations: measuring..."};
+
+	/**
+	 * AllocationTracker only has static methods.
+	 */
+
+	private AllocationTracker() {
+	}
+
+	/**
+	 * Determines if allocations are being measured.
+	 */
+
+	public static boolean isEnabled() {
+		return enabled && threads != null;
+	}
+
+	/**
+	 * Turns the measuring on or off. The averages start again when it <br>
+	 * is turned on.
+	 * @param enabled Whether allocations should be measured.
+	 */
+
+	public static void setEnabled(boolean enabled) {
+		if (enabled && threads == null) {
+			System.out.println("Allocations cannot be measured on this JVM");
+			return;
+		}
+
+		if (enabled && !AllocationTracker.enabled) {
+			resetWindow();
+			lines = new String[] {"Allocations: measuring..."};
+		}
+		AllocationTracker.enabled = enabled;
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the current thread, even <br>
+	 * while the tracker is off.
+	 * @return The number of bytes, or -1 if the JVM cannot measure it.
+	 */
+
+	public static long getThreadAllocatedBytes() {
+		return threads != null ? getAllocatedBytes() : -1;
+	}
+
+	/**
+	 * Starts measuring a part of the game loop.
+	 * @return The bytes allocated by the thread so far, or -1 if <br>
+	 * allocations are not being measured.
+	 */
+
+	public static long begin() {
+		return enabled && threads != null ? getAllocatedBytes() : -1;
+	}
+
+	/**
+	 * Finishes measuring a part of an update.
+	 * @param section The part of the update.
+	 * @param start The value returned by {@link #begin()}.
+	 */
+
+	public static void end(Section section, long start) {
+		if (start < 0) {
+			return;
+		}
+		sectionBytes[section.ordinal()] += Math.max(0, getAllocatedBytes() - start - overhead);
+	}
+
+	/**
+	 * Finishes measuring a whole update. Anything that was not <br>
+	 * measured by a section is counted as {@link Section#OTHER}.
+	 * @param start The value returned by {@link #begin()} before the update.
+	 */
+
+	public static void endTick(long start) {
+		if (start < 0) {
+			return;
+		}
+
+		tickBytes += Math.max(0, getAllocatedBytes() - start - overhead);
+		ticks++;
+
+		if (ticks >= WINDOW_TICKS) {
+			finishWindow();
+		}
+	}
+
+	/**
+	 * Finishes measuring a frame.
+	 * @param start The value returned by {@link #begin()} before the frame.
+	 */
+
+	public static void endFrame(long start) {
+		if (start < 0) {
+			return;
+		}
+
+		frameBytes += Math.max(0, getAllocatedBytes() - start - overhead);
+		frames++;
+	}
+
+	/**
+	 * Draws the averages of the last second in the top right corner.
+	 * @param graphics The graphics object which will be used.
+	 * @param screenWidth The width of the screen.
+	 */
+
+	public static void draw(Graphics2D graphics, int screenWidth) {
+		String[] lines = AllocationTracker.lines;
+		int lineHeight = 14;
+		int width = 210;
+		int posX = screenWidth - width - 10;
+
+		graphics.setColor(OVERLAY_BACKGROUND);
+		graphics.fillRect(posX, 10, width, lines.length * lineHeight + 8);
+
+		graphics.setFont(OVERLAY_FONT);
+		graphics.setColor(Color.WHITE);
+
+		for (int i = 0; i < lines.length; i++) {
+			graphics.drawString(lines[i], posX + 6, 10 + (i + 1) * lineHeight);
+		}
+	}
+
+	/**
+	 * Works out the averages of the window, prints them, and starts <br>
+	 * the next window.
+	 */
+
+	private static void finishWindow() {
+		long measured = 0;
+		for (long bytes : sectionBytes) {
+			measured += bytes;
+		}
+		sectionBytes[Section.OTHER.ordinal()] += Math.max(0, tickBytes - measured);
+
+		String[] newLines = new String[SECTIONS.length + 2];
+		StringBuilder log = new StringBuilder("Allocations (B/tick):");
+
+		newLines[0] = String.format(Locale.ROOT, "%-14s %8d B", "Per tick", tickBytes / ticks);
+		newLines[newLines.length - 1] = String.format(Locale.ROOT, "%-14s %8d B", "Per frame",
+				frames == 0 ? 0 : frameBytes / frames);
+
+		for (Section section : SECTIONS) {
+			long average = sectionBytes[section.ordinal()] / ticks;
+			newLines[section.ordinal() + 1] = String.format(Locale.ROOT, "  %-12s %8d B",
+					section.getLabel(), average);
+			log.append(' ').append(section.name().toLowerCase(Locale.ROOT)).append('=').append(average);
+		}
+
+		log.append(", total=").append(tickBytes / ticks);
+		log.append(", per frame=").append(frames == 0 ? 0 : frameBytes / frames);
+		System.out.println(log);
+
+		lines = newLines;
+		resetWindow();
+	}
+
+	/**
+	 * Clears the totals of the window.
+	 */
+
+	private static void resetWindow() {
+		for (int i = 0; i < sectionBytes.length; i++) {
+			sectionBytes[i] = 0;
+		}
+		tickBytes = 0;
+		frameBytes = 0;
+		ticks = 0;
+		frames = 0;
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the current thread.
+	 */
+
+	private static long getAllocatedBytes() {
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Gets the bean that measures the allocations of each thread, or <br>
+	 * null if the JVM cannot measure them.
+	 */
+
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		Object bean = ManagementFactory.getThreadMXBean();
+
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+			if (threads.isThreadAllocatedMemorySupported()) {
+				threads.setThreadAllocatedMemoryEnabled(true);
+				return threads;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Measures how many bytes are allocated by measuring, so they can <br>
+	 * be subtracted. On some JVMs, this is not 0.
+	 */
+
+	private static long measureOverhead() {
+		if (threads == null) {
+			return 0;
+		}
+
+		long smallest = Long.MAX_VALUE;
+
+		for (int i = 0; i < 100; i++) {
+			long start = getAllocatedBytes();
+			long end = getAllocatedBytes();
+			smallest = Math.min(smallest, end - start);
+		}
+		return smallest;
+	}
+
+}
@@ -0,0 +1,44 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An AssetLoadEvent is recorded by the Java Flight Recorder when <br>
+ * an image or sound is read from disk, or an image is scaled. <br>
+ * Its duration is how long the asset took to load.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.AssetLoad")
+@Label("Asset Load")
+@Category({"Eternal Combat", "Assets"})
+@Description("An image or sound was loaded")
+public class AssetLoadEvent extends jdk.jfr.Event {
+
+	@Label("Path")
+	@Description("The file path of the asset")
+	public String path;
+
+	@Label("Kind")
+	@Description("Image, Scaled Image or Sound")
+	public String kind;
+
+	@Label("Width")
+	@Description("The width of an image, or 0 for a sound")
+	public int width;
+
+	@Label("Height")
+	@Description("The height of an image, or 0 for a sound")
+	public int height;
+
+	@Label("Size")
+	@Description("The number of bytes of the decoded asset")
+	@DataAmount
+	public long size;
+
+}
@@ -0,0 +1,48 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A FrameEvent is recorded by the Java Flight Recorder for each <br>
+ * frame that is drawn. Its duration is how long the frame took to <br>
+ * draw and show.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.Frame")
+@Label("Frame")
+@Category({"Eternal Combat", "Game Loop"})
+@Description("One frame drawn and shown on the screen")
+@StackTrace(false)
+public class FrameEvent extends jdk.jfr.Event {
+
+	private static final EventType TYPE = EventType.getEventType(FrameEvent.class);
+
+	@Label("State")
+	@Description("The state of the game that was drawn")
+	public String state;
+
+	@Label("Game Objects")
+	@Description("The number of objects in the game, or 0 outside of a game")
+	public int gameObjects;
+
+	@Label("FPS")
+	@Description("The frames per second measured over the last second")
+	public int fps;
+
+	/**
+	 * Determines if the event is being recorded. The event is only <br>
+	 * created while it is, so frames do not allocate memory.
+	 */
+
+	public static boolean isRecorded() {
+		return TYPE.isEnabled();
+	}
+
+}
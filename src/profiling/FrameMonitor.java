@@ -0,0 +1,419 @@
+package profiling;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import game.Game;
+
+/**
+ * The FrameMonitor keeps a timeline of how long each frame took, <br>
+ * and works out why a frame took longer than it should have. <br> <br>
+ *
+ * Every garbage collection is recorded from the JVM's notifications, <br>
+ * along with the assets that are loaded on the game loop's thread and <br>
+ * the time spent updating and drawing. When a frame is over budget, <br>
+ * its most likely cause is printed to the console. The timeline is <br>
+ * shown in an overlay, which is turned on with F4, or with <br>
+ * -Deternalcombat.frames=true when the game starts.
+ *
+ * @author Elliott Vince
+ */
+
+public class FrameMonitor {
+
+	// The time that one frame should take (in nanoseconds).
+	private static final long BUDGET_NANOS = 1000000000L / Game.TICKS_PER_SECOND;
+
+	// A frame is slow if it takes this many times its budget.
+	private static final double SLOW_FACTOR = 1.5;
+
+	/*
+	 * GC notifications arrive a little after the collection, so the cause
+	 * of a slow frame is only worked out once this much time has passed.
+	 */
+
+	private static final long RESOLVE_DELAY_NANOS = 200000000L;
+
+	// The number of frames on the timeline.
+	private static final int HISTORY = 180;
+
+	// The number of garbage collections that are kept.
+	private static final int MAX_PAUSES = 64;
+
+	private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+	private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 170);
+	private static final Color BAR_COLOR = new Color(80, 200, 80);
+	private static final Color SLOW_BAR_COLOR = new Color(220, 60, 60);
+	private static final Color PAUSE_COLOR = Color.YELLOW;
+
+	// The difference between System.nanoTime() and the JVM's uptime (in nanoseconds).
+	private static final long uptimeOffset = System.nanoTime() -
+			ManagementFactory.getRuntimeMXBean().getUptime() * 1000000L;
+
+	// The timeline. Each frame is stored at its number modulo HISTORY.
+	private static final long[] frameEnds = new long[HISTORY];
+	private static final long[] frameTimes = new long[HISTORY];
+	private static final long[] updateTimes = new long[HISTORY];
+	private static final long[] renderTimes = new long[HISTORY];
+	private static final long[] assetTimes = new long[HISTORY];
+	private static final String[] assetPaths = new String[HISTORY];
+	private static long frameCount;
+
+	// The times spent in the frame that has not been shown yet.
+	private static long lastFrameEnd;
+	private static long currentUpdateTime;
+	private static long currentAssetTime;
+	private static String currentAssetPath;
+
+	// The slow frames whose causes have not been worked out yet.
+	private static final long[] pendingFrames = new long[HISTORY];
+	private static int pendingCount;
+
+	// The garbage collections, which are added by the JVM's notification thread.
+	private static final Pause[] pauses = new Pause[MAX_PAUSES];
+	private static int pauseCount;
+
+	private static Thread loopThread;
+
+	private static volatile boolean enabled = Boolean.getBoolean("eternalcombat.frames");
+
+	private static int slowFrames;
+	private static volatile String summary = "Slow frames: 0";
+	private static volatile String lastCause = "";
+
+	// The longest text that fits in the overlay.
+	private static final int MAX_OVERLAY_TEXT = 50;
+
+	static {
+		listenForPauses();
+	}
+
+	/**
+	 * FrameMonitor only has static methods.
+	 */
+
+	private FrameMonitor() {
+	}
+
+	/**
+	 * Determines if the overlay is shown and slow frames are printed.
+	 */
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Shows or hides the overlay. The timeline is recorded either way.
+	 * @param enabled Whether the overlay should be shown.
+	 */
+
+	public static void setEnabled(boolean enabled) {
+		FrameMonitor.enabled = enabled;
+	}
+
+	/**
+	 * Records that the game was updated. This should be called from <br>
+	 * the game loop after each update.
+	 * @param nanos How long the update took (in nanoseconds).
+	 */
+
+	public static void updated(long nanos) {
+		currentUpdateTime += nanos;
+	}
+
+	/**
+	 * Records that an asset was loaded. Only assets loaded by the game <br>
+	 * loop's thread are counted, as they are the ones that delay a frame.
+	 * @param path The file path of the asset.
+	 * @param nanos How long the asset took to load (in nanoseconds).
+	 */
+
+	public static void assetLoaded(String path, long nanos) {
+		if (Thread.currentThread() != loopThread) {
+			return;
+		}
+
+		currentAssetTime += nanos;
+		currentAssetPath = path;
+	}
+
+	/**
+	 * Records that a frame was shown. This should be called from the <br>
+	 * game loop after each frame.
+	 * @param renderNanos How long the frame took to draw (in nanoseconds).
+	 */
+
+	public static void frameShown(long renderNanos) {
+		long now = System.nanoTime();
+
+		if (loopThread == null) {
+			loopThread = Thread.currentThread();
+			lastFrameEnd = now;
+			return;
+		}
+
+		int index = (int) (frameCount % HISTORY);
+		frameEnds[index] = now;
+		frameTimes[index] = now - lastFrameEnd;
+		updateTimes[index] = currentUpdateTime;
+		renderTimes[index] = renderNanos;
+		assetTimes[index] = currentAssetTime;
+		assetPaths[index] = currentAssetPath;
+
+		if (frameTimes[index] > BUDGET_NANOS * SLOW_FACTOR && pendingCount < pendingFrames.length) {
+			pendingFrames[pendingCount++] = frameCount;
+		}
+
+		frameCount++;
+		lastFrameEnd = now;
+		currentUpdateTime = 0;
+		currentAssetTime = 0;
+		currentAssetPath = null;
+
+		resolvePendingFrames(now);
+	}
+
+	/**
+	 * Works out the causes of the slow frames that were shown long <br>
+	 * enough ago for their garbage collections to be known.
+	 * @param now The current time (in nanoseconds).
+	 */
+
+	private static void resolvePendingFrames(long now) {
+		int remaining = 0;
+
+		for (int i = 0; i < pendingCount; i++) {
+			long frame = pendingFrames[i];
+
+			// The frame has already left the timeline.
+			if (frameCount - frame > HISTORY) {
+				continue;
+			}
+
+			int index = (int) (frame % HISTORY);
+
+			if (now - frameEnds[index] < RESOLVE_DELAY_NANOS) {
+				pendingFrames[remaining++] = frame;
+				continue;
+			}
+
+			String cause = String.format(Locale.ROOT, "%.1f ms: %s", frameTimes[index] / 1e6,
+					getCause(index));
+			slowFrames++;
+			summary = "Slow frames: " + slowFrames;
+			lastCause = cause.length() <= MAX_OVERLAY_TEXT ? cause :
+				cause.substring(0, MAX_OVERLAY_TEXT - 3) + "...";
+
+			if (enabled) {
+				System.out.println("Slow frame " + cause);
+			}
+		}
+		pendingCount = remaining;
+	}
+
+	/**
+	 * Gets the most likely cause of a slow frame, which is whichever <br>
+	 * took the longest: a garbage collection, loading an asset, the <br>
+	 * rest of the update, or drawing the frame.
+	 * @param index The index of the frame on the timeline.
+	 */
+
+	private static String getCause(int index) {
+		long end = frameEnds[index];
+		long start = end - frameTimes[index];
+
+		Pause pause = getLongestPause(start, end);
+		long pauseTime = pause == null ? 0 : pause.duration;
+
+		// Assets are loaded during the update, so they are not counted twice.
+		long assetTime = assetTimes[index];
+		long updateTime = Math.max(0, updateTimes[index] - assetTime);
+		long renderTime = renderTimes[index];
+
+		long longest = Math.max(Math.max(pauseTime, assetTime), Math.max(updateTime, renderTime));
+
+		if (longest < BUDGET_NANOS / 2) {
+			return String.format(Locale.ROOT, "the game thread was waiting (update %.1f ms, render %.1f ms), "
+					+ "so another thread or the system delayed it", updateTimes[index] / 1e6, renderTime / 1e6);
+		}
+
+		if (longest == pauseTime) {
+			return String.format(Locale.ROOT, "GC pause, %s %.1f ms (%s)",
+					pause.name, pauseTime / 1e6, pause.cause);
+		}
+
+		if (longest == assetTime) {
+			return String.format(Locale.ROOT, "asset loaded on the game thread, %s %.1f ms",
+					assetPaths[index], assetTime / 1e6);
+		}
+
+		// A collection during the update or render is counted in its time.
+		String during = pause == null ? "" : String.format(Locale.ROOT,
+				" (including a %.1f ms GC pause)", pauseTime / 1e6);
+
+		if (longest == updateTime) {
+			return String.format(Locale.ROOT, "slow update, %.1f ms%s", updateTime / 1e6, during);
+		}
+		return String.format(Locale.ROOT, "slow render, %.1f ms%s", renderTime / 1e6, during);
+	}
+
+	/**
+	 * Gets the longest garbage collection during a length of time.
+	 * @param start The start of the time (in nanoseconds).
+	 * @param end The end of the time (in nanoseconds).
+	 * @return The collection, or null if there were none.
+	 */
+
+	private static synchronized Pause getLongestPause(long start, long end) {
+		Pause longest = null;
+
+		for (int i = 0; i < Math.min(pauseCount, MAX_PAUSES); i++) {
+			Pause pause = pauses[i];
+
+			if (pause.start < end && pause.start + pause.duration > start &&
+					(longest == null || pause.duration > longest.duration)) {
+				longest = pause;
+			}
+		}
+		return longest;
+	}
+
+	/**
+	 * Records a garbage collection.
+	 * @param pause The collection.
+	 */
+
+	private static synchronized void addPause(Pause pause) {
+		pauses[pauseCount % MAX_PAUSES] = pause;
+		pauseCount++;
+	}
+
+	/**
+	 * Draws the timeline in the bottom right corner. Each bar is one <br>
+	 * frame, the line is the budget of a frame, and frames with a <br>
+	 * garbage collection are marked in yellow.
+	 * @param graphics The graphics object which will be used.
+	 * @param screenWidth The width of the screen.
+	 * @param screenHeight The height of the screen.
+	 */
+
+	public static void draw(Graphics2D graphics, int screenWidth, int screenHeight) {
+		int graphHeight = 60;
+		int width = HISTORY * 2 + 12;
+		int height = graphHeight + 40;
+		int posX = screenWidth - width - 10;
+		int posY = screenHeight - height - 10;
+		int baseline = posY + height - 6;
+
+		// Two pixels per millisecond, so the budget line is about 33 pixels high.
+		double scale = 2 / 1e6;
+
+		graphics.setColor(OVERLAY_BACKGROUND);
+		graphics.fillRect(posX, posY, width, height);
+
+		long frames = Math.min(frameCount, HISTORY);
+
+		for (int i = 0; i < frames; i++) {
+			int index = (int) ((frameCount - frames + i) % HISTORY);
+			int barHeight = (int) Math.min(graphHeight, frameTimes[index] * scale);
+			int barX = posX + 6 + i * 2;
+
+			boolean slow = frameTimes[index] > BUDGET_NANOS * SLOW_FACTOR;
+			graphics.setColor(slow ? SLOW_BAR_COLOR : BAR_COLOR);
+			graphics.fillRect(barX, baseline - barHeight, 2, barHeight);
+
+			// Every pause is marked, including those too short to make the frame slow.
+			if (getLongestPause(frameEnds[index] - frameTimes[index], frameEnds[index]) != null) {
+				graphics.setColor(PAUSE_COLOR);
+				graphics.fillRect(barX, baseline - graphHeight - 4, 2, 3);
+			}
+		}
+
+		// Draws the budget.
+		int budgetY = baseline - (int) (BUDGET_NANOS * scale);
+		graphics.setColor(Color.WHITE);
+		graphics.drawLine(posX + 6, budgetY, posX + width - 6, budgetY);
+
+		graphics.setFont(OVERLAY_FONT);
+		graphics.drawString(summary, posX + 6, posY + 14);
+		graphics.drawString(lastCause, posX + 6, posY + 28);
+	}
+
+	/**
+	 * Listens for every garbage collection.
+	 */
+
+	private static void listenForPauses() {
+		NotificationListener listener = new NotificationListener() {
+
+			@Override
+			public void handleNotification(Notification notification, Object handback) {
+				if (!notification.getType().equals(
+						GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+					return;
+				}
+
+				GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+						(CompositeData) notification.getUserData());
+
+				// Concurrent cycles run alongside the game, so they are not pauses.
+				if (info.getGcName().endsWith("Cycles")) {
+					return;
+				}
+
+				GcInfo gcInfo = info.getGcInfo();
+				addPause(new Pause(info.getGcName(), info.getGcCause(),
+						uptimeOffset + gcInfo.getStartTime() * 1000000L,
+						Math.max(1, gcInfo.getDuration()) * 1000000L));
+			}
+
+		};
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (gc instanceof NotificationEmitter) {
+				((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+			}
+		}
+	}
+
+	/**
+	 * A garbage collection.
+	 */
+
+	private static class Pause {
+
+		private String name;
+		private String cause;
+		private long start;
+		private long duration;
+
+		/**
+		 * Creates a garbage collection.
+		 * @param name The name of the collector.
+		 * @param cause Why the collection happened.
+		 * @param start When it started (in nanoseconds, from System.nanoTime()).
+		 * @param duration How long it took (in nanoseconds).
+		 */
+
+		private Pause(String name, String cause, long start, long duration) {
+			this.name = name;
+			this.cause = cause;
+			this.start = start;
+			this.duration = duration;
+		}
+	}
+
+}
@@ -0,0 +1,35 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A LevelEvent is recorded by the Java Flight Recorder when the <br>
+ * game moves to the next level.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.Level")
+@Label("Next Level")
+@Category({"Eternal Combat", "Levels"})
+@Description("The game moved to the next level")
+@StackTrace(false)
+public class LevelEvent extends jdk.jfr.Event {
+
+	@Label("Level")
+	@Description("The new level")
+	public int level;
+
+	@Label("Total Skeletons")
+	@Description("The number of skeletons that spawn during the level")
+	public int totalSkeletons;
+
+	@Label("Spawn Interval")
+	@Description("The time between spawns, in seconds")
+	public double spawnInterval;
+
+}
@@ -0,0 +1,32 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A SongEvent is recorded by the Java Flight Recorder when a song <br>
+ * of the soundtrack is opened to be played. Its duration is how <br>
+ * long the song took to open.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.Song")
+@Label("Song Opened")
+@Category({"Eternal Combat", "Audio"})
+@Description("A song of the soundtrack was opened")
+@StackTrace(false)
+public class SongEvent extends jdk.jfr.Event {
+
+	@Label("Path")
+	@Description("The file path of the song")
+	public String path;
+
+	@Label("Cached")
+	@Description("Whether the song was read from the PCM cache instead of decoded")
+	public boolean cached;
+
+}
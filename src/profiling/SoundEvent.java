@@ -0,0 +1,33 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A SoundEvent is recorded by the Java Flight Recorder when the <br>
+ * audio mixer starts playing a sound effect.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.Sound")
+@Label("Sound Started")
+@Category({"Eternal Combat", "Audio"})
+@Description("A sound effect started playing")
+@StackTrace(false)
+public class SoundEvent extends jdk.jfr.Event {
+
+	@Label("Sound")
+	public String sound;
+
+	@Label("Category")
+	public String category;
+
+	@Label("Voices")
+	@Description("The number of sounds playing, including this one")
+	public int voices;
+
+}
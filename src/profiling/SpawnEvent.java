@@ -0,0 +1,39 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A SpawnEvent is recorded by the Java Flight Recorder each time <br>
+ * a group of skeletons is spawned. Its duration is how long the <br>
+ * skeletons took to create.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.Spawn")
+@Label("Skeleton Spawn")
+@Category({"Eternal Combat", "Levels"})
+@Description("A group of skeletons was spawned")
+@StackTrace(false)
+public class SpawnEvent extends jdk.jfr.Event {
+
+	@Label("Level")
+	public int level;
+
+	@Label("Spawned")
+	@Description("The number of skeletons that were spawned")
+	public int spawned;
+
+	@Label("Remaining")
+	@Description("The number of skeletons left to spawn during the level")
+	public int remaining;
+
+	@Label("Game Objects")
+	@Description("The number of objects in the game after the spawn")
+	public int gameObjects;
+
+}
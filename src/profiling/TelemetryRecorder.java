@@ -0,0 +1,572 @@
+package profiling;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import game.Game;
+import gameobjects.GameObject;
+import gameobjects.powerups.Powerup;
+import gamestates.GameState;
+import gamestates.PlayState;
+
+/**
+ * The TelemetryRecorder writes how well the game ran during a <br>
+ * session, so different computers can be compared over time. <br> <br>
+ *
+ * Once per second, it records the FPS, the percentiles of the update <br>
+ * and frame times, the number of each kind of game object, the level, <br>
+ * the memory allocated and the time spent in garbage collection. Each <br>
+ * second is one line of JSON in a file for the session, in the <br>
+ * cache/telemetry folder. The first line describes the computer. <br> <br>
+ *
+ * The lines are written by a background thread, so the game never <br>
+ * waits for the disk. Large sessions are split into several files, <br>
+ * and the oldest files are deleted. Use {@link TelemetrySummary} to <br>
+ * summarize the files.
+ *
+ * @author Elliott Vince
+ */
+
+public class TelemetryRecorder {
+
+	static final String FOLDER = "cache/telemetry";
+
+	// The size at which a session continues in a new file.
+	private static final long MAX_FILE_BYTES = 8 * 1024 * 1024;
+
+	// The number of files that are kept.
+	private static final int MAX_FILES = 100;
+
+	// The most updates and frames that are expected in one second.
+	private static final int MAX_SAMPLES = Game.TICKS_PER_SECOND * 4;
+
+	private Game game;
+
+	private volatile boolean recording;
+
+	// Writes the files. It is only created while recording.
+	private ExecutorService writer;
+
+	// The file being written, which is only used by the writer thread.
+	private String sessionName;
+	private String header;
+	private Writer output;
+	private long written;
+	private int part;
+
+	// The current second, which is only used by the game loop's thread.
+	private long[] tickTimes;
+	private long[] frameTimes;
+	private int tickCount;
+	private int frameCount;
+	private long secondStart;
+	private long allocatedStart;
+	private long gcTimeStart;
+	private long gcCountStart;
+	private int seconds;
+
+	// The number of each kind of game object. The arrays are reused.
+	private Map<String, int[]> entityCounts;
+
+	/**
+	 * Creates a telemetry recorder. It does not record until <br>
+	 * {@link #setRecording(boolean)} is called.
+	 * @param game An instance of the game class.
+	 */
+
+	public TelemetryRecorder(Game game) {
+		this.game = game;
+		this.tickTimes = new long[MAX_SAMPLES];
+		this.frameTimes = new long[MAX_SAMPLES];
+		this.entityCounts = new TreeMap<String, int[]>();
+	}
+
+	/**
+	 * Determines if the session is being recorded.
+	 */
+
+	public boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * Starts or stops recording. Each time recording starts, a new <br>
+	 * session file is created.
+	 * @param recording Whether the session should be recorded.
+	 */
+
+	public synchronized void setRecording(boolean recording) {
+		if (recording == this.recording) {
+			return;
+		}
+
+		if (recording) {
+			start();
+		}
+		else {
+			stop();
+		}
+	}
+
+	/**
+	 * Records that the game was updated. This should be called from <br>
+	 * the game loop after each update.
+	 * @param nanos How long the update took (in nanoseconds).
+	 */
+
+	public void tickFinished(long nanos) {
+		if (!recording) {
+			return;
+		}
+
+		if (tickCount < tickTimes.length) {
+			tickTimes[tickCount] = nanos;
+		}
+		tickCount++;
+
+		long now = System.nanoTime();
+
+		if (secondStart == 0) {
+			startSecond(now);
+		}
+		else if (now - secondStart >= 1000000000L) {
+			finishSecond(now);
+			startSecond(now);
+		}
+	}
+
+	/**
+	 * Records that a frame was shown. This should be called from the <br>
+	 * game loop after each frame.
+	 * @param nanos How long the frame took to draw (in nanoseconds).
+	 */
+
+	public void frameFinished(long nanos) {
+		if (!recording) {
+			return;
+		}
+
+		if (frameCount < frameTimes.length) {
+			frameTimes[frameCount] = nanos;
+		}
+		frameCount++;
+	}
+
+	/**
+	 * Creates the session and starts the writer thread.
+	 */
+
+	private void start() {
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "telemetry-io");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+
+		final String name = "session-" + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+		final String header = createHeader();
+
+		writer.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				sessionName = name;
+				TelemetryRecorder.this.header = header;
+				part = 1;
+				deleteOldFiles();
+				openFile();
+			}
+
+		});
+
+		secondStart = 0;
+		seconds = 0;
+		recording = true;
+	}
+
+	/**
+	 * Stops recording and closes the session file once everything <br>
+	 * has been written.
+	 */
+
+	private void stop() {
+		recording = false;
+
+		writer.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				closeFile();
+			}
+
+		});
+
+		writer.shutdown();
+		writer = null;
+	}
+
+	/**
+	 * Starts measuring a new second.
+	 * @param now The current time (in nanoseconds).
+	 */
+
+	private void startSecond(long now) {
+		secondStart = now;
+		tickCount = 0;
+		frameCount = 0;
+		allocatedStart = AllocationTracker.getThreadAllocatedBytes();
+		gcTimeStart = getGcTime();
+		gcCountStart = getGcCount();
+	}
+
+	/**
+	 * Records the second that has just finished.
+	 * @param now The current time (in nanoseconds).
+	 */
+
+	private void finishSecond(long now) {
+		seconds++;
+		double elapsed = (now - secondStart) / 1e9;
+
+		int ticks = Math.min(tickCount, tickTimes.length);
+		int frames = Math.min(frameCount, frameTimes.length);
+		Arrays.sort(tickTimes, 0, ticks);
+		Arrays.sort(frameTimes, 0, frames);
+
+		long allocated = AllocationTracker.getThreadAllocatedBytes();
+		Runtime runtime = Runtime.getRuntime();
+
+		StringBuilder line = new StringBuilder(384);
+		line.append("{\"type\":\"second\",\"t\":").append(seconds);
+		appendNumber(line, "fps", frameCount / elapsed);
+		line.append(",\"ticks\":").append(tickCount);
+		appendNumber(line, "tick_p50_ms", getPercentile(tickTimes, ticks, 50) / 1e6);
+		appendNumber(line, "tick_p95_ms", getPercentile(tickTimes, ticks, 95) / 1e6);
+		appendNumber(line, "tick_p99_ms", getPercentile(tickTimes, ticks, 99) / 1e6);
+		appendNumber(line, "tick_max_ms", getPercentile(tickTimes, ticks, 100) / 1e6);
+		appendNumber(line, "frame_p50_ms", getPercentile(frameTimes, frames, 50) / 1e6);
+		appendNumber(line, "frame_p99_ms", getPercentile(frameTimes, frames, 99) / 1e6);
+		appendNumber(line, "frame_max_ms", getPercentile(frameTimes, frames, 100) / 1e6);
+
+		GameState state = game.getStateManager().getCurrentState();
+		line.append(",\"state\":\"").append(state == null ? "None" : state.getClass().getSimpleName()).append('"');
+
+		if (state instanceof PlayState) {
+			PlayState playState = (PlayState) state;
+			line.append(",\"level\":").append(playState.getLevelManager().getCurrentLevel());
+			appendEntities(line, playState);
+		}
+
+		if (allocated >= 0 && allocatedStart >= 0) {
+			appendNumber(line, "alloc_mb", (allocated - allocatedStart) / (1024.0 * 1024.0));
+		}
+
+		line.append(",\"gc_ms\":").append(getGcTime() - gcTimeStart);
+		line.append(",\"gc_count\":").append(getGcCount() - gcCountStart);
+		appendNumber(line, "heap_mb", (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0));
+		line.append('}');
+
+		write(line.toString());
+	}
+
+	/**
+	 * Adds the number of each kind of game object to a line.
+	 * @param line The line.
+	 * @param playState The play state.
+	 */
+
+	private void appendEntities(StringBuilder line, PlayState playState) {
+		for (int[] count : entityCounts.values()) {
+			count[0] = 0;
+		}
+
+		List<GameObject> gameObjects = playState.getGameObjects();
+		for (int i = 0; i < gameObjects.size(); i++) {
+			countEntity(gameObjects.get(i).getClass().getSimpleName());
+		}
+
+		List<Powerup> powerups = playState.getPowerups();
+		for (int i = 0; i < powerups.size(); i++) {
+			countEntity(powerups.get(i).getClass().getSimpleName());
+		}
+
+		line.append(",\"entities\":{");
+		boolean first = true;
+
+		for (Map.Entry<String, int[]> entry : entityCounts.entrySet()) {
+			if (entry.getValue()[0] == 0) {
+				continue;
+			}
+
+			if (!first) {
+				line.append(',');
+			}
+			line.append('"').append(entry.getKey()).append("\":").append(entry.getValue()[0]);
+			first = false;
+		}
+		line.append('}');
+	}
+
+	/**
+	 * Counts one game object.
+	 * @param kind The name of the object's class.
+	 */
+
+	private void countEntity(String kind) {
+		int[] count = entityCounts.get(kind);
+
+		if (count == null) {
+			count = new int[1];
+			entityCounts.put(kind, count);
+		}
+		count[0]++;
+	}
+
+	/**
+	 * Creates the first line of each file, which describes the computer.
+	 */
+
+	private String createHeader() {
+		StringBuilder line = new StringBuilder("{\"type\":\"session\"");
+		appendString(line, "start", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", Locale.ROOT).format(new Date()));
+		appendString(line, "host", getHostName());
+		appendString(line, "os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+		appendString(line, "arch", System.getProperty("os.arch"));
+		appendString(line, "java", System.getProperty("java.version"));
+		appendString(line, "vm", System.getProperty("java.vm.name"));
+		line.append(",\"cpus\":").append(Runtime.getRuntime().availableProcessors());
+		line.append(",\"max_heap_mb\":").append(Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+		StringBuilder collectors = new StringBuilder();
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (collectors.length() > 0) {
+				collectors.append(", ");
+			}
+			collectors.append(gc.getName());
+		}
+		appendString(line, "gc", collectors.toString());
+		line.append(",\"target_fps\":").append(Game.TICKS_PER_SECOND);
+		line.append('}');
+		return line.toString();
+	}
+
+	/**
+	 * Gets the name of the computer, or an empty string if it is not known.
+	 */
+
+	private static String getHostName() {
+		String name = System.getenv("COMPUTERNAME");
+
+		if (name == null) {
+			name = System.getenv("HOSTNAME");
+		}
+		return name == null ? "" : name;
+	}
+
+	/**
+	 * Adds a number to a line, rounded to 2 decimal places.
+	 */
+
+	private static void appendNumber(StringBuilder line, String key, double value) {
+		line.append(",\"").append(key).append("\":").append(Math.round(value * 100) / 100.0);
+	}
+
+	/**
+	 * Adds a string to a line.
+	 */
+
+	private static void appendString(StringBuilder line, String key, String value) {
+		line.append(",\"").append(key).append("\":\"");
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c == '"' || c == '\\') {
+				line.append('\\').append(c);
+			}
+			else if (c >= ' ') {
+				line.append(c);
+			}
+		}
+		line.append('"');
+	}
+
+	/**
+	 * Gets a percentile of sorted times.
+	 * @param times The sorted times.
+	 * @param count The number of times.
+	 * @param percentile The percentile, from 0 to 100.
+	 */
+
+	private static long getPercentile(long[] times, int count, int percentile) {
+		if (count == 0) {
+			return 0;
+		}
+
+		int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+		return times[Math.max(0, Math.min(count - 1, index))];
+	}
+
+	/**
+	 * Gets the total time spent in garbage collection (in milliseconds).
+	 */
+
+	private static long getGcTime() {
+		long total = 0;
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(0, gc.getCollectionTime());
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the total number of garbage collections.
+	 */
+
+	private static long getGcCount() {
+		long total = 0;
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(0, gc.getCollectionCount());
+		}
+		return total;
+	}
+
+	/**
+	 * Writes a line in the background.
+	 * @param line The line.
+	 */
+
+	private synchronized void write(final String line) {
+		if (writer == null) {
+			return;
+		}
+
+		writer.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				writeLine(line);
+			}
+
+		});
+	}
+
+	/**
+	 * Writes a line to the file. This is only called by the writer thread.
+	 * @param line The line.
+	 */
+
+	private void writeLine(String line) {
+		if (output == null) {
+			return;
+		}
+
+		try {
+			output.write(line);
+			output.write('\n');
+			output.flush();
+			written += line.length() + 1;
+		}
+		catch (IOException e) {
+			System.out.println("Problem writing telemetry, so it is stopped");
+			System.out.println(e);
+			closeFile();
+			return;
+		}
+
+		// Continues the session in a new file.
+		if (written >= MAX_FILE_BYTES) {
+			closeFile();
+			part++;
+			openFile();
+		}
+	}
+
+	/**
+	 * Opens the next file of the session and writes the header.
+	 */
+
+	private void openFile() {
+		File folder = new File(FOLDER);
+		folder.mkdirs();
+
+		String name = part == 1 ? sessionName : sessionName + "-" + part;
+		File file = new File(folder, name + ".jsonl");
+
+		try {
+			output = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(file), StandardCharsets.UTF_8));
+			written = 0;
+			writeLine(header);
+		}
+		catch (IOException e) {
+			System.out.println("Problem creating " + file);
+			System.out.println(e);
+			output = null;
+		}
+	}
+
+	/**
+	 * Closes the current file.
+	 */
+
+	private void closeFile() {
+		if (output == null) {
+			return;
+		}
+
+		try {
+			output.close();
+		}
+		catch (IOException e) {
+			System.out.println("Problem closing the telemetry file");
+		}
+		output = null;
+	}
+
+	/**
+	 * Deletes the oldest files, so only the newest MAX_FILES are kept.
+	 */
+
+	private static void deleteOldFiles() {
+		File[] files = new File(FOLDER).listFiles();
+
+		if (files == null || files.length < MAX_FILES) {
+			return;
+		}
+
+		// The names start with the date, so they sort from oldest to newest.
+		Arrays.sort(files);
+
+		for (int i = 0; i <= files.length - MAX_FILES; i++) {
+			if (files[i].getName().startsWith("session-") && !files[i].delete()) {
+				System.out.println("Problem deleting " + files[i]);
+			}
+		}
+	}
+
+}
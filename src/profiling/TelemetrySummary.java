@@ -0,0 +1,341 @@
+package profiling;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The TelemetrySummary prints a summary of the session files written <br>
+ * by the {@link TelemetryRecorder}, with one row per file, so the <br>
+ * sessions of different computers can be compared. <br> <br>
+ *
+ * Arguments: the session files, or folders of session files. With no <br>
+ * arguments, every file in cache/telemetry is summarized.
+ *
+ * @author Elliott Vince
+ */
+
+public class TelemetrySummary {
+
+	// A second is slow if its FPS is below this part of the target.
+	private static final double SLOW_FPS = 0.9;
+
+	/**
+	 * Prints the summary.
+	 * @param args The session files or folders.
+	 */
+
+	public static void main(String[] args) {
+		List<File> files = new ArrayList<File>();
+
+		if (args.length == 0) {
+			args = new String[] {TelemetryRecorder.FOLDER};
+		}
+
+		for (String arg : args) {
+			File file = new File(arg);
+
+			if (file.isDirectory()) {
+				File[] children = file.listFiles();
+
+				if (children != null) {
+					Arrays.sort(children);
+
+					for (File child : children) {
+						if (child.getName().endsWith(".jsonl")) {
+							files.add(child);
+						}
+					}
+				}
+			}
+			else {
+				files.add(file);
+			}
+		}
+
+		if (files.isEmpty()) {
+			System.out.println("No telemetry files were found");
+			return;
+		}
+
+		System.out.println(String.format(Locale.ROOT,
+				"%-28s %-16s %4s %-8s %6s %6s %6s %6s %8s %8s %6s %5s %8s %8s",
+				"Session", "Host", "CPUs", "Java", "Secs", "FPS", "Min", "Slow", "Tick99", "TickMax",
+				"Ents", "Level", "Alloc/s", "GC/min"));
+
+		for (File file : files) {
+			try {
+				System.out.println(summarize(file));
+			}
+			catch (IOException e) {
+				System.out.println(file.getName() + ": " + e);
+			}
+		}
+
+		System.out.println();
+		System.out.println("FPS is the average, Min is the lowest second, and Slow is the number of");
+		System.out.println("seconds below " + Math.round(SLOW_FPS * 100) + "% of the target FPS. Tick99 is the median of each");
+		System.out.println("second's 99th percentile update time, and TickMax the longest update (ms).");
+		System.out.println("Ents is the most game objects at once, Alloc/s is the average MB allocated");
+		System.out.println("per second while playing, and GC/min is the garbage collection ms per minute.");
+	}
+
+	/**
+	 * Summarizes one session file.
+	 * @param file The file.
+	 * @return The row of the summary.
+	 */
+
+	private static String summarize(File file) throws IOException {
+		Map<String, Object> header = Collections.emptyMap();
+		List<Double> fps = new ArrayList<Double>();
+		List<Double> tickP99 = new ArrayList<Double>();
+		double tickMax = 0;
+		double allocated = 0;
+		int playSeconds = 0;
+		long gcMillis = 0;
+		int maxEntities = 0;
+		int maxLevel = 0;
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), StandardCharsets.UTF_8))) {
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+
+				Map<String, Object> values;
+				try {
+					values = new Parser(line).parseObject();
+				}
+				catch (IllegalArgumentException e) {
+					// The last line may be cut off if the game was closed while writing it.
+					continue;
+				}
+
+				if ("session".equals(values.get("type"))) {
+					header = values;
+					continue;
+				}
+
+				fps.add(getNumber(values, "fps"));
+				tickP99.add(getNumber(values, "tick_p99_ms"));
+				tickMax = Math.max(tickMax, getNumber(values, "tick_max_ms"));
+				gcMillis += (long) getNumber(values, "gc_ms");
+				maxLevel = Math.max(maxLevel, (int) getNumber(values, "level"));
+
+				if ("PlayState".equals(values.get("state"))) {
+					playSeconds++;
+					allocated += getNumber(values, "alloc_mb");
+				}
+
+				Object entities = values.get("entities");
+				if (entities instanceof Map) {
+					int total = 0;
+
+					for (Object count : ((Map<?, ?>) entities).values()) {
+						total += ((Double) count).intValue();
+					}
+					maxEntities = Math.max(maxEntities, total);
+				}
+			}
+		}
+
+		double targetFps = header.containsKey("target_fps") ? getNumber(header, "target_fps") : 60;
+		int slowSeconds = 0;
+		double totalFps = 0;
+		double minFps = fps.isEmpty() ? 0 : Double.MAX_VALUE;
+
+		for (double value : fps) {
+			totalFps += value;
+			minFps = Math.min(minFps, value);
+
+			if (value < targetFps * SLOW_FPS) {
+				slowSeconds++;
+			}
+		}
+
+		Collections.sort(tickP99);
+
+		return String.format(Locale.ROOT,
+				"%-28s %-16s %4s %-8s %6d %6.1f %6.1f %6d %8.2f %8.2f %6d %5d %8.2f %8.1f",
+				shorten(file.getName().replace(".jsonl", ""), 28), shorten(getString(header, "host"), 16),
+				header.containsKey("cpus") ? String.valueOf((int) getNumber(header, "cpus")) : "",
+				shorten(getString(header, "java"), 8), fps.size(),
+				fps.isEmpty() ? 0 : totalFps / fps.size(), minFps, slowSeconds,
+				tickP99.isEmpty() ? 0 : tickP99.get(tickP99.size() / 2), tickMax,
+				maxEntities, maxLevel, playSeconds == 0 ? 0 : allocated / playSeconds,
+				fps.isEmpty() ? 0 : gcMillis * 60.0 / fps.size());
+	}
+
+	/**
+	 * Gets a number from a line, or 0 if it is missing.
+	 */
+
+	private static double getNumber(Map<String, Object> values, String key) {
+		Object value = values.get(key);
+		return value instanceof Double ? (Double) value : 0;
+	}
+
+	/**
+	 * Gets a string from a line, or an empty string if it is missing.
+	 */
+
+	private static String getString(Map<String, Object> values, String key) {
+		Object value = values.get(key);
+		return value instanceof String ? (String) value : "";
+	}
+
+	/**
+	 * Shortens text so it fits in a column.
+	 */
+
+	private static String shorten(String text, int length) {
+		return text.length() <= length ? text : text.substring(0, length);
+	}
+
+	/**
+	 * A Parser reads the JSON objects written by the TelemetryRecorder. <br>
+	 * Numbers are read as Doubles and objects as Maps.
+	 */
+
+	private static class Parser {
+
+		private String text;
+		private int index;
+
+		/**
+		 * Creates a parser.
+		 * @param text The JSON text.
+		 */
+
+		private Parser(String text) {
+			this.text = text;
+		}
+
+		/**
+		 * Reads an object.
+		 */
+
+		private Map<String, Object> parseObject() {
+			Map<String, Object> values = new LinkedHashMap<String, Object>();
+			expect('{');
+
+			if (peek() == '}') {
+				index++;
+				return values;
+			}
+
+			while (true) {
+				String key = parseString();
+				expect(':');
+				values.put(key, parseValue());
+
+				char next = next();
+				if (next == '}') {
+					return values;
+				}
+				if (next != ',') {
+					throw new IllegalArgumentException("Expected , or } at " + index);
+				}
+			}
+		}
+
+		/**
+		 * Reads a value.
+		 */
+
+		private Object parseValue() {
+			char c = peek();
+
+			if (c == '{') {
+				return parseObject();
+			}
+			if (c == '"') {
+				return parseString();
+			}
+			if (text.startsWith("true", index) || text.startsWith("false", index)) {
+				boolean value = text.startsWith("true", index);
+				index += value ? 4 : 5;
+				return value;
+			}
+
+			int start = index;
+			while (index < text.length() && "+-.0123456789eE".indexOf(text.charAt(index)) >= 0) {
+				index++;
+			}
+
+			try {
+				return Double.parseDouble(text.substring(start, index));
+			}
+			catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Expected a value at " + start);
+			}
+		}
+
+		/**
+		 * Reads a string.
+		 */
+
+		private String parseString() {
+			expect('"');
+			StringBuilder builder = new StringBuilder();
+
+			while (true) {
+				char c = next();
+
+				if (c == '"') {
+					return builder.toString();
+				}
+				if (c == '\\') {
+					c = next();
+				}
+				builder.append(c);
+			}
+		}
+
+		/**
+		 * Reads a character, which must be the expected one.
+		 */
+
+		private void expect(char expected) {
+			if (next() != expected) {
+				throw new IllegalArgumentException("Expected " + expected + " at " + index);
+			}
+		}
+
+		/**
+		 * Gets the next character without reading it.
+		 */
+
+		private char peek() {
+			if (index >= text.length()) {
+				throw new IllegalArgumentException("The line ended early");
+			}
+			return text.charAt(index);
+		}
+
+		/**
+		 * Reads the next character.
+		 */
+
+		private char next() {
+			char c = peek();
+			index++;
+			return c;
+		}
+	}
+
+}
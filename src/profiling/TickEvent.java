@@ -0,0 +1,47 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A TickEvent is recorded by the Java Flight Recorder for each <br>
+ * update of the game. Its duration is how long the update took.
+ *
+ * @author Elliott Vince
+ */
+
+@Name("eternalcombat.Tick")
+@Label("Game Tick")
+@Category({"Eternal Combat", "Game Loop"})
+@Description("One update of the game")
+@StackTrace(false)
+public class TickEvent extends jdk.jfr.Event {
+
+	private static final EventType TYPE = EventType.getEventType(TickEvent.class);
+
+	@Label("State")
+	@Description("The state of the game that was updated")
+	public String state;
+
+	@Label("Game Objects")
+	@Description("The number of objects in the game, or 0 outside of a game")
+	public int gameObjects;
+
+	@Label("Level")
+	@Description("The current level, or 0 outside of a game")
+	public int level;
+
+	/**
+	 * Determines if the event is being recorded. The event is only <br>
+	 * created while it is, so updates do not allocate memory.
+	 */
+
+	public static boolean isRecorded() {
+		return TYPE.isEnabled();
+	}
+
+}
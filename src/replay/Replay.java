@@ -0,0 +1,255 @@
+package replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import game.Game;
+import gameobjects.GameObject;
+import gameobjects.LivingEntity;
+import gameobjects.player.Player;
+import gameobjects.powerups.Powerup;
+import gamestates.PlayState;
+import levels.LevelManager;
+
+/**
+ * A Replay is a recorded game. It holds the seed of the game and the <br>
+ * buttons that were held in every update, which is everything needed <br>
+ * to play the game again, because every timer uses the GameClock and <br>
+ * every random number comes from the seed. <br> <br>
+ *
+ * A checksum of the game is also saved after every update, so a replay <br>
+ * that plays differently (eg. after a change to the game) is noticed on <br>
+ * the first update that is different. <br> <br>
+ *
+ * The file starts with a header that is not compressed, followed by <br>
+ * the updates, which are compressed: <br>
+ * int "ECRP", byte version, long seed, int ticks per second, long date <br>
+ * int updates, byte[updates] buttons, short[updates] checksums, int final checksum
+ *
+ * @author Elliott Vince
+ */
+
+public class Replay {
+
+	// The first bytes of the file ("ECRP"), followed by its version.
+	private static final int MAGIC = 0x45435250;
+	private static final byte VERSION = 1;
+
+	private long seed;
+	private long date;
+
+	// The buttons and the low 16 bits of the checksum of each update.
+	private byte[] buttons;
+	private short[] checksums;
+	private int ticks;
+
+	// The full checksum after the last update.
+	private int finalChecksum;
+
+	/**
+	 * Creates a replay.
+	 * @param seed The seed of the game.
+	 * @param date When the game started (in milliseconds since 1970).
+	 * @param buttons The buttons of each update.
+	 * @param checksums The checksum of each update.
+	 * @param ticks The number of updates.
+	 * @param finalChecksum The full checksum after the last update.
+	 */
+
+	Replay(long seed, long date, byte[] buttons, short[] checksums, int ticks, int finalChecksum) {
+		this.seed = seed;
+		this.date = date;
+		this.buttons = buttons;
+		this.checksums = checksums;
+		this.ticks = ticks;
+		this.finalChecksum = finalChecksum;
+	}
+
+	/**
+	 * Reads a replay file.
+	 * @param file The file.
+	 * @return The replay.
+	 * @throws IOException If the file cannot be read, or is not a replay <br>
+	 * of this version of the game.
+	 */
+
+	public static Replay read(File file) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)))) {
+
+			if (input.readInt() != MAGIC) {
+				throw new IOException(file + " is not a replay");
+			}
+
+			byte version = input.readByte();
+			if (version != VERSION) {
+				throw new IOException(file + " has an unknown version (" + version + ")");
+			}
+
+			long seed = input.readLong();
+			int ticksPerSecond = input.readInt();
+			long date = input.readLong();
+
+			// The timers depend on the number of updates per second.
+			if (ticksPerSecond != Game.TICKS_PER_SECOND) {
+				throw new IOException(file + " was recorded at " + ticksPerSecond + " updates per second");
+			}
+
+			DataInputStream body = new DataInputStream(new BufferedInputStream(new GZIPInputStream(input)));
+			int ticks = body.readInt();
+
+			if (ticks < 0) {
+				throw new IOException(file + " is damaged");
+			}
+
+			byte[] buttons = new byte[ticks];
+			body.readFully(buttons);
+
+			short[] checksums = new short[ticks];
+			for (int i = 0; i < ticks; i++) {
+				checksums[i] = body.readShort();
+			}
+
+			return new Replay(seed, date, buttons, checksums, ticks, body.readInt());
+		}
+	}
+
+	/**
+	 * Writes the replay to a file.
+	 * @param file The file.
+	 * @throws IOException If the file cannot be written.
+	 */
+
+	public void write(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)))) {
+
+			output.writeInt(MAGIC);
+			output.writeByte(VERSION);
+			output.writeLong(seed);
+			output.writeInt(Game.TICKS_PER_SECOND);
+			output.writeLong(date);
+
+			GZIPOutputStream compressed = new GZIPOutputStream(output);
+			DataOutputStream body = new DataOutputStream(new BufferedOutputStream(compressed));
+			body.writeInt(ticks);
+			body.write(buttons, 0, ticks);
+
+			for (int i = 0; i < ticks; i++) {
+				body.writeShort(checksums[i]);
+			}
+
+			body.writeInt(finalChecksum);
+			body.flush();
+			compressed.finish();
+		}
+	}
+
+	/**
+	 * Computes a checksum of everything in a game that an update can <br>
+	 * change: the level, the player's stats, and the location and health <br>
+	 * of every game object and powerup. Two games that have had the <br>
+	 * same updates have the same checksum.
+	 * @param playState The play state.
+	 * @return The checksum.
+	 */
+
+	public static int computeChecksum(PlayState playState) {
+		LevelManager levelManager = playState.getLevelManager();
+		Player player = playState.getPlayer();
+
+		int hash = levelManager.getCurrentLevel();
+		hash = 31 * hash + levelManager.getRemainingSkeletons();
+		hash = 31 * hash + levelManager.getAliveSkeletons();
+		hash = 31 * hash + player.getScore();
+		hash = 31 * hash + player.getAmmo();
+
+		List<GameObject> gameObjects = playState.getGameObjects();
+		hash = 31 * hash + gameObjects.size();
+
+		for (int i = 0; i < gameObjects.size(); i++) {
+			GameObject gameObject = gameObjects.get(i);
+
+			// The names of classes keep their hash codes, so this does not allocate.
+			hash = 31 * hash + gameObject.getClass().getName().hashCode();
+			hash = 31 * hash + gameObject.getPosX();
+			hash = 31 * hash + gameObject.getPosY();
+
+			if (gameObject instanceof LivingEntity) {
+				hash = 31 * hash + ((LivingEntity) gameObject).getHealth();
+			}
+		}
+
+		List<Powerup> powerups = playState.getPowerups();
+		hash = 31 * hash + powerups.size();
+
+		for (int i = 0; i < powerups.size(); i++) {
+			Powerup powerup = powerups.get(i);
+			hash = 31 * hash + powerup.getType().ordinal();
+			hash = 31 * hash + powerup.getPosX();
+			hash = 31 * hash + powerup.getPosY();
+			hash = 31 * hash + (powerup.isActive() ? 1 : 0);
+		}
+		return hash;
+	}
+
+	/**
+	 * Gets the seed of the game.
+	 */
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets when the game started (in milliseconds since 1970).
+	 */
+
+	public long getDate() {
+		return date;
+	}
+
+	/**
+	 * Gets the number of updates in the replay.
+	 */
+
+	public int getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the buttons of an update, including the PAUSED bit.
+	 * @param tick The index of the update.
+	 */
+
+	public int getButtons(int tick) {
+		return buttons[tick];
+	}
+
+	/**
+	 * Gets the low 16 bits of the checksum after an update.
+	 * @param tick The index of the update.
+	 */
+
+	public short getChecksum(int tick) {
+		return checksums[tick];
+	}
+
+	/**
+	 * Gets the full checksum after the last update.
+	 */
+
+	public int getFinalChecksum() {
+		return finalChecksum;
+	}
+
+}
@@ -0,0 +1,101 @@
+package replay;
+
+import input.Controller;
+
+/**
+ * The ReplayController is the player's controller during a game. <br>
+ * The buttons that are held are read once at the start of each update, <br>
+ * either from the keyboard and mouse or from a replay, and the player <br>
+ * then reads them from this controller. This means a recorded game sees <br>
+ * exactly the same buttons when it is played again. <br> <br>
+ *
+ * The buttons are stored as bits, which is also how they are saved <br>
+ * in a replay file.
+ *
+ * @author Elliott Vince
+ */
+
+public class ReplayController implements Controller {
+
+	// The bit of each button.
+	public static final int UP = 1;
+	public static final int LEFT = 2;
+	public static final int DOWN = 4;
+	public static final int RIGHT = 8;
+	public static final int LEFT_CLICK = 16;
+
+	// Set in a replay on the first update after the game was paused. It is not a button.
+	public static final int PAUSED = 32;
+
+	private int buttons;
+
+	/**
+	 * Gets the buttons that a controller is holding.
+	 * @param controller The controller.
+	 * @return The bits of the buttons that are held.
+	 */
+
+	public static int getButtons(Controller controller) {
+		int buttons = 0;
+
+		if (controller.isRequestingUp()) {
+			buttons |= UP;
+		}
+		if (controller.isRequestingLeft()) {
+			buttons |= LEFT;
+		}
+		if (controller.isRequestingDown()) {
+			buttons |= DOWN;
+		}
+		if (controller.isRequestingRight()) {
+			buttons |= RIGHT;
+		}
+		if (controller.isRequestingLeftClick()) {
+			buttons |= LEFT_CLICK;
+		}
+		return buttons;
+	}
+
+	/**
+	 * Sets the buttons that are held until the next update.
+	 * @param buttons The bits of the buttons.
+	 */
+
+	public void setButtons(int buttons) {
+		this.buttons = buttons;
+	}
+
+	/**
+	 * Gets the bits of the buttons that are held.
+	 */
+
+	public int getButtons() {
+		return buttons;
+	}
+
+	@Override
+	public boolean isRequestingUp() {
+		return (buttons & UP) != 0;
+	}
+
+	@Override
+	public boolean isRequestingLeft() {
+		return (buttons & LEFT) != 0;
+	}
+
+	@Override
+	public boolean isRequestingDown() {
+		return (buttons & DOWN) != 0;
+	}
+
+	@Override
+	public boolean isRequestingRight() {
+		return (buttons & RIGHT) != 0;
+	}
+
+	@Override
+	public boolean isRequestingLeftClick() {
+		return (buttons & LEFT_CLICK) != 0;
+	}
+
+}
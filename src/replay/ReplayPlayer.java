@@ -0,0 +1,109 @@
+package replay;
+
+/**
+ * The ReplayPlayer plays a {@link Replay} back, one update at a time. <br>
+ * It gives the play state the buttons of each update, and compares <br>
+ * the game's checksum after each update with the recorded one, so it <br>
+ * knows the first update where the game played differently.
+ *
+ * @author Elliott Vince
+ */
+
+public class ReplayPlayer {
+
+	private Replay replay;
+
+	// The index of the next update.
+	private int tick;
+
+	// The first update that was different, or -1 if there has not been one.
+	private int divergedTick = -1;
+
+	// The number of times that the game was paused while it was recorded.
+	private int pauses;
+
+	/**
+	 * Creates a player for a replay.
+	 * @param replay The replay.
+	 */
+
+	public ReplayPlayer(Replay replay) {
+		this.replay = replay;
+	}
+
+	/**
+	 * Gets the buttons of the next update.
+	 * @return The bits of the buttons that were held.
+	 */
+
+	public int nextButtons() {
+		int buttons = replay.getButtons(tick);
+
+		if ((buttons & ReplayController.PAUSED) != 0) {
+			pauses++;
+		}
+		return buttons & ~ReplayController.PAUSED;
+	}
+
+	/**
+	 * Compares the checksum of the game after an update with the <br>
+	 * recorded one, and moves on to the next update.
+	 * @param checksum The checksum of the game.
+	 */
+
+	public void check(int checksum) {
+		if (divergedTick < 0) {
+			boolean last = tick == replay.getTicks() - 1;
+
+			if ((short) checksum != replay.getChecksum(tick)
+					|| (last && checksum != replay.getFinalChecksum())) {
+				divergedTick = tick;
+				System.out.println("The replay diverged at update " + tick);
+			}
+		}
+		tick++;
+	}
+
+	/**
+	 * Determines if every update of the replay has been played.
+	 */
+
+	public boolean isFinished() {
+		return tick >= replay.getTicks();
+	}
+
+	/**
+	 * Gets the number of updates that have been played.
+	 */
+
+	public int getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the first update where the game played differently, <br>
+	 * or -1 if it has played the same so far.
+	 */
+
+	public int getDivergedTick() {
+		return divergedTick;
+	}
+
+	/**
+	 * Gets the number of times that the game was paused while it was <br>
+	 * recorded, up to the current update.
+	 */
+
+	public int getPauses() {
+		return pauses;
+	}
+
+	/**
+	 * Gets the replay.
+	 */
+
+	public Replay getReplay() {
+		return replay;
+	}
+
+}
@@ -0,0 +1,278 @@
+package replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import game.Game;
+
+/**
+ * The ReplayRecorder records the buttons and checksum of every update <br>
+ * of a game, and saves them as a {@link Replay} in cache/replays when <br>
+ * the game ends. Only the newest replays are kept. <br> <br>
+ *
+ * Each update only takes three bytes, so the game is kept in memory <br>
+ * until it ends, and nothing is written while it is played. The <br>
+ * replay is then saved on a background thread, so the game does not <br>
+ * wait for the disk when a game ends.
+ *
+ * @author Elliott Vince
+ */
+
+public class ReplayRecorder {
+
+	// The folder that the replays are saved in.
+	public static final String FOLDER = "cache/replays";
+
+	// The number of replays that are kept.
+	private static final int MAX_FILES = 20;
+
+	// The number of updates that there is room for at first (10 minutes).
+	private static final int INITIAL_TICKS = Game.TICKS_PER_SECOND * 60 * 10;
+
+	// How long (in seconds) the game waits for the replays to be saved when it closes.
+	private static final int SHUTDOWN_WAIT_SECONDS = 5;
+
+	// The thread that saves the replays.
+	private static final ExecutorService saveExecutor = createSaveExecutor();
+
+	private long seed;
+	private long date;
+
+	private byte[] buttons;
+	private short[] checksums;
+	private int ticks;
+	private int lastChecksum;
+
+	// Whether the game was paused since the last update.
+	private boolean paused;
+
+	private boolean finished;
+
+	/**
+	 * Creates a recorder for a game that is starting.
+	 * @param seed The seed of the game.
+	 */
+
+	public ReplayRecorder(long seed) {
+		this.seed = seed;
+		this.date = System.currentTimeMillis();
+
+		buttons = new byte[INITIAL_TICKS];
+		checksums = new short[INITIAL_TICKS];
+	}
+
+	/**
+	 * Records an update.
+	 * @param buttons The buttons that were held.
+	 * @param checksum The checksum of the game after the update.
+	 */
+
+	public synchronized void tick(int buttons, int checksum) {
+		if (finished) {
+			return;
+		}
+
+		// Makes room for another 10 minutes, and then doubles each time.
+		if (ticks == this.buttons.length) {
+			this.buttons = Arrays.copyOf(this.buttons, ticks * 2);
+			checksums = Arrays.copyOf(checksums, ticks * 2);
+		}
+
+		if (paused) {
+			buttons |= ReplayController.PAUSED;
+			paused = false;
+		}
+
+		this.buttons[ticks] = (byte) buttons;
+		checksums[ticks] = (short) checksum;
+		lastChecksum = checksum;
+		ticks++;
+	}
+
+	/**
+	 * Records that the game was paused. It is saved with the next update.
+	 */
+
+	public synchronized void paused() {
+		paused = true;
+	}
+
+	/**
+	 * Saves the replay on the background thread, if anything was <br>
+	 * played. Nothing else is recorded afterwards.
+	 * @return The file of the replay once it is saved, which is null if <br>
+	 * it could not be saved, or null if there is nothing to save.
+	 */
+
+	public synchronized Future<File> finish() {
+		if (finished) {
+			return null;
+		}
+		finished = true;
+
+		if (ticks == 0) {
+			return null;
+		}
+
+		final Replay replay = createReplay();
+
+		// The memory is not needed once the replay is created.
+		buttons = null;
+		checksums = null;
+
+		FutureTask<File> task = new FutureTask<File>(new Callable<File>() {
+
+			@Override
+			public File call() {
+				return save(replay);
+			}
+
+		});
+
+		try {
+			saveExecutor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			// The game is closing, so the replay is saved on this thread.
+			task.run();
+		}
+		return task;
+	}
+
+	/**
+	 * Saves a replay. This is called on the background thread. <br>
+	 * The replay is written to a temporary file, which is then renamed, <br>
+	 * so a replay is never left half-written.
+	 * @param replay The replay.
+	 * @return The file of the replay, or null if it was not saved.
+	 */
+
+	private static File save(Replay replay) {
+		File folder = new File(FOLDER);
+		folder.mkdirs();
+		deleteOldFiles();
+
+		File file = getFile(folder, replay.getDate());
+		File tempFile = new File(file.getPath() + ".tmp");
+
+		try {
+			try {
+				replay.write(tempFile);
+
+				try {
+					Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile.toPath(), file.toPath());
+				}
+				return file;
+			}
+			finally {
+				// The temporary file is removed if the replay could not be saved.
+				Files.deleteIfExists(tempFile.toPath());
+			}
+		}
+		catch (IOException e) {
+			System.out.println("Problem saving the replay " + file);
+			return null;
+		}
+	}
+
+	/**
+	 * Gets a file for a replay that does not exist yet. The name <br>
+	 * starts with the date the game started, to the millisecond, and a <br>
+	 * number is added if there is already a replay with that name.
+	 * @param folder The folder of the replays.
+	 * @param date The time the game started.
+	 */
+
+	private static File getFile(File folder, long date) {
+		String name = "replay-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS", Locale.ROOT).format(new Date(date));
+		File file = new File(folder, name + ".ecr");
+
+		for (int i = 2; file.exists(); i++) {
+			file = new File(folder, name + "-" + i + ".ecr");
+		}
+		return file;
+	}
+
+	/**
+	 * Creates a replay of every update that has been recorded.
+	 */
+
+	private Replay createReplay() {
+		return new Replay(seed, date, Arrays.copyOf(buttons, ticks), Arrays.copyOf(checksums, ticks),
+				ticks, lastChecksum);
+	}
+
+	/**
+	 * Deletes the oldest replays, so only the newest MAX_FILES are kept.
+	 */
+
+	private static void deleteOldFiles() {
+		File[] files = new File(FOLDER).listFiles();
+
+		if (files == null || files.length < MAX_FILES) {
+			return;
+		}
+
+		// The names start with the date, so they sort from oldest to newest.
+		Arrays.sort(files);
+
+		for (int i = 0; i <= files.length - MAX_FILES; i++) {
+			if (files[i].getName().startsWith("replay-") && !files[i].delete()) {
+				System.out.println("Problem deleting " + files[i]);
+			}
+		}
+	}
+
+	/**
+	 * Creates the thread that saves the replays. The game waits for <br>
+	 * it to finish when it closes.
+	 */
+
+	private static ExecutorService createSaveExecutor() {
+		final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "replay-io");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				executor.shutdown();
+
+				try {
+					executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// The game closes without waiting.
+				}
+			}
+
+		}));
+		return executor;
+	}
+
+}
@@ -0,0 +1,143 @@
+package replay;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import game.Game;
+import gamestates.PlayState;
+import gamestates.StateManager;
+
+/**
+ * The ReplayRunner plays a replay without a window, as fast as it <br>
+ * can, and checks that it plays the same as when it was recorded. <br>
+ * It prints how long the replay took, and the first update that was <br>
+ * different if there was one. The exit code is 1 if the replay played <br>
+ * differently, so it can be used to check a change to the game. <br> <br>
+ *
+ * Arguments: the replay file, and -render to draw every frame as well. <br>
+ * With no file, the newest replay in cache/replays is played. <br> <br>
+ *
+ * To watch a replay in the window, start the game with <br>
+ * -Deternalcombat.replay=&lt;file&gt; instead.
+ *
+ * @author Elliott Vince
+ */
+
+public class ReplayRunner {
+
+	/**
+	 * Plays the replay.
+	 * @param args The arguments.
+	 */
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		File file = null;
+		boolean render = false;
+
+		for (String arg : args) {
+			if (arg.equals("-render")) {
+				render = true;
+			}
+			else {
+				file = new File(arg);
+			}
+		}
+
+		if (file == null) {
+			file = getNewestReplay();
+
+			if (file == null) {
+				System.out.println("No replays were found in " + ReplayRecorder.FOLDER);
+				System.exit(1);
+			}
+		}
+
+		Replay replay;
+		try {
+			replay = Replay.read(file);
+		}
+		catch (IOException e) {
+			System.out.println("Problem reading the replay: " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		Game game = Game.createHeadless();
+		StateManager stateManager = game.getStateManager();
+		stateManager.startReplay(replay);
+
+		PlayState playState = stateManager.getPlayState();
+		ReplayPlayer player = playState.getReplayPlayer();
+
+		BufferedImage image = null;
+		Graphics2D graphics = null;
+		if (render) {
+			image = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+			graphics = image.createGraphics();
+		}
+
+		long start = System.nanoTime();
+
+		// Plays until every update has been played, or the player dies.
+		while (!player.isFinished() && stateManager.getCurrentState() == playState) {
+			game.update();
+
+			if (graphics != null) {
+				game.render(graphics);
+			}
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		double gameSeconds = (double) player.getTick() / Game.TICKS_PER_SECOND;
+
+		System.out.println(file.getName());
+		System.out.println(String.format(Locale.ROOT, "Updates:   %d of %d (%.1f s of game time, %d pauses)",
+				player.getTick(), replay.getTicks(), gameSeconds, player.getPauses()));
+		System.out.println(String.format(Locale.ROOT, "Played in: %.2f s (%.0fx real time%s)",
+				seconds, gameSeconds / seconds, render ? ", with rendering" : ""));
+		System.out.println("Score:     " + playState.getPlayer().getScore()
+				+ ", level " + playState.getLevelManager().getCurrentLevel());
+
+		boolean same = player.getDivergedTick() < 0 && player.isFinished();
+		if (player.getDivergedTick() >= 0) {
+			System.out.println("Result:    DIVERGED at update " + player.getDivergedTick());
+		}
+		else if (!player.isFinished()) {
+			System.out.println("Result:    DIVERGED (the game ended early)");
+		}
+		else {
+			System.out.println("Result:    OK");
+		}
+
+		if (graphics != null) {
+			graphics.dispose();
+		}
+		System.exit(same ? 0 : 1);
+	}
+
+	/**
+	 * Gets the newest replay, or null if there are none.
+	 */
+
+	private static File getNewestReplay() {
+		File[] files = new File(ReplayRecorder.FOLDER).listFiles();
+		File newest = null;
+
+		if (files != null) {
+			for (File file : files) {
+				// The names start with the date, so the newest has the greatest name.
+				if (file.getName().endsWith(".ecr")
+						&& (newest == null || file.getName().compareTo(newest.getName()) > 0)) {
+					newest = file;
+				}
+			}
+		}
+		return newest;
+	}
+
+}
@@ -1,190 +1,253 @@
 package ui;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.Image;
-
-import javax.swing.ImageIcon;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
+import assets.AssetManager;
+import game.Setting;
+import game.SettingListener;
+import game.Settings;
+import gameobjects.player.Player;
 import gamestates.PlayState;
-import util.Methods;
+import levels.LevelManager;
 
 /**
  * The HUD is a UI component that will display the player's health,
  * amount of ammo, and other things in the game such as how many
- * skeletons are alive, the current level, and the player's score.
- * 
+ * skeletons are alive, the current level, and the player's score. <br> <br>
+ *
+ * The HUD is drawn into its own image, which is only drawn again <br>
+ * when one of its values or the render quality changes. Every other <br>
+ * frame, the image is simply copied to the screen.
+ *
  * @author Elliott Vince
  */
 
 public class HUD {
-	
+
 	// The default font and text color.
 	private static Font DEFAULT_FONT = new Font("Arial", Font.PLAIN, 16);
 	private static Color DEFAULT_TEXT_COLOR = Color.WHITE;
-	
+
+	// The size of the HUD's image.
+	private static final int IMAGE_WIDTH = 146;
+	private static final int IMAGE_HEIGHT = 210;
+
+	// Extra space on the right of the HUD for long numbers.
+	private static final int TEXT_MARGIN = 60;
+
 	private PlayState playState;
-	
+
 	// The location of the HUD.
 	private int posX;
 	private int posY;
-	
+
 	// The HUD's image.
-	private Image image;
-	
+	private BufferedImage image;
+
+	// The image that the HUD is drawn into.
+	private BufferedImage layer;
+
+	// Whether the layer needs to be drawn again.
+	private volatile boolean changed;
+
 	// Variables that will be displayed on the HUD.
-	
-	/*
-	 * The player's health is a string becaused it is displayed
-	 * in the HUD as "health / max health HP".
-	 */
-	
-	private String health;
-	
-	/*
-	 * The player's ammo is a string becaused it is displayed
-	 * in the HUD as "ammo / max ammo".
-	 */
-	
-	private String ammoRemaining;
-	
-	/*
-	 * The number of skeletons remaining is also formatted as
-	 * a string.
-	 */
-	
-	private String skeletonsRemaining;
-	
-	
+
+	// The player's health, displayed as "health / max health".
+	private int health;
+	private int maxHealth;
+
+	// The player's ammo, displayed as "ammo / max ammo".
+	private int ammo;
+	private int maxAmmo;
+
+	// The number of skeletons remaining, displayed as "alive / total".
+	private int aliveSkeletons;
+	private int totalSkeletons;
+
 	// The game's current level.
 	private int level;
-	
+
 	// The player's score.
 	private int score;
-	
+
 	/**
 	 * Creates a new HUD object.
 	 * @param playState An instance of the PlayState class.
 	 */
-	
+
 	public HUD(PlayState playState) {
 		// Initialize each of the variables
 		this.playState = playState;
-		
+
 		// Sets the location of the HUD to the top left corner.
 		this.posX = 20;
 		this.posY = 20;
-		
+
 		// Initializes and scales the HUD's image.
-		
-		this.image = Methods.scaleImage(new ImageIcon
-				("resources/ui/HUD.png").getImage(), 146, 210);
-		
+		this.image = AssetManager.getScaledImage("resources/ui/HUD.png",
+				IMAGE_WIDTH, IMAGE_HEIGHT);
+
+		// Creates the layer that the HUD is drawn into.
+		this.layer = AssetManager.createImage(IMAGE_WIDTH + TEXT_MARGIN,
+				IMAGE_HEIGHT, Transparency.TRANSLUCENT);
+
+		// Draws the layer again with the new hints when the render quality changes.
+		playState.getGame().getSettings().addListener(new SettingListener() {
+
+			@Override
+			public void settingChanged(Setting<?> setting) {
+				if (setting == Settings.RENDER_QUALITY) {
+					changed = true;
+				}
+			}
+
+		});
+
+		reset();
+	}
+
+	/**
+	 * Resets the HUD for a new game. The image and layer are reused, <br>
+	 * and the layer is drawn again with the new game's values.
+	 */
+
+	public void reset() {
 		// Initializes the variables that should be displayed.
-		this.health = playState.getPlayer().getHealth() + " / " +
-				playState.getPlayer().getMaxHealth() + " HP";
-		
-		this.ammoRemaining = playState.getPlayer().getAmmo() + " / " +
-				playState.getPlayer().getMaxAmmo();
-		
-		this.level = playState.getLevelManager().getCurrentLevel();
-		
-		this.skeletonsRemaining = playState.getLevelManager()
-				.getAliveSkeletons() + " / " + playState.getLevelManager()
-				.getTotalSkeletons();
-		
-		this.score = playState.getPlayer().getScore();
-		
+		update();
+		changed = true;
 	}
-	
+
 	/**
 	 * Gets the y position of the HUD.
 	 */
-	
+
 	public int getPosX() {
 		return posX;
 	}
-	
+
 	/**
 	 * Gets the x position of the HUD.
 	 */
-	
+
 	public int getPosY() {
 		return posY;
 	}
-	
+
 	/**
 	 * Sets the location of the HUD.
 	 * @param x The new x location of the HUD.
 	 * @param y The new y location of the HUD.
 	 */
-	
+
 	public void setLocation(int x, int y) {
 		this.posX = x;
 		this.posY = y;
 	}
-	
+
 	/**
 	 * Updates the HUD. This will update any of its components
 	 * and variables, such as the player's health, the amount of skeletons
-	 * remaining, the player's ammo, etc.
+	 * remaining, the player's ammo, etc. <br>
+	 * The HUD is only drawn again if one of these has changed.
 	 */
-	
+
 	public void update() {
-		
+		Player player = playState.getPlayer();
+		LevelManager levelManager = playState.getLevelManager();
+
 		/*
 		 * Updates the HUD variables.
 		 */
-		
-		this.health = playState.getPlayer().getHealth() + " / " +
-				playState.getPlayer().getMaxHealth();
-		
-		this.ammoRemaining = playState.getPlayer().getAmmo() + " / " +
-				playState.getPlayer().getMaxAmmo();
-		
-		this.level = playState.getLevelManager().getCurrentLevel();
-		
-		this.skeletonsRemaining = playState.getLevelManager()
-				.getAliveSkeletons() + " / " + playState.getLevelManager()
-				.getTotalSkeletons();
-		
-		this.score = playState.getPlayer().getScore();
-		
-		
-		
+
+		if (health != player.getHealth() || maxHealth != player.getMaxHealth()) {
+			health = player.getHealth();
+			maxHealth = player.getMaxHealth();
+			changed = true;
+		}
+
+		if (ammo != player.getAmmo() || maxAmmo != player.getMaxAmmo()) {
+			ammo = player.getAmmo();
+			maxAmmo = player.getMaxAmmo();
+			changed = true;
+		}
+
+		if (level != levelManager.getCurrentLevel()) {
+			level = levelManager.getCurrentLevel();
+			changed = true;
+		}
+
+		if (aliveSkeletons != levelManager.getAliveSkeletons() ||
+				totalSkeletons != levelManager.getTotalSkeletons()) {
+			aliveSkeletons = levelManager.getAliveSkeletons();
+			totalSkeletons = levelManager.getTotalSkeletons();
+			changed = true;
+		}
+
+		if (score != player.getScore()) {
+			score = player.getScore();
+			changed = true;
+		}
 	}
-	
+
 	/**
 	 * Renders the HUD to the screen.
 	 * @param graphics The graphics object which will render the HUD.
 	 */
-	
+
 	public void render(Graphics2D graphics) {
-		
+
+		// Draws the HUD into its layer if any of the values have changed.
+		if (changed) {
+			repaint();
+			changed = false;
+		}
+
+		graphics.drawImage(layer, posX, posY, null);
+	}
+
+	/**
+	 * Draws the HUD's image and values into the layer.
+	 */
+
+	private void repaint() {
+		Graphics2D graphics = layer.createGraphics();
+
+		// Uses the same rendering hints as the rest of the game.
+		playState.getGame().getSettings().get(Settings.RENDER_QUALITY).apply(graphics);
+
+		// Clears the last HUD.
+		graphics.setComposite(AlphaComposite.Clear);
+		graphics.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+		graphics.setComposite(AlphaComposite.SrcOver);
+
 		// Draws the HUD's image.
-		graphics.drawImage(image, posX, posY, null);
-		
+		graphics.drawImage(image, 0, 0, null);
+
 		// Sets the color and font of the graphics.
 		graphics.setColor(DEFAULT_TEXT_COLOR);
 		graphics.setFont(DEFAULT_FONT);
-		
+
 		// Draws the player's current ammo count to the HUD.
-		graphics.drawString(ammoRemaining, posX + 60, posY + 28);
-		
+		graphics.drawString(ammo + " / " + maxAmmo, 60, 28);
+
 		// Draws the player's current health to the HUD.
-		graphics.drawString(health, posX + 60, posY + 69);
-		
+		graphics.drawString(health + " / " + maxHealth, 60, 69);
+
 		// Formats and draws the current level to the HUD.
-		graphics.drawString("Level " + level, posX + 60, posY + 111);
-		
+		graphics.drawString("Level " + level, 60, 111);
+
 		// Draws the number of remaining skeletons to the HUD.
-		graphics.drawString(skeletonsRemaining, posX + 60, posY + 153);
-		
+		graphics.drawString(aliveSkeletons + " / " + totalSkeletons, 60, 153);
+
 		// Draws the player's score to the HUD.
-		graphics.drawString("Score: " + score, posX + 20, posY + 195);
+		graphics.drawString("Score: " + score, 20, 195);
+
+		graphics.dispose();
 	}
-	
-	
 
 }
@@ -1,7 +1,7 @@
 package ui;
 
 import java.awt.Color;
-import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 
 import gameobjects.LivingEntity;
 import gamestates.PlayState;
@@ -35,12 +35,14 @@ public class Healthbar {
 	
 	private LivingEntity entity;
 	
+	// The pre-rendered images of the healthbar.
+	private BufferedImage[] sprites;
+	
 	/**
 	 * Creates a new Healthbar. <br> <br>
 	 * The entity specified in the constructor is the entity <br>
-	 * which this healthbar belongs to. To use this healthbar, <br>
-	 * call its update method during the LivingEntity's update method. <br>
-	 * This will cause the the UI of the healthbar to update.
+	 * which this healthbar belongs to. The healthbar is drawn by <br>
+	 * the HealthbarRenderer, which draws every healthbar at once.
 	 * 
 	 * @param entity The LivingEntity which this healthbar belongs to.
 	 */
@@ -68,40 +70,100 @@ public class Healthbar {
 	}
 	
 	/**
-	 * Similarly to the draw(Graphics2D graphics) method seen in some classes,
-	 * this method will simply update the location and values of the healthbar,
-	 * while drawing it to the screen. <br> <br>
-	 * To use this method, call it in the draw method of the living entity.
-	 * @param playState 
+	 * Updates the location and health values of the healthbar. <br>
+	 * The healthbar is not drawn here. Instead, every healthbar is <br>
+	 * drawn at once by the HealthbarRenderer.
+	 * @param playState An instance of the PlayState class.
 	 */
 	
-	public void update(PlayState playState, Graphics2D graphics) {
+	public void update(PlayState playState) {
 		// Updates the position and health variables.
 		xPos = entity.getPosX() - playState.getCamera().getPosX();
 		yPos = entity.getPosY() - playState.getCamera().getPosY();
 		
 		health = entity.getHealth();
 		maxHealth = entity.getMaxHealth();
+	}
+	
+	/**
+	 * Gets the pre-rendered images of the healthbar. <br>
+	 * There is one image for each fill level, and healthbars <br>
+	 * with the same colors and size share the same images.
+	 */
+	
+	public BufferedImage[] getSprites() {
+		if (sprites == null) {
+			sprites = HealthbarRenderer.getSprites(bgColor, fgColor, 
+					borderColor, width, height);
+		}
+		return sprites;
+	}
+	
+	/**
+	 * Gets the image of the healthbar at its current health.
+	 */
+	
+	public BufferedImage getSprite() {
+		return getSprites()[getLevel()];
+	}
+	
+	/**
+	 * Gets the fill level of the healthbar, from 0 (empty) to
+	 * HealthbarRenderer.LEVELS (full). <br>
+	 * A damaged entity never shows a full bar, and a living
+	 * entity never shows an empty bar.
+	 */
+	
+	private int getLevel() {
+		if (health >= maxHealth) {
+			return HealthbarRenderer.LEVELS;
+		}
+		else if (health <= 0) {
+			return 0;
+		}
 		
-		/*
-		 * Draws three rectangles in the order of background, 
-		 * foreground, and then the border.
-		 */
-		
-		// Draws and fills the background of the rectangle.
-		graphics.setColor(bgColor);
-		graphics.fillRect(xPos, yPos, width, height);
-		
-		/*
-		 * Draws and fills the foreground of the rectangle.
-		 * Here, the health percentage (health 
-		 */
-		graphics.setColor(fgColor);
-		graphics.fillRect(xPos, yPos, (int) (width * getHealthPercentage()), height);
-		
-		// Draws ONLY the border of the rectangle.
-		graphics.setColor(borderColor);
-		graphics.drawRect(xPos, yPos, width, height);
+		int level = (int) (HealthbarRenderer.LEVELS * getHealthPercentage());
+		return Math.min(Math.max(level, 1), HealthbarRenderer.LEVELS - 1);
+	}
+	
+	/**
+	 * Determines whether the entity has full health.
+	 */
+	
+	public boolean isFull() {
+		return health >= maxHealth;
+	}
+	
+	/**
+	 * Gets the x location of the healthbar on the screen.
+	 */
+	
+	public int getX() {
+		return xPos;
+	}
+	
+	/**
+	 * Gets the y location of the healthbar on the screen.
+	 */
+	
+	public int getY() {
+		return yPos;
+	}
+	
+	/**
+	 * Gets the width of the healthbar, including its border.
+	 */
+	
+	public int getWidth() {
+		return width + 1;
+	}
+	
+	/**
+	 * Gets the height of the healthbar, including its border.
+	 */
+	
+	public int getHeight() {
+		return height + 1;
 	}
 	
 	/**
@@ -117,6 +179,7 @@ public class Healthbar {
 		this.yPos = yPos;
 		this.width = width;
 		this.height = height;
+		this.sprites = null;
 	}
 	
 	/**
@@ -126,6 +189,7 @@ public class Healthbar {
 	
 	public void setBackgroundColor(Color bgColor) {
 		this.bgColor = bgColor;
+		this.sprites = null;
 	}
 	
 	/**
@@ -135,6 +199,7 @@ public class Healthbar {
 	
 	public void setForegroundColor(Color fgColor) {
 		this.fgColor = fgColor;
+		this.sprites = null;
 	}
 	
 	/**
@@ -144,6 +209,7 @@ public class Healthbar {
 	
 	public void setBorderColor(Color borderColor) {
 		this.borderColor = borderColor;
+		this.sprites = null;
 	}
 	
 	/**
@@ -0,0 +1,184 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import assets.AssetManager;
+import game.Game;
+import gameobjects.GameObject;
+import gameobjects.LivingEntity;
+import gamestates.PlayState;
+
+/**
+ * The HealthbarRenderer draws the healthbars of every living entity <br>
+ * in the PlayState at once, after the entities have been drawn. <br> <br>
+ *
+ * Healthbars are drawn from pre-rendered images, with one image for <br>
+ * each fill level. Healthbars that share the same images are drawn <br>
+ * together, and healthbars that are off the screen are skipped. <br>
+ * If the setting is enabled, the healthbars of enemies with full <br>
+ * health are hidden.
+ *
+ * @author Elliott Vince
+ */
+
+public class HealthbarRenderer {
+
+	// The number of fill levels that a healthbar can show.
+	public static final int LEVELS = 32;
+
+	// Pre-rendered healthbar images, stored by their colors and size.
+	private static Map<String, BufferedImage[]> spriteCache =
+			new HashMap<String, BufferedImage[]>();
+
+	private PlayState playState;
+
+	/*
+	 * The healthbars that will be drawn this frame. Each list holds
+	 * the healthbars that share the same images. The lists are reused
+	 * every frame.
+	 */
+
+	private List<BufferedImage[]> batchSprites;
+	private List<List<Healthbar>> batches;
+
+	/**
+	 * Creates a new HealthbarRenderer.
+	 * @param playState An instance of the PlayState class.
+	 */
+
+	public HealthbarRenderer(PlayState playState) {
+		this.playState = playState;
+		this.batchSprites = new ArrayList<BufferedImage[]>();
+		this.batches = new ArrayList<List<Healthbar>>();
+	}
+
+	/**
+	 * Draws the healthbar of every visible living entity.
+	 * @param graphics The graphics object which will draw the healthbars.
+	 */
+
+	public void render(Graphics2D graphics) {
+		boolean showFullHealthbars = playState.getGame().getSettings()
+				.areFullHealthbarsShown();
+		List<GameObject> gameObjects = playState.getGameObjects();
+
+		// Sorts the visible healthbars into batches.
+		for (int index = 0; index < gameObjects.size(); index++) {
+			GameObject gameObject = gameObjects.get(index);
+
+			if (!(gameObject instanceof LivingEntity)) {
+				continue;
+			}
+
+			Healthbar healthbar = ((LivingEntity) gameObject).getHealthbar();
+			healthbar.update(playState);
+
+			// The player's healthbar is always shown.
+			if (!showFullHealthbars && healthbar.isFull() &&
+					gameObject != playState.getPlayer()) {
+				continue;
+			}
+
+			if (isVisible(healthbar)) {
+				getBatch(healthbar.getSprites()).add(healthbar);
+			}
+		}
+
+		// Draws each batch, and empties it for the next frame.
+		for (int i = 0; i < batches.size(); i++) {
+			List<Healthbar> batch = batches.get(i);
+
+			for (int j = 0; j < batch.size(); j++) {
+				Healthbar healthbar = batch.get(j);
+				graphics.drawImage(healthbar.getSprite(), healthbar.getX(),
+						healthbar.getY(), null);
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Gets the batch of healthbars that use the specified images.
+	 * @param sprites The images of the healthbar.
+	 */
+
+	private List<Healthbar> getBatch(BufferedImage[] sprites) {
+		for (int i = 0; i < batchSprites.size(); i++) {
+			if (batchSprites.get(i) == sprites) {
+				return batches.get(i);
+			}
+		}
+
+		List<Healthbar> batch = new ArrayList<Healthbar>();
+		batchSprites.add(sprites);
+		batches.add(batch);
+		return batch;
+	}
+
+	/**
+	 * Determines whether the healthbar can be seen on the screen.
+	 * @param healthbar The healthbar to be checked.
+	 */
+
+	private boolean isVisible(Healthbar healthbar) {
+		return healthbar.getX() + healthbar.getWidth() > 0 &&
+				healthbar.getY() + healthbar.getHeight() > 0 &&
+				healthbar.getX() < Game.WIDTH && healthbar.getY() < Game.HEIGHT;
+	}
+
+	/**
+	 * Gets the pre-rendered images of a healthbar with the specified <br>
+	 * colors and size. The images are created the first time they are needed. <br>
+	 * The image at index i is filled to i / LEVELS of its width.
+	 * @param bgColor The background color of the healthbar.
+	 * @param fgColor The foreground color of the healthbar.
+	 * @param borderColor The border color of the healthbar.
+	 * @param width The width of the healthbar.
+	 * @param height The height of the healthbar.
+	 */
+
+	public static synchronized BufferedImage[] getSprites(Color bgColor, Color fgColor,
+			Color borderColor, int width, int height) {
+		String key = bgColor.getRGB() + ":" + fgColor.getRGB() + ":" +
+				borderColor.getRGB() + ":" + width + "x" + height;
+		BufferedImage[] sprites = spriteCache.get(key);
+
+		if (sprites == null) {
+			sprites = new BufferedImage[LEVELS + 1];
+
+			for (int level = 0; level <= LEVELS; level++) {
+				// The border is drawn one pixel past the width and height.
+				BufferedImage sprite = AssetManager.createImage(width + 1, height + 1,
+						Transparency.TRANSLUCENT);
+				Graphics2D graphics = sprite.createGraphics();
+
+				/*
+				 * Draws three rectangles in the order of background,
+				 * foreground, and then the border.
+				 */
+
+				graphics.setColor(bgColor);
+				graphics.fillRect(0, 0, width, height);
+
+				graphics.setColor(fgColor);
+				graphics.fillRect(0, 0, width * level / LEVELS, height);
+
+				graphics.setColor(borderColor);
+				graphics.drawRect(0, 0, width, height);
+
+				graphics.dispose();
+				sprites[level] = sprite;
+			}
+			spriteCache.put(key, sprites);
+		}
+		return sprites;
+	}
+
+}
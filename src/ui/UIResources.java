@@ -0,0 +1,143 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import assets.AssetManager;
+
+/**
+ * UIResources stores the images, fonts and font metrics that <br>
+ * the UI components share. Every UIButton uses the same background <br>
+ * image and most of them use the same font, so these are only <br>
+ * created once.
+ *
+ * @author Elliott Vince
+ */
+
+public class UIResources {
+
+	// The default font of the UI components.
+	public static final Font DEFAULT_FONT = getFont("Arial", Font.PLAIN, 28);
+
+	// Fonts, stored by their name, style and size.
+	private static Map<String, Font> fonts;
+
+	// Font metrics, stored by their font.
+	private static Map<Font, FontMetrics> fontMetrics;
+
+	// The graphics object used to measure text outside of rendering.
+	private static Graphics2D measureGraphics;
+
+	/**
+	 * UIResources only has static methods.
+	 */
+
+	private UIResources() {
+	}
+
+	/**
+	 * Gets the image at the specified path. <br>
+	 * The image is shared by every component that uses it, so it <br>
+	 * must not be drawn on.
+	 * @param path The file path of the image.
+	 */
+
+	public static BufferedImage getImage(String path) {
+		return AssetManager.getImage(path);
+	}
+
+	/**
+	 * Gets a font with the specified name, style and size.
+	 * @param name The name of the font.
+	 * @param style The style of the font (eg. Font.PLAIN).
+	 * @param size The size of the font.
+	 */
+
+	public static synchronized Font getFont(String name, int style, int size) {
+		if (fonts == null) {
+			fonts = new ConcurrentHashMap<String, Font>();
+		}
+
+		String key = name + ":" + style + ":" + size;
+		Font font = fonts.get(key);
+
+		if (font == null) {
+			font = new Font(name, style, size);
+			fonts.put(key, font);
+		}
+		return font;
+	}
+
+	/**
+	 * Gets a font that is the same as the specified font, but with <br>
+	 * a different size.
+	 * @param font The original font.
+	 * @param size The size of the new font.
+	 */
+
+	public static Font getFont(Font font, int size) {
+		return getFont(font.getName(), font.getStyle(), size);
+	}
+
+	/**
+	 * Gets the metrics of the specified font. <br>
+	 * These can be used to measure text without a graphics object.
+	 * @param font The font to be measured.
+	 */
+
+	public static synchronized FontMetrics getFontMetrics(Font font) {
+		if (fontMetrics == null) {
+			fontMetrics = new ConcurrentHashMap<Font, FontMetrics>();
+			measureGraphics = new BufferedImage(1, 1,
+					BufferedImage.TYPE_INT_ARGB).createGraphics();
+		}
+
+		FontMetrics metrics = fontMetrics.get(font);
+
+		if (metrics == null) {
+			metrics = measureGraphics.getFontMetrics(font);
+			fontMetrics.put(font, metrics);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Draws a line of text into its own image. <br>
+	 * Drawing text to the screen allocates memory every frame when <br>
+	 * the components use different fonts, but copying an image does <br>
+	 * not, so the components draw their text once and reuse the image.
+	 * @param text The text to be drawn.
+	 * @param font The font of the text.
+	 * @param color The color of the text.
+	 * @param antialiasing The text antialiasing hint of the screen, or null.
+	 * @return The image. The top of the image is the top of the text's ascent.
+	 */
+
+	public static BufferedImage createTextImage(String text, Font font, Color color,
+			Object antialiasing) {
+		FontMetrics metrics = getFontMetrics(font);
+
+		BufferedImage image = AssetManager.createImage(Math.max(1, metrics.stringWidth(text)),
+				Math.max(1, metrics.getHeight()), Transparency.TRANSLUCENT);
+		Graphics2D graphics = image.createGraphics();
+
+		if (antialiasing != null) {
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, antialiasing);
+		}
+
+		graphics.setFont(font);
+		graphics.setColor(color);
+		graphics.drawString(text, 0, metrics.getAscent());
+		graphics.dispose();
+
+		return image;
+	}
+
+}
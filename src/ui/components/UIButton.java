@@ -4,13 +4,12 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
+import java.awt.FontMetrics;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
 import ui.UIComponent;
+import ui.UIResources;
 import ui.events.ButtonClickAction;
 
 /**
@@ -33,9 +32,23 @@ public class UIButton extends UIComponent {
 	// Text Font
 	private Font font;
 	
-	// Text Location
-	private int textX;
-	private int textY;
+	/*
+	 * Text Location. The location is relative to the component, and
+	 * it is only measured again when the text or the font changes.
+	 */
+	
+	private int textOffsetX;
+	private int textOffsetY;
+	private int textAscent;
+	private boolean textMeasured;
+	
+	/*
+	 * The text is drawn into this image, which is created again when
+	 * the text, or the antialiasing of the screen, changes.
+	 */
+	
+	private BufferedImage textImage;
+	private Object textAntialiasing;
 	
 	// Text Color
 	private Color textColor;
@@ -66,12 +79,8 @@ public class UIButton extends UIComponent {
 		// Calls the parent class's init method.
 		super.init();
 		
-		// Initializes the image.
-		try {
-			image = ImageIO.read(new File(IMAGE_PATH));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// Initializes the image. The image is shared by every UIButton.
+		image = UIResources.getImage(IMAGE_PATH);
 		
 		// Sets the UIButton's image.
 		setImage(image);
@@ -81,7 +90,7 @@ public class UIButton extends UIComponent {
 		this.height = image.getHeight();
 		
 		// Sets the button's font and text color.
-		font = new Font("Arial", Font.PLAIN, 28);
+		font = UIResources.DEFAULT_FONT;
 		textColor = Color.WHITE;
 	}
 	
@@ -99,7 +108,12 @@ public class UIButton extends UIComponent {
 	 */
 	
 	public void setText(String text) {
-		this.text = text;
+		// The text is only measured again if it has changed.
+		if (this.text == null || !this.text.equals(text)) {
+			this.text = text;
+			textMeasured = false;
+			textImage = null;
+		}
 	}
 	
 	/**
@@ -107,7 +121,7 @@ public class UIButton extends UIComponent {
 	 */
 	
 	public int getTextX() {
-		return textX;
+		return posX + textOffsetX;
 	}
 
 	/**
@@ -115,7 +129,7 @@ public class UIButton extends UIComponent {
 	 */
 	
 	public int getTextY() {
-		return textY;
+		return posY + textOffsetY;
 	}
 	
 	/**
@@ -149,6 +163,8 @@ public class UIButton extends UIComponent {
 	
 	public void setTextFont(Font font) {
 		this.font = font;
+		textMeasured = false;
+		textImage = null;
 	}
 	
 	/**
@@ -157,8 +173,10 @@ public class UIButton extends UIComponent {
 	 */
 	
 	public void setFontSize(int fontSize) {
-		// Updates the font.
-		this.font = new Font(font.getName(), font.getStyle(), fontSize);
+		// Updates the font. Fonts of the same size are shared.
+		this.font = UIResources.getFont(font, fontSize);
+		textMeasured = false;
+		textImage = null;
 	}
 	
 	/**
@@ -176,6 +194,7 @@ public class UIButton extends UIComponent {
 	
 	public void setForeground(Color color) {
 		this.textColor = color;
+		textImage = null;
 	}
 	
 	/**
@@ -221,13 +240,20 @@ public class UIButton extends UIComponent {
 		
 		if (text != null && !text.equals("")) {
 			
-			graphics.setFont(font);
-			graphics.setColor(textColor);
+			// Centers the text if it has changed.
+			if (!textMeasured) {
+				centerText();
+			}
 			
-			// Centers the text.
-			centerText(graphics);
-			// Draws the text to the screen.
-			graphics.drawString(text, textX, textY);
+			// Draws the text into its image if it has changed.
+			Object antialiasing = graphics.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+			if (textImage == null || antialiasing != textAntialiasing) {
+				textImage = UIResources.createTextImage(text, font, textColor, antialiasing);
+				textAntialiasing = antialiasing;
+			}
+			
+			// Draws the text to the screen. The image starts at the top of the text.
+			graphics.drawImage(textImage, posX + textOffsetX, posY + textOffsetY - textAscent, null);
 		}
 	}
 	
@@ -235,14 +261,18 @@ public class UIButton extends UIComponent {
 	 * Centers the text in the button.
 	 */
 	
-	private void centerText(Graphics2D graphics) {
-		int textWidth = graphics.getFontMetrics().stringWidth(text);
-		int textHeight = graphics.getFontMetrics().getHeight();
-		int ascent = graphics.getFontMetrics().getAscent();
+	private void centerText() {
+		FontMetrics metrics = UIResources.getFontMetrics(font);
+		
+		int textWidth = metrics.stringWidth(text);
+		int textHeight = metrics.getHeight();
+		int ascent = metrics.getAscent();
+		textAscent = ascent;
 		
 		// Updates the UIButton's text location.
-		textX = posX + image.getWidth() / 2 - textWidth / 2;
-		textY = posY + (height - textHeight) / 2 + ascent;
+		textOffsetX = image.getWidth() / 2 - textWidth / 2;
+		textOffsetY = (height - textHeight) / 2 + ascent;
+		textMeasured = true;
 	}
 
 }
@@ -4,13 +4,12 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
+import java.awt.FontMetrics;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
 import ui.UIComponent;
+import ui.UIResources;
 
 /**
  * The UILabel is a UIComponent that displays a line of text.
@@ -26,9 +25,23 @@ private BufferedImage image;
 	// Text Font
 	private Font font;
 	
-	// Text Location
-	private int textX;
-	private int textY;
+	/*
+	 * Text Location. The location is relative to the component, and
+	 * it is only measured again when the text or the font changes.
+	 */
+	
+	private int textOffsetX;
+	private int textOffsetY;
+	private int textAscent;
+	private boolean textMeasured;
+	
+	/*
+	 * The text is drawn into this image, which is created again when
+	 * the text, or the antialiasing of the screen, changes.
+	 */
+	
+	private BufferedImage textImage;
+	private Object textAntialiasing;
 	
 	// Component Dimensions
 	private int width;
@@ -57,12 +70,8 @@ private BufferedImage image;
 		// Calls the parent class's init method.
 		super.init();
 		
-		// Initializes the image.
-		try {
-			image = ImageIO.read(new File(IMAGE_PATH));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// Initializes the image. The image is shared by every UILabel.
+		image = UIResources.getImage(IMAGE_PATH);
 		
 		// Updates the UILabel's image and dimensions.
 		setImage(image);
@@ -70,7 +79,7 @@ private BufferedImage image;
 		this.height = image.getHeight();
 		
 		// Updates the UILabel's font and text color.
-		font = new Font("Arial", Font.PLAIN, 28);
+		font = UIResources.DEFAULT_FONT;
 		textColor = Color.WHITE;
 	}
 	
@@ -88,7 +97,12 @@ private BufferedImage image;
 	 */
 	
 	public void setText(String text) {
-		this.text = text;
+		// The text is only measured again if it has changed.
+		if (this.text == null || !this.text.equals(text)) {
+			this.text = text;
+			textMeasured = false;
+			textImage = null;
+		}
 	}
 	
 	/**
@@ -96,7 +110,7 @@ private BufferedImage image;
 	 */
 	
 	public int getTextX() {
-		return textX;
+		return posX + textOffsetX;
 	}
 
 	/**
@@ -104,7 +118,7 @@ private BufferedImage image;
 	 */
 	
 	public int getTextY() {
-		return textY;
+		return posY + textOffsetY;
 	}
 
 	/**
@@ -122,6 +136,8 @@ private BufferedImage image;
 	
 	public void setTextFont(Font font) {
 		this.font = font;
+		textMeasured = false;
+		textImage = null;
 	}
 	
 	/**
@@ -130,8 +146,10 @@ private BufferedImage image;
 	 */
 	
 	public void setFontSize(int fontSize) {
-		// Updates the font.
-		this.font = new Font(font.getName(), font.getStyle(), fontSize);
+		// Updates the font. Fonts of the same size are shared.
+		this.font = UIResources.getFont(font, fontSize);
+		textMeasured = false;
+		textImage = null;
 	}
 	
 	/**
@@ -149,6 +167,7 @@ private BufferedImage image;
 	
 	public void setForeground(Color color) {
 		this.textColor = color;
+		textImage = null;
 	}
 	
 	/**
@@ -171,13 +190,20 @@ private BufferedImage image;
 		
 		if (text != null && !text.equals("")) {
 			
-			graphics.setFont(font);
-			graphics.setColor(textColor);
+			// Centers the text if it has changed.
+			if (!textMeasured) {
+				centerText();
+			}
 			
-			// Centers the text.
-			centerText(graphics);
-			// Draws the text to the screen.
-			graphics.drawString(text, textX, textY);
+			// Draws the text into its image if it has changed.
+			Object antialiasing = graphics.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+			if (textImage == null || antialiasing != textAntialiasing) {
+				textImage = UIResources.createTextImage(text, font, textColor, antialiasing);
+				textAntialiasing = antialiasing;
+			}
+			
+			// Draws the text to the screen. The image starts at the top of the text.
+			graphics.drawImage(textImage, posX + textOffsetX, posY + textOffsetY - textAscent, null);
 		}
 		
 	}
@@ -186,9 +212,11 @@ private BufferedImage image;
 	 * Centers the text in the label.
 	 */
 	
-	private void centerText(Graphics2D graphics) {
-		int textWidth = graphics.getFontMetrics().stringWidth(text);
-		int textHeight = graphics.getFontMetrics().getHeight();
+	private void centerText() {
+		FontMetrics metrics = UIResources.getFontMetrics(font);
+		
+		int textWidth = metrics.stringWidth(text);
+		int textHeight = metrics.getHeight();
 		
 		/**
 		 * Apparently the height of the text isn't the actual
@@ -196,10 +224,12 @@ private BufferedImage image;
 		 * as well.
 		 */
 		
-		int ascent = graphics.getFontMetrics().getAscent();
+		int ascent = metrics.getAscent();
+		textAscent = ascent;
 		
-		textX = posX + width / 2 - textWidth / 2;
-		textY = posY + (height - textHeight) / 2 + ascent;
+		textOffsetX = width / 2 - textWidth / 2;
+		textOffsetY = (height - textHeight) / 2 + ascent;
+		textMeasured = true;
 	}
 	
 	@Override
@@ -0,0 +1,242 @@
+package ui.components;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+
+import input.Input;
+import ui.UIComponent;
+import ui.UIResources;
+
+/**
+ * A UITextField is a UIComponent that lets the player type a line <br>
+ * of text. <br> <br>
+ *
+ * The text is read from the characters typed in the Input class <br>
+ * each update, so the game keeps running while the player types. <br>
+ * Text input must be enabled in the Input class for characters to <br>
+ * be recorded.
+ *
+ * @author Elliott Vince
+ */
+
+public class UITextField extends UIComponent {
+
+	private BufferedImage image;
+
+	// Component Dimensions
+	private int width;
+	private int height;
+
+	private StringBuilder text;
+
+	// The maximum number of characters.
+	private int maxLength;
+
+	// Whether the player pressed enter or escape.
+	private volatile boolean submitted;
+	private volatile boolean cancelled;
+
+	// Text Font
+	private Font font;
+
+	// Text Color
+	private Color textColor;
+
+	// The number of updates, used to blink the cursor.
+	private int ticks;
+
+	// The space between the edge of the field and the text.
+	private static final int TEXT_PADDING = 12;
+
+	// How many updates the cursor is shown or hidden for.
+	private static final int CURSOR_BLINK_TICKS = 30;
+
+	// Path to text field image.
+	private static final String IMAGE_PATH =
+			"resources/ui/UILabel.png";
+
+	/**
+	 * Creates a new UITextField.
+	 * @param maxLength The maximum number of characters.
+	 */
+
+	public UITextField(int maxLength) {
+		// Initializes the UITextField.
+		init();
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Initializes the UITextField.
+	 */
+
+	@Override
+	protected void init() {
+		// Calls the parent class's init method.
+		super.init();
+
+		// Initializes the image. The image is shared with every UILabel.
+		image = UIResources.getImage(IMAGE_PATH);
+
+		// Sets the image and the dimensions.
+		setImage(image);
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+
+		text = new StringBuilder();
+
+		// Sets the font and text color.
+		font = UIResources.DEFAULT_FONT;
+		textColor = Color.WHITE;
+	}
+
+	/**
+	 * Reads the characters typed since the last update. <br>
+	 * Backspace removes a character, enter submits the text and <br>
+	 * escape cancels it.
+	 * @param input An instance of the input class.
+	 */
+
+	public void update(Input input) {
+		ticks++;
+
+		char typed;
+		while ((typed = input.nextTypedChar()) != KeyEvent.CHAR_UNDEFINED) {
+			if (typed == '\n') {
+				submitted = true;
+			}
+			else if (typed == KeyEvent.VK_ESCAPE) {
+				cancelled = true;
+			}
+			else if (typed == '\b') {
+				if (text.length() > 0) {
+					text.deleteCharAt(text.length() - 1);
+				}
+			}
+			else if (isAllowed(typed) && text.length() < maxLength) {
+				text.append(typed);
+			}
+		}
+	}
+
+	/**
+	 * Determines if a character can be typed in the field. <br>
+	 * Only letters, digits, spaces, '-', '_' and '.' are allowed.
+	 * @param c The character to be checked.
+	 */
+
+	private boolean isAllowed(char c) {
+		return Character.isLetterOrDigit(c) || c == ' ' || c == '-' || c == '_' || c == '.';
+	}
+
+	/**
+	 * Gets the text in the field.
+	 */
+
+	public String getText() {
+		return text.toString();
+	}
+
+	/**
+	 * Removes the text, and clears the submitted and cancelled states.
+	 */
+
+	public void clear() {
+		text.setLength(0);
+		submitted = false;
+		cancelled = false;
+		ticks = 0;
+	}
+
+	/**
+	 * Determines if the player pressed enter.
+	 */
+
+	public boolean isSubmitted() {
+		return submitted;
+	}
+
+	/**
+	 * Submits the text, as if the player pressed enter.
+	 */
+
+	public void submit() {
+		submitted = true;
+	}
+
+	/**
+	 * Determines if the player pressed escape.
+	 */
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Cancels the text, as if the player pressed escape.
+	 */
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Gets the width of the text field.
+	 */
+
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the height of the text field.
+	 */
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Sets the text's font size.
+	 * @param fontSize The new font size.
+	 */
+
+	public void setFontSize(int fontSize) {
+		// Updates the font. Fonts of the same size are shared.
+		this.font = UIResources.getFont(font, fontSize);
+	}
+
+	/**
+	 * Renders the text field and its text to the screen. <br>
+	 * The cursor blinks after the text.
+	 */
+
+	@Override
+	public void render(Graphics2D graphics) {
+		super.render(graphics);
+
+		FontMetrics metrics = UIResources.getFontMetrics(font);
+		int textX = posX + TEXT_PADDING;
+		int textY = posY + (height - metrics.getHeight()) / 2 + metrics.getAscent();
+
+		graphics.setFont(font);
+		graphics.setColor(textColor);
+
+		String value = text.toString();
+		graphics.drawString(value, textX, textY);
+
+		// Draws the cursor.
+		if ((ticks / CURSOR_BLINK_TICKS) % 2 == 0) {
+			graphics.drawString("|", textX + metrics.stringWidth(value), textY);
+		}
+	}
+
+	@Override
+	public void onClick() {
+	}
+
+}
@@ -2,8 +2,10 @@ package ui.components.panels;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 
+import ui.UIResources;
 import ui.containers.UIPanel;
 
 /**
@@ -16,6 +18,10 @@ public class ControlsPanel extends UIPanel {
 	// Controls array
 	private String[] controls;
 	
+	// The location of each line of text, relative to the panel.
+	private int[] textPosX;
+	private int[] textPosY;
+	
 	// Constants
 	private static final int TEXT_MARGIN_Y = 150;
 	private static final int TEXT_OFFSET_Y = 20;
@@ -50,6 +56,17 @@ public class ControlsPanel extends UIPanel {
 			"Left Click - Shoot",
 			"Esc - Pause"
 		};
+		
+		// Calculates the location of each line of text.
+		FontMetrics metrics = UIResources.getFontMetrics(DEFAULT_FONT);
+		textPosX = new int[controls.length];
+		textPosY = new int[controls.length];
+		
+		for (int index = 0; index < controls.length; index++) {
+			textPosX[index] = width / 2 - metrics.stringWidth(controls[index]) / 2;
+			textPosY[index] = TEXT_MARGIN_Y + TEXT_OFFSET_Y * index +
+				metrics.getHeight() * index;
+		}
 	}
 	
 	/**
@@ -65,19 +82,8 @@ public class ControlsPanel extends UIPanel {
 		
 		// Draws each line of text at the appropriate position.
 		for (int index = 0; index < controls.length; index++) {
-
-			// Gets the line of text at the current index
-			String text = controls[index];
-			
-			// Calculates the text's x and y location
-			int textPosX = width / 2 - 
-				graphics.getFontMetrics().stringWidth(text) / 2;
-
-			int textPosY = TEXT_MARGIN_Y + TEXT_OFFSET_Y * index +
-				graphics.getFontMetrics().getHeight() * index;
-
-			// Draws the text to the screen.
-			graphics.drawString(text, posX + textPosX, posY + textPosY);
+			graphics.drawString(controls[index], posX + textPosX[index],
+					posY + textPosY[index]);
 		}
 	}
 	
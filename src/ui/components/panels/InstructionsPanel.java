@@ -4,8 +4,11 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
+import ui.UIResources;
 import ui.containers.UIPanel;
 
 /**
@@ -26,6 +29,11 @@ public class InstructionsPanel extends UIPanel {
 	
 	private String text;
 	
+	// The lines of text and their locations, relative to the panel.
+	private List<String> lines;
+	private int[] lineX;
+	private int[] lineY;
+	
 	/**
 	 * Creates a new instructions panel.
 	 */
@@ -52,35 +60,27 @@ public class InstructionsPanel extends UIPanel {
 			"you shoot skeletons, but you get the most score if you kill them " + 
 			"quickly. Skeletons have a chance of dropping power ups that will " +
 			"help you survive longer. Good luck!";
+		
+		// Splits the text into lines.
+		layoutText();
 	}
 	
 	/**
-	 * This method is overriden so it can draw the text to the screen.
+	 * Splits the text into lines that fit in the panel. <br>
+	 * This only has to be done once because the text never changes.
 	 */
 	
-	@Override
-	public void render(Graphics2D graphics) {
-		// Calls the render method of the parent class.
-		super.render(graphics);
-		
-		// Renders the text.
-		
-		graphics.setColor(TEXT_COLOR);
-		graphics.setFont(DEFAULT_FONT);
+	private void layoutText() {
+		lines = new ArrayList<String>();
 		
 		// Creates an empty string.
 		String line = "";
 		
-		// Creates a counter variable for the current line of text.
-		int currentLine = 0;
-		
 		// Creates a scanner for the text.
 		Scanner scanner = new Scanner(text);
 		
-		// Gets the font metrics of the graphics.
-		FontMetrics fontMetrics = graphics.getFontMetrics();
-		
-		int textWidth = fontMetrics.stringWidth(line);
+		// Gets the font metrics of the default font.
+		FontMetrics fontMetrics = UIResources.getFontMetrics(DEFAULT_FONT);
 		
 		while (scanner.hasNext()) {
 			String word = scanner.next();
@@ -89,63 +89,65 @@ public class InstructionsPanel extends UIPanel {
 			 * Determines if the width of the string (in pixels) 
 			 * is less than or equal to the max text width.
 			 * If it is, the word is added to the line of text.
-			 * If it is greater, the line is rendered and a new line
+			 * If it is greater, the line is finished and a new line
 			 * begins.
 			 */
 			
 			if (fontMetrics.stringWidth(line + word) <= MAX_TEXT_WIDTH) {
 				// The word is added to the line of text.
 				line += word + " ";
-				
-				// Updates the text width
-				textWidth = fontMetrics.stringWidth(line);
-				
-				// If the scanner is finished iterating, the text is rendered.
-				if (!scanner.hasNext()) {
-					
-					graphics.drawString(line, posX + width / 2 - textWidth / 2,
-							posY + TEXT_MARGIN_Y + TEXT_OFFSET_Y * currentLine + 
-							fontMetrics.getHeight() + fontMetrics.getDescent());
-					
-					currentLine++;
-				}
 			}
 			else {
 				/*
 				 * The width of the string is greated than the max text width,
-				 * so the line is rendered and a new line begins.
+				 * so the line is finished and a new line begins.
 				 */
 				
-				graphics.drawString(line, posX + width / 2 - textWidth / 2, 
-						posY + TEXT_MARGIN_Y + TEXT_OFFSET_Y * currentLine + 
-						fontMetrics.getHeight() + fontMetrics.getDescent());
-				
-				currentLine++;
+				lines.add(line);
 				
 				// Resets the line of text and adds the word to it.
-				line = "";
-				line += word + " ";
-				
-				textWidth = fontMetrics.stringWidth(line);
-				
-				// If the scanner is finished iterating, the text is rendered.
-				if (!scanner.hasNext()) {
-					
-					graphics.drawString(line, posX + width / 2 - textWidth / 2,
-							posY + TEXT_MARGIN_Y + TEXT_OFFSET_Y * currentLine + 
-							fontMetrics.getHeight() + fontMetrics.getDescent());
-					
-					currentLine++;
-				}
+				line = word + " ";
+			}
+			
+			// If the scanner is finished iterating, the last line is added.
+			if (!scanner.hasNext()) {
+				lines.add(line);
 			}
 		}
 		
 		// Closes the scanner
 		scanner.close();
+		
+		// Calculates the location of each line, relative to the panel.
+		lineX = new int[lines.size()];
+		lineY = new int[lines.size()];
+		
+		for (int currentLine = 0; currentLine < lines.size(); currentLine++) {
+			lineX[currentLine] = width / 2 - 
+					fontMetrics.stringWidth(lines.get(currentLine)) / 2;
+			lineY[currentLine] = TEXT_MARGIN_Y + TEXT_OFFSET_Y * currentLine + 
+					fontMetrics.getHeight() + fontMetrics.getDescent();
+		}
 	}
 	
+	/**
+	 * This method is overriden so it can draw the text to the screen.
+	 */
 	
-	
-	
+	@Override
+	public void render(Graphics2D graphics) {
+		// Calls the render method of the parent class.
+		super.render(graphics);
+		
+		// Renders the text.
+		
+		graphics.setColor(TEXT_COLOR);
+		graphics.setFont(DEFAULT_FONT);
+		
+		for (int currentLine = 0; currentLine < lines.size(); currentLine++) {
+			graphics.drawString(lines.get(currentLine), posX + lineX[currentLine],
+					posY + lineY[currentLine]);
+		}
+	}
 
 }
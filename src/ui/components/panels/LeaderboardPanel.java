@@ -2,15 +2,22 @@ package ui.components.panels;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.util.List;
 
 import game.Game;
-import game.Leaderboard;
+import game.OnlineLeaderboard;
+import game.ScoreEntry;
+import game.ScoreLog;
+import ui.UIResources;
 import ui.containers.UIPanel;
 
 /**
  * The leaderboard panel is a panel that automatically
- * displays the data of the leaderboard.
+ * displays the best named scores of the score log. If the
+ * online leaderboard is used and its scores have been
+ * downloaded, they are shown instead of the local scores.
  * 
  * @author Elliott Vince
  */
@@ -23,9 +30,21 @@ public class LeaderboardPanel extends UIPanel {
 	private static final Color TEXT_COLOR = Color.WHITE;
 	private static final Font DEFAULT_FONT = new Font("Arial", Font.PLAIN, 20);
 	
-	private Leaderboard leaderboard;
 	private Game game;
 	
+	// The scores that are shown, which are the online scores if they have been downloaded.
+	private List<ScoreEntry> shownScores;
+	
+	/*
+	 * The entries that are currently displayed. The lines of text are
+	 * only formatted and measured again when an entry changes.
+	 */
+	
+	private String[] names;
+	private int[] scores;
+	private String[] lines;
+	private int[] lineX;
+	
 	/**
 	 * Creates a new leaderboard panel.
 	 * @param game An instance of the game class.
@@ -33,10 +52,14 @@ public class LeaderboardPanel extends UIPanel {
 	
 	public LeaderboardPanel(Game game) {
 		this.game = game;
-		this.leaderboard = game.getLeaderboard();
 		
 		// Calls the parent class's init method.
 		super.init();
+		
+		names = new String[ScoreLog.LEADERBOARD_SCORES];
+		scores = new int[ScoreLog.LEADERBOARD_SCORES];
+		lines = new String[ScoreLog.LEADERBOARD_SCORES];
+		lineX = new int[ScoreLog.LEADERBOARD_SCORES];
 	}
 	
 	/**
@@ -47,28 +70,82 @@ public class LeaderboardPanel extends UIPanel {
 	public void render(Graphics2D graphics) {
 		super.render(graphics);
 		
-		leaderboard = game.getLeaderboard();
+		// The cached online scores are used, so this never waits for the network.
+		OnlineLeaderboard online = game.getOnlineLeaderboard();
+		shownScores = null;
+		
+		if (online.isEnabled()) {
+			List<ScoreEntry> scores = online.getTopScores();
+			
+			if (online.hasTopScores()) {
+				shownScores = scores;
+			}
+		}
+		
+		// The score log keeps its sorted scores, so they are not sorted every frame.
+		if (shownScores == null) {
+			shownScores = game.getScoreLog().getTopScores(ScoreLog.LEADERBOARD_SCORES);
+		}
 		
 		graphics.setColor(TEXT_COLOR);
 		graphics.setFont(DEFAULT_FONT);
 		
-		for (int index = 0; index < Leaderboard.NUM_SCORES; index++) {
+		FontMetrics metrics = UIResources.getFontMetrics(DEFAULT_FONT);
+		
+		for (int index = 0; index < ScoreLog.LEADERBOARD_SCORES; index++) {
 			
-			// Formats the text.
-			String text = "#" + (index + 1) + ": " + leaderboard.getName(index) 
-				+ ": " + leaderboard.getScore(index);
+			// Formats and measures the text if the entry has changed.
+			if (lines[index] == null || !isSameEntry(index)) {
+				names[index] = getName(index);
+				scores[index] = getScore(index);
+				
+				lines[index] = "#" + (index + 1) + ": " + names[index] 
+					+ ": " + scores[index];
+				
+				lineX[index] = width / 2 - metrics.stringWidth(lines[index]) / 2;
+			}
 			
-			// Calculates the text's x and y location
-			int textPosX = width / 2 - 
-					graphics.getFontMetrics().stringWidth(text) / 2;
-
+			// Calculates the text's y location
 			int textPosY = TEXT_MARGIN_Y + TEXT_OFFSET_Y * index +
-					graphics.getFontMetrics().getHeight() * index;
+					metrics.getHeight() * index;
 			
 			// Draws the text to the screen.
-			graphics.drawString(text, posX + textPosX, posY + textPosY);
+			graphics.drawString(lines[index], posX + lineX[index], posY + textPosY);
 			
 		}
 	}
+	
+	/**
+	 * Determines if the displayed entry at the specified index is
+	 * the same as the entry that is shown now.
+	 * @param index The index of the entry.
+	 */
+	
+	private boolean isSameEntry(int index) {
+		String name = getName(index);
+		
+		if (scores[index] != getScore(index)) {
+			return false;
+		}
+		return name == null ? names[index] == null : name.equals(names[index]);
+	}
+	
+	/**
+	 * Gets the name of the displayed entry at the specified index.
+	 * @param index The index of the entry.
+	 */
+	
+	private String getName(int index) {
+		return index < shownScores.size() ? shownScores.get(index).getName() : null;
+	}
+	
+	/**
+	 * Gets the score of the displayed entry at the specified index.
+	 * @param index The index of the entry.
+	 */
+	
+	private int getScore(int index) {
+		return index < shownScores.size() ? shownScores.get(index).getScore() : 0;
+	}
 
 }
@@ -2,13 +2,10 @@ package ui.containers;
 
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
 import ui.UIComponent;
 import ui.UIContainer;
+import ui.UIResources;
 
 /**
  * A UIPanel is a UIComponent that holds other UIComponets.
@@ -44,14 +41,8 @@ public class UIPanel extends UIContainer {
 	protected void init() {
 		super.init();
 		
-		// Initializes the image.
-		
-		try {
-			// Loads the image.
-			image = ImageIO.read(new File(IMAGE_PATH));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// Initializes the image. The image is shared by every UIPanel.
+		image = UIResources.getImage(IMAGE_PATH);
 		
 		// Sets the image and the dimensions.
 		setImage(image);
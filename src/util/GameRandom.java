@@ -0,0 +1,88 @@
+package util;
+
+import java.util.SplittableRandom;
+
+/**
+ * The GameRandom creates every random number used by a game. <br>
+ * It is created from a seed when a game starts, so a game can be <br>
+ * played again with the same spawns and drops by using the same seed. <br> <br>
+ *
+ * There is a separate stream of numbers for spawning skeletons, and <br>
+ * for the powerups that skeletons drop. <br>
+ * Using one stream never changes the numbers of another stream, so <br>
+ * for example, a change to the loot does not move the spawns. <br> <br>
+ *
+ * The seed of every game can be set with -Deternalcombat.seed=&lt;n&gt; <br>
+ * when the game starts.
+ *
+ * @author Elliott Vince
+ */
+
+public class GameRandom {
+
+	// The seed set when the game was started, if there is one.
+	private static final Long FIXED_SEED = Long.getLong("eternalcombat.seed");
+
+	// Creates the seeds of games that do not have a fixed seed.
+	private static final SplittableRandom seeds = new SplittableRandom();
+
+	private long seed;
+
+	// The streams of random numbers.
+	private SplittableRandom spawnRandom;
+	private SplittableRandom lootRandom;
+
+	/**
+	 * Creates the random numbers of a game.
+	 * @param seed The seed of the game.
+	 */
+
+	public GameRandom(long seed) {
+		this.seed = seed;
+
+		// The streams are always split in the same order, so they only depend on the seed.
+		SplittableRandom root = new SplittableRandom(seed);
+		spawnRandom = root.split();
+		lootRandom = root.split();
+	}
+
+	/**
+	 * Creates the seed of a new game. This is the seed set with <br>
+	 * -Deternalcombat.seed, or a new random seed if it was not set.
+	 */
+
+	public static long createSeed() {
+		if (FIXED_SEED != null) {
+			return FIXED_SEED;
+		}
+
+		synchronized (seeds) {
+			return seeds.nextLong();
+		}
+	}
+
+	/**
+	 * Gets the seed of the game.
+	 */
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the random numbers used to spawn skeletons.
+	 */
+
+	public SplittableRandom getSpawnRandom() {
+		return spawnRandom;
+	}
+
+	/**
+	 * Gets the random numbers used for the powerups that skeletons drop.
+	 */
+
+	public SplittableRandom getLootRandom() {
+		return lootRandom;
+	}
+
+}
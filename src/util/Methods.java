@@ -21,4 +21,32 @@ public class Methods {
 	public static Image scaleImage(Image image, int width, int height) {
 		return image.getScaledInstance(width, height, Image.SCALE_SMOOTH);
 	}
+	
+	/**
+	 * Determines if two rectangles overlap. This gives the same result <br>
+	 * as Rectangle.intersects, without creating any Rectangles.
+	 * @param x1 The x location of the first rectangle.
+	 * @param y1 The y location of the first rectangle.
+	 * @param width1 The width of the first rectangle.
+	 * @param height1 The height of the first rectangle.
+	 * @param x2 The x location of the second rectangle.
+	 * @param y2 The y location of the second rectangle.
+	 * @param width2 The width of the second rectangle.
+	 * @param height2 The height of the second rectangle.
+	 * 
+	 * @return True if the rectangles overlap.
+	 */
+	
+	public static boolean intersects(int x1, int y1, int width1, int height1,
+			int x2, int y2, int width2, int height2) {
+		
+		// Empty rectangles never overlap anything.
+		if (width1 <= 0 || height1 <= 0 || width2 <= 0 || height2 <= 0) {
+			return false;
+		}
+		
+		// The edges are compared as longs, so very large rectangles cannot overflow.
+		return (long) x1 < (long) x2 + width2 && (long) x2 < (long) x1 + width1 &&
+				(long) y1 < (long) y2 + height2 && (long) y2 < (long) y1 + height1;
+	}
 }